@@ -28,12 +28,15 @@ import io.micronaut.core.type.Argument;
 import io.micronaut.core.util.ArgumentUtils;
 import io.micronaut.core.util.ArrayUtils;
 import io.micronaut.core.util.CollectionUtils;
+import io.micronaut.core.util.clhm.ConcurrentLinkedHashMap;
 import io.micronaut.data.annotation.QueryHint;
 import io.micronaut.data.jpa.annotation.EntityGraph;
+import io.micronaut.data.jpa.annotation.Stateless;
 import io.micronaut.data.jpa.operations.JpaRepositoryOperations;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
 import io.micronaut.data.model.Sort;
+import io.micronaut.data.model.query.QueryModel;
 import io.micronaut.data.model.query.builder.jpa.JpaQueryBuilder;
 import io.micronaut.data.model.runtime.*;
 import io.micronaut.data.operations.async.AsyncCapableRepository;
@@ -44,10 +47,19 @@ import io.micronaut.data.runtime.operations.ExecutorAsyncOperations;
 import io.micronaut.data.runtime.operations.ExecutorReactiveOperations;
 import io.micronaut.jdbc.spring.HibernatePresenceCondition;
 import io.micronaut.transaction.TransactionOperations;
+import io.micronaut.transaction.annotation.TransactionalAdvice;
+import io.micronaut.transaction.support.TransactionSynchronizationManager;
+import org.hibernate.FlushMode;
+import org.hibernate.HibernateException;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.graph.RootGraph;
+import org.hibernate.jpa.QueryHints;
 import org.hibernate.query.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.inject.Named;
 import javax.persistence.EntityManager;
@@ -58,9 +70,12 @@ import javax.persistence.criteria.*;
 import java.io.Serializable;
 import java.sql.Connection;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -80,10 +95,16 @@ public class HibernateJpaOperations implements JpaRepositoryOperations, AsyncCap
     private static final String ENTITY_GRAPH_FETCH = "javax.persistence.fetchgraph";
     private static final String ENTITY_GRAPH_LOAD = "javax.persistence.loadgraph";
     private static final JpaQueryBuilder QUERY_BUILDER = new JpaQueryBuilder();
+    private static final int ENTITY_QUERY_CACHE_SIZE = 100;
+    private static final Logger LOG = LoggerFactory.getLogger(HibernateJpaOperations.class);
     private final SessionFactory sessionFactory;
     private final TransactionOperations<Connection> transactionOperations;
     private ExecutorAsyncOperations asyncOperations;
     private ExecutorService executorService;
+    private int flushChunkSize = -1;
+    private final Map<EntityQueryKey, String> entityQueries = new ConcurrentLinkedHashMap.Builder<EntityQueryKey, String>()
+            .maximumWeightedCapacity(ENTITY_QUERY_CACHE_SIZE)
+            .build();
 
     /**
      * Default constructor.
@@ -106,14 +127,28 @@ public class HibernateJpaOperations implements JpaRepositoryOperations, AsyncCap
     @Override
     public Map<String, Object> getQueryHints(@NonNull StoredQuery<?, ?> storedQuery) {
         AnnotationMetadata annotationMetadata = storedQuery.getAnnotationMetadata();
+        Map<String, Object> queryHints = new HashMap<>(4);
         if (annotationMetadata.hasAnnotation(EntityGraph.class)) {
             String hint = annotationMetadata.stringValue(EntityGraph.class, "hint").orElse(ENTITY_GRAPH_FETCH);
             String[] paths = annotationMetadata.stringValues(EntityGraph.class, "attributePaths");
             if (ArrayUtils.isNotEmpty(paths)) {
-                return Collections.singletonMap(hint, paths);
+                queryHints.put(hint, paths);
             }
         }
-        return Collections.emptyMap();
+        if (annotationMetadata.booleanValue(TransactionalAdvice.class, "readOnly").orElse(false)) {
+            // don't override hints declared explicitly with @QueryHint
+            List<String> declaredHints = annotationMetadata.getAnnotationValuesByType(QueryHint.class)
+                    .stream()
+                    .map(av -> av.stringValue("name").orElse(null))
+                    .collect(Collectors.toList());
+            if (!declaredHints.contains(QueryHints.HINT_READONLY)) {
+                queryHints.put(QueryHints.HINT_READONLY, true);
+            }
+            if (!declaredHints.contains(QueryHints.HINT_FLUSH_MODE)) {
+                queryHints.put(QueryHints.HINT_FLUSH_MODE, FlushMode.MANUAL);
+            }
+        }
+        return queryHints.isEmpty() ? Collections.emptyMap() : queryHints;
     }
 
     @Nullable
@@ -212,7 +247,16 @@ public class HibernateJpaOperations implements JpaRepositoryOperations, AsyncCap
 
     @Override
     public <T, R> boolean exists(@NonNull PreparedQuery<T, R> preparedQuery) {
-        return findOne(preparedQuery) != null;
+        //noinspection ConstantConditions
+        return transactionOperations.executeRead(status -> {
+            String query = preparedQuery.getQuery();
+            Session currentSession = getCurrentSession();
+            // untyped since generated queries select a constant rather than a value of the result type
+            Query<?> q = preparedQuery.isNative() ? currentSession.createNativeQuery(query) : currentSession.createQuery(query);
+            bindParameters(q, preparedQuery, query);
+            q.setMaxResults(1);
+            return !q.list().isEmpty();
+        });
     }
 
     @NonNull
@@ -221,8 +265,7 @@ public class HibernateJpaOperations implements JpaRepositoryOperations, AsyncCap
         //noinspection ConstantConditions
         return transactionOperations.executeRead(status -> {
             Session session = getCurrentSession();
-            CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
-            Query<T> q = buildCriteriaQuery(session, query.getRootEntity(), criteriaBuilder, query.getPageable());
+            Query<T> q = createEntityQuery(session, query.getRootEntity(), query.getPageable());
             bindQueryHints(q, query, session);
             return q.list();
         });
@@ -233,18 +276,8 @@ public class HibernateJpaOperations implements JpaRepositoryOperations, AsyncCap
         //noinspection ConstantConditions
         return transactionOperations.executeRead(status -> {
             Session session = getCurrentSession();
-            CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
-            CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
-            Root<T> root = query.from(pagedQuery.getRootEntity());
-            query = query.select(criteriaBuilder.count(root));
-            Query<Long> q = session.createQuery(
-                    query
-            );
-            Pageable pageable = pagedQuery.getPageable();
-            bindCriteriaSort(query, root, criteriaBuilder, pageable);
-            bindPageable(q, pageable);
+            Query<Long> q = createCountQuery(session, pagedQuery.getRootEntity());
             bindQueryHints(q, pagedQuery, session);
-
             return q.getSingleResult();
         });
     }
@@ -303,6 +336,11 @@ public class HibernateJpaOperations implements JpaRepositoryOperations, AsyncCap
     }
 
     private <T> void bindQueryHints(Query<?> q, @NonNull PagedQuery<T> preparedQuery, @NonNull Session session) {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // nothing loaded within a read-only transaction is flushed, so skip the snapshots and the auto flush
+            q.setReadOnly(true);
+            q.setHibernateFlushMode(FlushMode.MANUAL);
+        }
         Map<String, Object> queryHints = preparedQuery.getQueryHints();
         if (CollectionUtils.isNotEmpty(queryHints)) {
             for (Map.Entry<String, Object> entry : queryHints.entrySet()) {
@@ -331,6 +369,10 @@ public class HibernateJpaOperations implements JpaRepositoryOperations, AsyncCap
     @SuppressWarnings("ConstantConditions")
     @Override
     public <T> T persist(@NonNull InsertOperation<T> operation) {
+        if (operation.getAnnotationMetadata().hasAnnotation(Stateless.class)) {
+            persistAllStateless(Collections.singletonList(operation.getEntity()));
+            return operation.getEntity();
+        }
         return transactionOperations.executeWrite(status -> {
             T entity = operation.getEntity();
 
@@ -347,6 +389,10 @@ public class HibernateJpaOperations implements JpaRepositoryOperations, AsyncCap
     @NonNull
     @Override
     public <T> T update(@NonNull UpdateOperation<T> operation) {
+        if (operation.getAnnotationMetadata().hasAnnotation(Stateless.class)) {
+            updateAllStateless(Collections.singletonList(operation.getEntity()));
+            return operation.getEntity();
+        }
         return transactionOperations.executeWrite(status -> {
             T entity = operation.getEntity();
             EntityManager session = sessionFactory.getCurrentSession();
@@ -360,11 +406,16 @@ public class HibernateJpaOperations implements JpaRepositoryOperations, AsyncCap
     @NonNull
     @Override
     public <T> Iterable<T> persistAll(@NonNull BatchOperation<T> operation) {
+        if (operation != null && operation.getAnnotationMetadata().hasAnnotation(Stateless.class)) {
+            return persistAllStateless(operation);
+        }
         return transactionOperations.executeWrite(status -> {
             if (operation != null) {
                 EntityManager entityManager = sessionFactory.getCurrentSession();
+                int count = 0;
                 for (T entity : operation) {
                     entityManager.persist(entity);
+                    flushChunkIfNecessary(entityManager, ++count);
                 }
                 AnnotationMetadata annotationMetadata =
                         operation.getAnnotationMetadata();
@@ -376,6 +427,107 @@ public class HibernateJpaOperations implements JpaRepositoryOperations, AsyncCap
         });
     }
 
+    @NonNull
+    @Override
+    public <T> T upsert(@NonNull InsertOperation<T> operation) {
+        // JPA has no native upsert, merge inserts or updates depending on whether the entity exists
+        return transactionOperations.executeWrite(status -> {
+            EntityManager entityManager = sessionFactory.getCurrentSession();
+            T entity = entityManager.merge(operation.getEntity());
+            flushIfNecessary(entityManager, operation.getAnnotationMetadata());
+            return entity;
+        });
+    }
+
+    @NonNull
+    @Override
+    public <T> Iterable<T> upsertAll(@NonNull BatchOperation<T> operation) {
+        return transactionOperations.executeWrite(status -> {
+            EntityManager entityManager = sessionFactory.getCurrentSession();
+            List<T> results = new ArrayList<>(10);
+            for (T entity : operation) {
+                results.add(entityManager.merge(entity));
+            }
+            flushIfNecessary(entityManager, operation.getAnnotationMetadata());
+            return results;
+        });
+    }
+
+    /**
+     * Flushes and clears the persistence context once a chunk of entities has been processed, if chunking is enabled.
+     * @param entityManager The entity manager
+     * @param count The number of entities processed so far
+     */
+    private void flushChunkIfNecessary(EntityManager entityManager, int count) {
+        int chunkSize = flushChunkSize;
+        if (chunkSize > 0 && count % chunkSize == 0) {
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
+
+    /**
+     * @return The number of entities after which batch operations flush and clear the persistence context, or
+     * {@code -1} if the persistence context is only flushed at the end of the transaction.
+     * @since 1.0.1
+     */
+    public int getFlushChunkSize() {
+        return flushChunkSize;
+    }
+
+    /**
+     * Sets the number of entities after which {@link #persistAll(BatchOperation)} and
+     * {@link #deleteAll(BatchOperation)} flush and clear the persistence context, keeping its size bounded for
+     * large batches. When {@code hibernate.jdbc.batch_size} is configured the chunk size is rounded up to a
+     * multiple of it so that every flush sends full JDBC batches. A value of zero or less disables chunking.
+     *
+     * <p>Note that clearing the persistence context detaches every entity of the current session, including
+     * entities loaded earlier in the same transaction.</p>
+     *
+     * @param flushChunkSize The chunk size
+     * @since 1.0.1
+     */
+    public void setFlushChunkSize(int flushChunkSize) {
+        if (flushChunkSize > 0) {
+            int jdbcBatchSize = sessionFactory instanceof SessionFactoryImplementor ?
+                    ((SessionFactoryImplementor) sessionFactory).getSessionFactoryOptions().getJdbcBatchSize() : 0;
+            if (jdbcBatchSize > 1 && flushChunkSize % jdbcBatchSize != 0) {
+                flushChunkSize = (flushChunkSize / jdbcBatchSize + 1) * jdbcBatchSize;
+            }
+            this.flushChunkSize = flushChunkSize;
+        } else {
+            this.flushChunkSize = -1;
+        }
+    }
+
+    /**
+     * Compiles the given JPA-QL queries ahead of time so that their query plans are cached by the session factory
+     * before the first invocation. Queries that cannot be compiled are logged and skipped.
+     *
+     * @param queries The queries
+     * @return The number of queries compiled
+     */
+    public int compileQueries(@NonNull Iterable<String> queries) {
+        ArgumentUtils.requireNonNull("queries", queries);
+        int compiled = 0;
+        Session session = sessionFactory.openSession();
+        try {
+            for (String query : queries) {
+                try {
+                    session.createQuery(query);
+                    compiled++;
+                } catch (IllegalArgumentException | HibernateException e) {
+                    if (LOG.isWarnEnabled()) {
+                        LOG.warn("Unable to compile query [" + query + "]: " + e.getMessage());
+                    }
+                }
+            }
+        } finally {
+            session.close();
+        }
+        return compiled;
+    }
+
     private void flushIfNecessary(
             EntityManager entityManager,
             AnnotationMetadata annotationMetadata) {
@@ -418,7 +570,7 @@ public class HibernateJpaOperations implements JpaRepositoryOperations, AsyncCap
                 Session session = getCurrentSession();
                 for (T entity : operation) {
                     session.remove(entity);
-                    i++;
+                    flushChunkIfNecessary(session, ++i);
                 }
                 return i;
             });
@@ -429,6 +581,13 @@ public class HibernateJpaOperations implements JpaRepositoryOperations, AsyncCap
     @NonNull
     @Override
     public <T, R> Stream<R> findStream(@NonNull PreparedQuery<T, R> preparedQuery) {
+        AnnotationMetadata annotationMetadata = preparedQuery.getAnnotationMetadata();
+        if (annotationMetadata.hasAnnotation(Stateless.class)) {
+            return findStreamStateless(
+                    preparedQuery,
+                    annotationMetadata.intValue(Stateless.class, "fetchSize").orElse(Stateless.DEFAULT_FETCH_SIZE)
+            );
+        }
         //noinspection ConstantConditions
         return transactionOperations.executeRead(status -> {
             String query = preparedQuery.getQuery();
@@ -467,18 +626,91 @@ public class HibernateJpaOperations implements JpaRepositoryOperations, AsyncCap
         });
     }
 
+    @NonNull
+    @Override
+    public <T, R> Stream<R> findStreamStateless(@NonNull PreparedQuery<T, R> preparedQuery, int fetchSize) {
+        //noinspection ConstantConditions
+        return transactionOperations.executeRead(status -> {
+            String query = preparedQuery.getQuery();
+            StatelessSession session = openStatelessSession(status.getConnection());
+            try {
+                Query<?> q;
+                if (preparedQuery.isDtoProjection()) {
+                    q = preparedQuery.isNative() ? session.createNativeQuery(query, Tuple.class) : session.createQuery(query, Tuple.class);
+                } else {
+                    @SuppressWarnings("unchecked")
+                    Class<R> wrapperType = ReflectionUtils.getWrapperType(preparedQuery.getResultType());
+                    q = preparedQuery.isNative() ? session.createNativeQuery(query, wrapperType) : session.createQuery(query, wrapperType);
+                }
+                bindParameters(q, preparedQuery, query);
+                bindPageable(q, preparedQuery.getPageable());
+                if (fetchSize > 0) {
+                    q.setFetchSize(fetchSize);
+                }
+                // streams scroll the results forward only and close them when the stream is closed
+                Stream<?> stream = q.stream().onClose(session::close);
+                if (preparedQuery.isDtoProjection()) {
+                    return stream.map(tuple -> ((BeanIntrospectionMapper<Tuple, R>) Tuple::get).map((Tuple) tuple, preparedQuery.getResultType()));
+                }
+                //noinspection unchecked
+                return (Stream<R>) stream;
+            } catch (RuntimeException e) {
+                session.close();
+                throw e;
+            }
+        });
+    }
+
+    @NonNull
+    @Override
+    public <T> Iterable<T> persistAllStateless(@NonNull Iterable<T> entities) {
+        return transactionOperations.executeWrite(status -> {
+            // the persistence context may hold pending changes the inserts depend on
+            getCurrentSession().flush();
+            StatelessSession session = openStatelessSession(status.getConnection());
+            try {
+                for (T entity : entities) {
+                    session.insert(entity);
+                }
+            } finally {
+                session.close();
+            }
+            return entities;
+        });
+    }
+
+    @NonNull
+    @Override
+    public <T> Iterable<T> updateAllStateless(@NonNull Iterable<T> entities) {
+        return transactionOperations.executeWrite(status -> {
+            getCurrentSession().flush();
+            StatelessSession session = openStatelessSession(status.getConnection());
+            try {
+                for (T entity : entities) {
+                    session.update(entity);
+                }
+            } finally {
+                session.close();
+            }
+            return entities;
+        });
+    }
+
+    /**
+     * Opens a stateless session that uses the connection of the current transaction. Closing the session does
+     * not close the connection.
+     * @param connection The connection
+     * @return The stateless session
+     */
+    private StatelessSession openStatelessSession(Connection connection) {
+        return sessionFactory.openStatelessSession(connection);
+    }
+
     @NonNull
     @Override
     public <T> Stream<T> findStream(@NonNull PagedQuery<T> pagedQuery) {
         Session session = getCurrentSession();
-        Class<T> entity = pagedQuery.getRootEntity();
-        CriteriaQuery<T> query = session.getCriteriaBuilder().createQuery(entity);
-        query.from(entity);
-        Query<T> q = session.createQuery(
-                query
-        );
-        bindPageable(q, pagedQuery.getPageable());
-
+        Query<T> q = createEntityQuery(session, pagedQuery.getRootEntity(), pagedQuery.getPageable());
         return q.stream();
     }
 
@@ -487,14 +719,11 @@ public class HibernateJpaOperations implements JpaRepositoryOperations, AsyncCap
         //noinspection ConstantConditions
         return transactionOperations.executeRead(status -> {
             Session session = getCurrentSession();
-            CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
             Class<R> entity = query.getRootEntity();
             Pageable pageable = query.getPageable();
-            Query<R> q = buildCriteriaQuery(session, entity, criteriaBuilder, pageable);
+            Query<R> q = createEntityQuery(session, entity, pageable);
             List<R> resultList = q.list();
-            CriteriaQuery<Long> countQuery = criteriaBuilder.createQuery(Long.class);
-            countQuery.select(criteriaBuilder.count(countQuery.from(entity)));
-            Long total = session.createQuery(countQuery).getSingleResult();
+            Long total = createCountQuery(session, entity).getSingleResult();
             return Page.of(resultList, pageable, total);
         });
     }
@@ -512,17 +741,42 @@ public class HibernateJpaOperations implements JpaRepositoryOperations, AsyncCap
                 .orElse(Optional.empty()).orElse(null);
     }
 
-    private <T> Query<T> buildCriteriaQuery(Session session, @NonNull Class<T> rootEntity, CriteriaBuilder criteriaBuilder, @NonNull Pageable pageable) {
-        CriteriaQuery<T> query = criteriaBuilder.createQuery(rootEntity);
-        Root<T> root = query.from(rootEntity);
-        bindCriteriaSort(query, root, criteriaBuilder, pageable);
-        Query<T> q = session.createQuery(
-                query
-        );
+    private <T> Query<T> createEntityQuery(Session session, @NonNull Class<T> rootEntity, @NonNull Pageable pageable) {
+        String query = getEntityQuery(rootEntity, pageable.getSort(), false);
+        Query<T> q = session.createQuery(query, rootEntity);
         bindPageable(q, pageable);
         return q;
     }
 
+    private Query<Long> createCountQuery(Session session, @NonNull Class<?> rootEntity) {
+        String query = getEntityQuery(rootEntity, Sort.unsorted(), true);
+        return session.createQuery(query, Long.class);
+    }
+
+    /**
+     * Resolves the JPA-QL for a query over all instances of the given entity. The query is built once per entity
+     * and sort rather than building a criteria query, which Hibernate renders to JPA-QL again, on every invocation.
+     *
+     * @param rootEntity The root entity
+     * @param sort The sort
+     * @param count Whether to count the instances
+     * @return The query
+     */
+    private String getEntityQuery(@NonNull Class<?> rootEntity, @NonNull Sort sort, boolean count) {
+        return entityQueries.computeIfAbsent(new EntityQueryKey(rootEntity, sort, count), key -> {
+            RuntimePersistentEntity<?> entity = getEntity(rootEntity);
+            QueryModel queryModel = QueryModel.from(entity);
+            if (count) {
+                queryModel.projections().count();
+            }
+            String query = QUERY_BUILDER.buildQuery(queryModel).getQuery();
+            if (sort.isSorted()) {
+                query += QUERY_BUILDER.buildOrderBy(entity, sort).getQuery();
+            }
+            return query;
+        });
+    }
+
     private <T> void bindPageable(Query<T> q, @NonNull Pageable pageable) {
         if (pageable == Pageable.UNPAGED) {
             // no pagination
@@ -539,26 +793,6 @@ public class HibernateJpaOperations implements JpaRepositoryOperations, AsyncCap
         }
     }
 
-    private <T> void bindCriteriaSort(CriteriaQuery<T> criteriaQuery, Root<?> root, CriteriaBuilder builder, @NonNull Sort sort) {
-        for (Sort.Order order : sort.getOrderBy()) {
-            Path<String> path = root.get(order.getProperty());
-            Expression expression = order.isIgnoreCase() ? builder.lower(path) : path;
-            switch (order.getDirection()) {
-
-                case DESC:
-                    criteriaQuery.orderBy(
-                            builder.desc(expression)
-                    );
-                    continue;
-                default:
-                case ASC:
-                    criteriaQuery.orderBy(
-                            builder.asc(expression)
-                    );
-            }
-        }
-    }
-
     @NonNull
     private ExecutorService newLocalThreadPool() {
         this.executorService = Executors.newCachedThreadPool();
@@ -573,9 +807,12 @@ public class HibernateJpaOperations implements JpaRepositoryOperations, AsyncCap
             synchronized (this) { // double check
                 asyncOperations = this.asyncOperations;
                 if (asyncOperations == null) {
+                    // tasks submitted within a transaction participate in it, one task at a time
                     asyncOperations = new ExecutorAsyncOperations(
                             this,
-                            executorService != null ? executorService : newLocalThreadPool()
+                            TransactionSynchronizationManager.propagatingExecutor(
+                                    executorService != null ? executorService : newLocalThreadPool()
+                            )
                     );
                     this.asyncOperations = asyncOperations;
                 }
@@ -611,4 +848,38 @@ public class HibernateJpaOperations implements JpaRepositoryOperations, AsyncCap
         );
     }
 
+
+    /**
+     * Key for the queries over all instances of an entity.
+     */
+    private static final class EntityQueryKey {
+        private final Class<?> rootEntity;
+        private final Sort sort;
+        private final boolean count;
+
+        EntityQueryKey(Class<?> rootEntity, Sort sort, boolean count) {
+            this.rootEntity = rootEntity;
+            this.sort = sort;
+            this.count = count;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            EntityQueryKey that = (EntityQueryKey) o;
+            return count == that.count &&
+                    rootEntity.equals(that.rootEntity) &&
+                    sort.equals(that.sort);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(rootEntity, sort, count);
+        }
+    }
 }
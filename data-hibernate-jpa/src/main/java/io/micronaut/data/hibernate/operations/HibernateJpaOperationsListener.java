@@ -0,0 +1,97 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.data.hibernate.operations;
+
+import io.micronaut.context.BeanContext;
+import io.micronaut.context.env.Environment;
+import io.micronaut.context.event.BeanCreatedEvent;
+import io.micronaut.context.event.BeanCreatedEventListener;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.data.annotation.Query;
+import io.micronaut.data.annotation.Repository;
+import io.micronaut.data.annotation.RepositoryConfiguration;
+import io.micronaut.data.model.query.builder.jpa.JpaQueryBuilder;
+import io.micronaut.data.repository.GenericRepository;
+import io.micronaut.inject.BeanDefinition;
+import io.micronaut.inject.ExecutableMethod;
+
+import javax.inject.Singleton;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Applies the {@code jpa.[name].flush-chunk-size} setting to the {@link HibernateJpaOperations} of the
+ * session factory and, if {@code jpa.[name].compile-queries} is enabled, compiles the JPA-QL queries of
+ * the repositories that use it.
+ *
+ * @author graemerocher
+ * @since 1.0.1
+ */
+@Internal
+@Singleton
+class HibernateJpaOperationsListener implements BeanCreatedEventListener<HibernateJpaOperations> {
+
+    private static final String DEFAULT_NAME = "default";
+
+    private final Environment environment;
+    private final BeanContext beanContext;
+
+    /**
+     * Default constructor.
+     * @param environment The environment
+     * @param beanContext The bean context
+     */
+    HibernateJpaOperationsListener(Environment environment, BeanContext beanContext) {
+        this.environment = environment;
+        this.beanContext = beanContext;
+    }
+
+    @Override
+    public HibernateJpaOperations onCreated(BeanCreatedEvent<HibernateJpaOperations> event) {
+        HibernateJpaOperations operations = event.getBean();
+        String name = event.getBeanIdentifier().getName();
+        environment.getProperty("jpa." + name + ".flush-chunk-size", Integer.class)
+                .ifPresent(operations::setFlushChunkSize);
+        if (environment.getProperty("jpa." + name + ".compile-queries", Boolean.class).orElse(false)) {
+            operations.compileQueries(findQueries(name));
+        }
+        return operations;
+    }
+
+    private Set<String> findQueries(String name) {
+        Set<String> queries = new LinkedHashSet<>();
+        for (BeanDefinition<GenericRepository> definition : beanContext.getBeanDefinitions(GenericRepository.class)) {
+            String repositoryName = definition.stringValue(Repository.class)
+                    .filter(StringUtils::isNotEmpty)
+                    .orElse(DEFAULT_NAME);
+            boolean jpa = definition.classValue(RepositoryConfiguration.class, "queryBuilder")
+                    .map(JpaQueryBuilder.class::equals)
+                    .orElse(true);
+            if (!jpa || !repositoryName.equals(name)) {
+                continue;
+            }
+            for (ExecutableMethod<GenericRepository, ?> method : definition.getExecutableMethods()) {
+                if (method.isTrue(Query.class, "nativeQuery")) {
+                    continue;
+                }
+                method.stringValue(Query.class).ifPresent(queries::add);
+                method.stringValue(Query.class, "countQuery").filter(StringUtils::isNotEmpty).ifPresent(queries::add);
+            }
+        }
+        return queries;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.data.jpa.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Executes a repository method with a Hibernate {@code StatelessSession} that participates in the current
+ * transaction instead of the current session, bypassing the persistence context.
+ *
+ * <p>Stream finders read the results with a forward-only cursor using the configured {@link #fetchSize()}, so that
+ * results can be processed in constant memory. Save and update methods insert and update the entities directly.
+ * Entities read or written this way are never managed: they are not dirty checked, lazy associations cannot be
+ * initialized, and cascades, interceptors and the second-level cache are bypassed.</p>
+ *
+ * @author graemerocher
+ * @since 1.0.1
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD, ElementType.ANNOTATION_TYPE })
+@Documented
+public @interface Stateless {
+
+    /**
+     * The default fetch size.
+     */
+    int DEFAULT_FETCH_SIZE = 1000;
+
+    /**
+     * @return The number of rows fetched from the database at once when streaming results
+     */
+    int fetchSize() default DEFAULT_FETCH_SIZE;
+}
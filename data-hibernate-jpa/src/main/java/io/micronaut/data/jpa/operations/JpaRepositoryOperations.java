@@ -16,9 +16,11 @@
 package io.micronaut.data.jpa.operations;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
+import io.micronaut.data.model.runtime.PreparedQuery;
 import io.micronaut.data.operations.PrimaryRepositoryOperations;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
+import java.util.stream.Stream;
 
 /**
  * Operations interface specific to JPA.
@@ -44,4 +46,46 @@ public interface JpaRepositoryOperations extends PrimaryRepositoryOperations {
      * Flush the current session.
      */
     void flush();
+
+    /**
+     * Streams the results of the given query without a persistence context, reading them with a forward-only
+     * cursor in the given fetch size. The returned entities are not managed. The stream must be consumed within the
+     * current transaction and closed once done.
+     *
+     * @param preparedQuery The prepared query
+     * @param fetchSize The number of rows to fetch from the database at once
+     * @param <T> The entity type
+     * @param <R> The result type
+     * @return The stream of results
+     * @see io.micronaut.data.jpa.annotation.Stateless
+     * @since 1.0.1
+     */
+    @NonNull
+    <T, R> Stream<R> findStreamStateless(@NonNull PreparedQuery<T, R> preparedQuery, int fetchSize);
+
+    /**
+     * Inserts the given entities without a persistence context. The entities are not managed after the insert and
+     * associations are not cascaded.
+     *
+     * @param entities The entities
+     * @param <T> The entity type
+     * @return The inserted entities
+     * @see io.micronaut.data.jpa.annotation.Stateless
+     * @since 1.0.1
+     */
+    @NonNull
+    <T> Iterable<T> persistAllStateless(@NonNull Iterable<T> entities);
+
+    /**
+     * Updates the given entities without a persistence context. Every column of the entities is updated since
+     * there is no snapshot to compare with, and associations are not cascaded.
+     *
+     * @param entities The entities
+     * @param <T> The entity type
+     * @return The updated entities
+     * @see io.micronaut.data.jpa.annotation.Stateless
+     * @since 1.0.1
+     */
+    @NonNull
+    <T> Iterable<T> updateAllStateless(@NonNull Iterable<T> entities);
 }
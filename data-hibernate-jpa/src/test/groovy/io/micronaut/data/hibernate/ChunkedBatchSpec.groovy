@@ -0,0 +1,47 @@
+package io.micronaut.data.hibernate
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.data.hibernate.operations.HibernateJpaOperations
+import io.micronaut.data.tck.entities.Person
+import io.micronaut.test.annotation.MicronautTest
+import io.micronaut.transaction.hibernate5.HibernateTransactionManager
+import spock.lang.Specification
+
+import javax.inject.Inject
+
+@MicronautTest(transactional = false, packages = "io.micronaut.data.tck.entities")
+@Property(name = "datasources.default.name", value = "chunkdb")
+@Property(name = 'jpa.default.properties.hibernate.hbm2ddl.auto', value = 'create-drop')
+@Property(name = 'jpa.default.properties.hibernate.jdbc.batch_size', value = '4')
+@Property(name = 'jpa.default.flush-chunk-size', value = '3')
+class ChunkedBatchSpec extends Specification {
+
+    @Inject PersonCrudRepository crudRepository
+    @Inject HibernateJpaOperations operations
+    @Inject HibernateTransactionManager transactionManager
+
+    void "test the chunk size is aligned to the JDBC batch size"() {
+        expect:
+        operations.flushChunkSize == 4
+    }
+
+    void "test persistAll flushes and clears the persistence context in chunks"() {
+        when:
+        List<Person> people = (1..10).collect { new Person(name: "Person $it") }
+        List<Boolean> managed = transactionManager.executeWrite { status ->
+            crudRepository.saveAll(people)
+            people.collect { operations.currentEntityManager.contains(it) }
+        }
+
+        then:"entities of completed chunks are detached"
+        managed == [false] * 8 + [true] * 2
+        people.every { it.id != null }
+        crudRepository.count() == 10
+
+        when:
+        crudRepository.deleteAll(people)
+
+        then:
+        crudRepository.count() == 0
+    }
+}
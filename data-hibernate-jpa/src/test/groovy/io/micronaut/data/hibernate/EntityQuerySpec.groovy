@@ -0,0 +1,64 @@
+package io.micronaut.data.hibernate
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.data.hibernate.operations.HibernateJpaOperations
+import io.micronaut.data.model.Page
+import io.micronaut.data.model.Pageable
+import io.micronaut.data.model.Sort
+import io.micronaut.data.tck.entities.Person
+import io.micronaut.test.annotation.MicronautTest
+import spock.lang.Specification
+import spock.lang.Stepwise
+
+import javax.inject.Inject
+
+@MicronautTest(transactional = false, packages = "io.micronaut.data.tck.entities")
+@Property(name = "datasources.default.name", value = "entityquerydb")
+@Property(name = 'jpa.default.properties.hibernate.hbm2ddl.auto', value = 'create-drop')
+@Property(name = 'jpa.default.compile-queries', value = 'true')
+@Stepwise
+class EntityQuerySpec extends Specification {
+
+    @Inject PersonCrudRepository crudRepository
+    @Inject HibernateJpaOperations operations
+
+    void "test queries that fail to compile are skipped"() {
+        expect:
+        operations.compileQueries(["from Person p where p.name = :n", "not a query"]) == 1
+    }
+
+    void "test find all applies every order"() {
+        given:
+        crudRepository.saveAll([
+                new Person(name: "Fred", age: 30),
+                new Person(name: "Bob", age: 30),
+                new Person(name: "Alice", age: 20)
+        ])
+
+        when:
+        List<Person> people = crudRepository.findAll(Sort.of(Sort.Order.desc("age"), Sort.Order.asc("name")))
+
+        then:
+        people*.name == ["Bob", "Fred", "Alice"]
+    }
+
+    void "test find page uses the cached queries"() {
+        when:
+        Page<Person> page = crudRepository.findAll(Pageable.from(1, 2, Sort.of(Sort.Order.asc("name"))))
+
+        then:
+        page.totalSize == 3
+        page.content*.name == ["Fred"]
+        crudRepository.count() == 3
+    }
+
+    void "test find all ignoring case"() {
+        given:
+        crudRepository.save(new Person(name: "carl", age: 40))
+
+        expect:
+        crudRepository.findAll(Sort.of(Sort.Order.asc("name")))*.name == ["Alice", "Bob", "Fred", "carl"]
+        crudRepository.findAll(Sort.of(Sort.Order.asc("name", true)))*.name == ["Alice", "Bob", "carl", "Fred"]
+        crudRepository.findAll(Pageable.from(0, 2, Sort.of(Sort.Order.desc("name", true)))).content*.name == ["Fred", "carl"]
+    }
+}
@@ -0,0 +1,59 @@
+package io.micronaut.data.hibernate
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.data.hibernate.operations.HibernateJpaOperations
+import io.micronaut.data.tck.entities.Person
+import io.micronaut.test.annotation.MicronautTest
+import io.micronaut.transaction.hibernate5.HibernateTransactionManager
+import org.hibernate.Session
+import spock.lang.Specification
+
+import javax.inject.Inject
+
+@MicronautTest(transactional = false, packages = "io.micronaut.data.tck.entities")
+@Property(name = "datasources.default.name", value = "readonlydb")
+@Property(name = 'jpa.default.properties.hibernate.hbm2ddl.auto', value = 'create-drop')
+class ReadOnlyQuerySpec extends Specification {
+
+    @Inject ReadOnlyPersonRepository readOnlyRepository
+    @Inject PersonCrudRepository crudRepository
+    @Inject HibernateJpaOperations operations
+    @Inject HibernateTransactionManager transactionManager
+
+    void "test entities loaded in a read-only transaction are read-only"() {
+        given:
+        crudRepository.save(new Person(name: "Fred", age: 30))
+
+        when:
+        boolean readOnly = transactionManager.executeRead { status ->
+            Person person = crudRepository.findByName("Fred")
+            operations.currentEntityManager.unwrap(Session).isReadOnly(person)
+        }
+
+        then:
+        readOnly
+
+        cleanup:
+        crudRepository.deleteAll()
+    }
+
+    void "test read-only finders are not dirty checked in a write transaction"() {
+        given:
+        crudRepository.save(new Person(name: "Bob", age: 40))
+
+        when:
+        boolean readOnly = transactionManager.executeWrite { status ->
+            Person person = readOnlyRepository.findByName("Bob")
+            person.name = "Changed"
+            operations.currentEntityManager.unwrap(Session).isReadOnly(person)
+        }
+
+        then:
+        readOnly
+        crudRepository.findByName("Changed") == null
+        crudRepository.findByName("Bob") != null
+
+        cleanup:
+        crudRepository.deleteAll()
+    }
+}
@@ -0,0 +1,69 @@
+package io.micronaut.data.hibernate
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.data.hibernate.operations.HibernateJpaOperations
+import io.micronaut.data.tck.entities.Person
+import io.micronaut.test.annotation.MicronautTest
+import io.micronaut.transaction.hibernate5.HibernateTransactionManager
+import spock.lang.Specification
+import spock.lang.Stepwise
+
+import javax.inject.Inject
+import java.util.stream.Collectors
+
+@MicronautTest(transactional = false, packages = "io.micronaut.data.tck.entities")
+@Property(name = "datasources.default.name", value = "statelessdb")
+@Property(name = 'jpa.default.properties.hibernate.hbm2ddl.auto', value = 'create-drop')
+@Stepwise
+class StatelessSpec extends Specification {
+
+    @Inject StatelessPersonRepository statelessRepository
+    @Inject PersonCrudRepository crudRepository
+    @Inject HibernateJpaOperations operations
+    @Inject HibernateTransactionManager transactionManager
+
+    void "test entities are inserted without a persistence context"() {
+        given:
+        List<Person> people = (1..5).collect { new Person(name: "Person $it", age: it * 10) }
+
+        when:
+        boolean managed = transactionManager.executeWrite { status ->
+            statelessRepository.saveAll(people)
+            people.any { operations.currentEntityManager.contains(it) }
+        }
+
+        then:
+        !managed
+        people.every { it.id != null }
+        crudRepository.count() == 5
+    }
+
+    void "test results are streamed without a persistence context"() {
+        when:
+        List<Object> result = transactionManager.executeRead { status ->
+            def stream = statelessRepository.findByAgeGreaterThan(20)
+            try {
+                List<Person> people = stream.collect(Collectors.toList())
+                [people*.age.sort(), people.any { operations.currentEntityManager.contains(it) }]
+            } finally {
+                stream.close()
+            }
+        }
+
+        then:
+        result[0] == [30, 40, 50]
+        result[1] == false
+    }
+
+    void "test entities are updated without a persistence context"() {
+        given:
+        Person person = crudRepository.findByName("Person 1")
+        person.name = "Updated"
+
+        when:
+        statelessRepository.update(person)
+
+        then:
+        crudRepository.findByName("Updated") != null
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.data.hibernate;
+
+import io.micronaut.data.annotation.Repository;
+import io.micronaut.data.jpa.annotation.Stateless;
+import io.micronaut.data.repository.GenericRepository;
+import io.micronaut.data.tck.entities.Person;
+
+import java.util.stream.Stream;
+
+@Repository
+public interface StatelessPersonRepository extends GenericRepository<Person, Long> {
+
+    @Stateless(fetchSize = 2)
+    Stream<Person> findByAgeGreaterThan(int age);
+
+    @Stateless
+    <S extends Person> Iterable<S> saveAll(Iterable<S> entities);
+
+    @Stateless
+    <S extends Person> S update(S entity);
+}
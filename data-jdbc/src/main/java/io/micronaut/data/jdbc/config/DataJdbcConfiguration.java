@@ -22,6 +22,8 @@ import io.micronaut.data.model.query.builder.sql.Dialect;
 import io.micronaut.data.runtime.config.SchemaGenerate;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -38,10 +40,26 @@ public class DataJdbcConfiguration implements Named {
      */
     public static final String PREFIX = "datasources";
 
+    /**
+     * The default time to wait for further writes to coalesce with.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final long DEFAULT_COALESCE_WINDOW_MILLIS = 2;
+
+    /**
+     * The default maximum number of coalesced writes.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final int DEFAULT_COALESCE_BATCH_SIZE = 100;
+
     private SchemaGenerate schemaGenerate = SchemaGenerate.NONE;
     private boolean batchGenerate = false;
     private Dialect dialect = Dialect.ANSI;
     private List<String> packages = new ArrayList<>(3);
+    private Duration queryTimeout;
+    private boolean coalesceWrites = false;
+    private Duration coalesceWindow = Duration.ofMillis(DEFAULT_COALESCE_WINDOW_MILLIS);
+    private int coalesceBatchSize = DEFAULT_COALESCE_BATCH_SIZE;
     private final String name;
 
     /**
@@ -115,6 +133,82 @@ public class DataJdbcConfiguration implements Named {
         this.dialect = dialect;
     }
 
+    /**
+     * @return The default timeout of the statements executed by repositories, if any.
+     * @since 1.0.1
+     */
+    @Nullable
+    public Duration getQueryTimeout() {
+        return queryTimeout;
+    }
+
+    /**
+     * Sets the default timeout of the statements executed by repositories. Can be overridden per method with
+     * {@link io.micronaut.data.annotation.QueryTimeout}.
+     * @param queryTimeout The timeout
+     * @since 1.0.1
+     */
+    public void setQueryTimeout(@Nullable Duration queryTimeout) {
+        this.queryTimeout = queryTimeout;
+    }
+
+    /**
+     * @return Whether single entity inserts executed outside of a transaction are coalesced into batches.
+     * @since 1.0.1
+     */
+    public boolean isCoalesceWrites() {
+        return coalesceWrites;
+    }
+
+    /**
+     * Sets whether single entity inserts executed outside of a transaction by concurrent callers are coalesced into
+     * a single batched insert and commit. Defaults to {@code false}.
+     * @param coalesceWrites Whether to coalesce writes
+     * @since 1.0.1
+     */
+    public void setCoalesceWrites(boolean coalesceWrites) {
+        this.coalesceWrites = coalesceWrites;
+    }
+
+    /**
+     * @return The time to wait for further inserts to coalesce with.
+     * @since 1.0.1
+     */
+    public Duration getCoalesceWindow() {
+        return coalesceWindow;
+    }
+
+    /**
+     * Sets the time the first insert of a batch waits for further inserts to coalesce with. Defaults to
+     * {@value #DEFAULT_COALESCE_WINDOW_MILLIS} milliseconds.
+     * @param coalesceWindow The window
+     * @since 1.0.1
+     */
+    public void setCoalesceWindow(Duration coalesceWindow) {
+        if (coalesceWindow != null) {
+            this.coalesceWindow = coalesceWindow;
+        }
+    }
+
+    /**
+     * @return The maximum number of inserts coalesced into one batch.
+     * @since 1.0.1
+     */
+    public int getCoalesceBatchSize() {
+        return coalesceBatchSize;
+    }
+
+    /**
+     * Sets the maximum number of inserts coalesced into one batch. Defaults to {@value #DEFAULT_COALESCE_BATCH_SIZE}.
+     * @param coalesceBatchSize The batch size
+     * @since 1.0.1
+     */
+    public void setCoalesceBatchSize(int coalesceBatchSize) {
+        if (coalesceBatchSize > 0) {
+            this.coalesceBatchSize = coalesceBatchSize;
+        }
+    }
+
     @Nonnull
     @Override
     public String getName() {
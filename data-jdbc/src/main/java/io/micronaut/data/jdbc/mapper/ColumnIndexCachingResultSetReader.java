@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.data.jdbc.mapper;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.util.ArgumentUtils;
+import io.micronaut.data.exceptions.DataAccessException;
+import io.micronaut.data.model.DataType;
+import io.micronaut.data.runtime.mapper.ResultReader;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A {@link ResultReader} for JDBC that reads columns by name, but resolves the index of each column only once
+ * with {@link ResultSet#findColumn(String)} and reads all further rows by index. Since the indexes are those of
+ * the first result set read, an instance must only be used to read the rows of a single query.
+ *
+ * @author graemerocher
+ * @since 1.0.1
+ */
+@Internal
+public final class ColumnIndexCachingResultSetReader implements ResultReader<ResultSet, String> {
+    private final ResultReader<ResultSet, Integer> indexReader;
+    private final Map<String, Integer> columnIndexes = new HashMap<>(10);
+
+    /**
+     * Default constructor.
+     * @param indexReader The reader used to read the columns by index
+     */
+    public ColumnIndexCachingResultSetReader(@NonNull ResultReader<ResultSet, Integer> indexReader) {
+        ArgumentUtils.requireNonNull("indexReader", indexReader);
+        this.indexReader = indexReader;
+    }
+
+    @Nullable
+    @Override
+    public Object readDynamic(@NonNull ResultSet resultSet, @NonNull String name, @NonNull DataType dataType) {
+        return indexReader.readDynamic(resultSet, indexOf(resultSet, name), dataType);
+    }
+
+    @Override
+    public <T> T getRequiredValue(ResultSet resultSet, String name, Class<T> type) throws DataAccessException {
+        return indexReader.getRequiredValue(resultSet, indexOf(resultSet, name), type);
+    }
+
+    @Override
+    public <T> T convertRequired(Object value, Class<T> type) {
+        return indexReader.convertRequired(value, type);
+    }
+
+    @Override
+    public boolean next(ResultSet resultSet) {
+        return indexReader.next(resultSet);
+    }
+
+    private int indexOf(ResultSet resultSet, String name) {
+        Integer index = columnIndexes.get(name);
+        if (index == null) {
+            try {
+                index = resultSet.findColumn(name);
+            } catch (SQLException e) {
+                throw new DataAccessException("Error reading object for name [" + name + "] from result set: " + e.getMessage(), e);
+            }
+            columnIndexes.put(name, index);
+        }
+        return index;
+    }
+}
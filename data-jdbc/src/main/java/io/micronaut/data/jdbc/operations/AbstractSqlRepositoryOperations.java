@@ -80,9 +80,15 @@ public abstract class AbstractSqlRepositoryOperations<RS, PS> implements Reposit
     private final Map<Class, StoredInsert> storedInserts = new ConcurrentHashMap<>(10);
     private final Map<QueryKey, StoredInsert> entityInserts = new ConcurrentHashMap<>(10);
     private final Map<QueryKey, StoredInsert> entityUpdates = new ConcurrentHashMap<>(10);
+    private final Map<QueryKey, StoredInsert> entityUpserts = new ConcurrentHashMap<>(10);
+    private final Map<QueryKey, StoredStatement> entityRetainedValues = new ConcurrentHashMap<>(10);
+    private final Map<QueryKey, StoredStatement> entityDeletes = new ConcurrentHashMap<>(10);
     private final Map<Association, String> associationInserts = new ConcurrentHashMap<>(10);
     private final Map<Class, RuntimePersistentEntity> entities = new ConcurrentHashMap<>(10);
     private final Map<Class, RuntimePersistentProperty> idReaders = new ConcurrentHashMap<>(10);
+    private final Map<Class, List<RuntimePersistentProperty>> generatedProperties = new ConcurrentHashMap<>(10);
+    private final Map<String, String> returningStatements = new ConcurrentHashMap<>(10);
+    private final Map<String, String> affectedRowStatements = new ConcurrentHashMap<>(10);
 
     /**
      * Default constructor.
@@ -200,7 +206,7 @@ public abstract class AbstractSqlRepositoryOperations<RS, PS> implements Reposit
                         );
                     }
 
-                } else if (!prop.isGenerated()) {
+                } else if (!prop.isGenerated() || insert.isUpsert()) {
                     if (beanProperty.hasStereotype(AutoPopulated.class)) {
                         if (beanProperty.hasAnnotation(DateCreated.class)) {
                             now = now != null ? now : dateTimeProvider.getNow();
@@ -213,7 +219,10 @@ public abstract class AbstractSqlRepositoryOperations<RS, PS> implements Reposit
                                     type,
                                     now
                             );
-                            beanProperty.convertAndSet(entity, now);
+                            // an upsert that updates an existing row keeps the stored value, which is read back afterwards
+                            if (!insert.getRetainedProperties().contains(prop)) {
+                                beanProperty.convertAndSet(entity, now);
+                            }
                         } else if (beanProperty.hasAnnotation(DateUpdated.class)) {
                             now = now != null ? now : dateTimeProvider.getNow();
                             if (DataSettings.QUERY_LOG.isTraceEnabled()) {
@@ -227,7 +236,8 @@ public abstract class AbstractSqlRepositoryOperations<RS, PS> implements Reposit
                             );
                             beanProperty.convertAndSet(entity, now);
                         } else if (UUID.class.isAssignableFrom(beanProperty.getType())) {
-                            UUID uuid = UUID.randomUUID();
+                            // an upsert has to target the existing row so keep an already assigned value
+                            UUID uuid = insert.isUpsert() && value != null ? (UUID) value : UUID.randomUUID();
                             if (DataSettings.QUERY_LOG.isTraceEnabled()) {
                                 DataSettings.QUERY_LOG.trace("Binding value {} to parameter at position: {}", uuid, index);
                             }
@@ -328,6 +338,106 @@ public abstract class AbstractSqlRepositoryOperations<RS, PS> implements Reposit
         return parameterValues;
     }
 
+    /**
+     * Obtain the properties of the given entity, excluding the identity, whose values are generated by the database.
+     *
+     * @param persistentEntity The entity
+     * @param <T> The entity type
+     * @return The generated properties, never null
+     */
+    @NonNull
+    protected final <T> List<RuntimePersistentProperty<T>> getGeneratedProperties(@NonNull RuntimePersistentEntity<T> persistentEntity) {
+        //noinspection unchecked
+        return (List) generatedProperties.computeIfAbsent(persistentEntity.getIntrospection().getBeanType(), type -> {
+            List<RuntimePersistentProperty> generated = new ArrayList<>(2);
+            for (RuntimePersistentProperty<T> property : persistentEntity.getPersistentProperties()) {
+                if (property.isGenerated() && !(property instanceof Association)) {
+                    generated.add(property);
+                }
+            }
+            return generated;
+        });
+    }
+
+    /**
+     * Resolves a variant of the given INSERT, UPDATE or DELETE statement that returns the given properties of the affected rows.
+     *
+     * @param dialect The dialect
+     * @param persistentEntity The entity
+     * @param sql The statement
+     * @param properties The properties to return
+     * @return The statement or null if the dialect does not support returning columns
+     */
+    @Nullable
+    protected final String resolveReturningStatement(
+            @NonNull Dialect dialect,
+            @NonNull RuntimePersistentEntity<?> persistentEntity,
+            @NonNull String sql,
+            @NonNull List<? extends PersistentProperty> properties) {
+        String statement = returningStatements.computeIfAbsent(sql, s -> {
+            final SqlQueryBuilder queryBuilder = queryBuilders.getOrDefault(dialect, DEFAULT_SQL_BUILDER);
+            final String returning = queryBuilder.buildReturning(s, persistentEntity, properties);
+            // a concurrent map cannot hold null values
+            return returning != null ? returning : "";
+        });
+        return statement.isEmpty() ? null : statement;
+    }
+
+    /**
+     * Resolves a statement that reads all the columns of the rows affected by the given UPDATE or DELETE statement. If the
+     * dialect supports returning columns this is a variant of the statement itself, otherwise for a DELETE statement it is a
+     * SELECT that locks and reads the rows before they are deleted and takes the same parameters.
+     *
+     * @param dialect The dialect
+     * @param persistentEntity The entity
+     * @param sql The statement
+     * @return The statement or null if the affected rows cannot be read with this dialect
+     */
+    @Nullable
+    protected final String resolveAffectedRowsStatement(
+            @NonNull Dialect dialect,
+            @NonNull RuntimePersistentEntity<?> persistentEntity,
+            @NonNull String sql) {
+        String statement = affectedRowStatements.computeIfAbsent(sql, s -> {
+            final SqlQueryBuilder queryBuilder = queryBuilders.getOrDefault(dialect, DEFAULT_SQL_BUILDER);
+            if (queryBuilder.supportsReturning()) {
+                return queryBuilder.buildReturning(s, persistentEntity);
+            } else if (s.regionMatches(true, 0, "DELETE", 0, 6)) {
+                return queryBuilder.buildSelectForDelete(s, persistentEntity);
+            }
+            return "";
+        });
+        return statement.isEmpty() ? null : statement;
+    }
+
+    /**
+     * Reads the values of the given properties from the current row of the result set, in order, and sets them on the entity.
+     *
+     * @param properties The properties
+     * @param entity The entity
+     * @param resultSet The result set, positioned at the row to read
+     * @param <T> The entity type
+     */
+    protected final <T> void readGeneratedValues(
+            @NonNull List<RuntimePersistentProperty<T>> properties,
+            @NonNull T entity,
+            @NonNull RS resultSet) {
+        for (int i = 0; i < properties.size(); i++) {
+            RuntimePersistentProperty<T> property = properties.get(i);
+            Object value = columnIndexResultSetReader.readDynamic(resultSet, i + 1, property.getDataType());
+            if (DataSettings.QUERY_LOG.isTraceEnabled()) {
+                DataSettings.QUERY_LOG.trace("Read generated value {} for property: {}", value, property.getName());
+            }
+            @SuppressWarnings("unchecked")
+            BeanProperty<T, Object> beanProperty = (BeanProperty<T, Object>) property.getProperty();
+            if (value == null || beanProperty.getType().isInstance(value)) {
+                beanProperty.set(entity, value);
+            } else {
+                beanProperty.convertAndSet(entity, value);
+            }
+        }
+    }
+
     /**
      * Build a sort for ID for the given entity.
      * @param persistentEntity The entity
@@ -502,6 +612,117 @@ public abstract class AbstractSqlRepositoryOperations<RS, PS> implements Reposit
         });
     }
 
+    /**
+     * Resolves a stored delete of a single entity by its identity, for example to remove rows that were read beforehand.
+     * @param repositoryType  The repository type
+     * @param rootEntity The root entity
+     * @param persistentEntity The persistent entity
+     * @param <T> The generic type
+     * @return The delete
+     * @since 1.0.1
+     */
+    protected @NonNull <T> StoredStatement<T> resolveEntityDelete(
+            Class<?> repositoryType,
+            @NonNull Class<?> rootEntity,
+            @NonNull RuntimePersistentEntity<?> persistentEntity) {
+
+        final QueryKey key = new QueryKey(repositoryType, rootEntity);
+        //noinspection unchecked
+        return entityDeletes.computeIfAbsent(key, (queryKey) -> {
+            final Dialect dialect = dialects.getOrDefault(queryKey.repositoryType, Dialect.ANSI);
+            final SqlQueryBuilder queryBuilder = queryBuilders.getOrDefault(dialect, DEFAULT_SQL_BUILDER);
+            final PersistentProperty identity = persistentEntity.getIdentity();
+            if (identity == null) {
+                throw new IllegalStateException("Cannot delete an entity without an identity: " + persistentEntity.getName());
+            }
+            final QueryModel queryModel = QueryModel.from(persistentEntity)
+                    .idEq(new QueryParameter(identity.getName()));
+            final QueryResult queryResult = queryBuilder.buildDelete(
+                    AnnotationMetadata.EMPTY_METADATA,
+                    queryModel
+            );
+            return new StoredStatement<>(
+                    queryResult.getQuery(),
+                    persistentEntity,
+                    queryResult.getParameters().values().toArray(new String[0])
+            );
+        });
+    }
+
+    /**
+     * Resolves a stored upsert for the given entity.
+     * @param annotationMetadata  The repository annotation metadata
+     * @param repositoryType  The repository type
+     * @param rootEntity The root entity
+     * @param persistentEntity The persistent entity
+     * @param <T> The generic type
+     * @return The upsert
+     */
+    protected @NonNull <T> StoredInsert<T> resolveEntityUpsert(
+            AnnotationMetadata annotationMetadata,
+            Class<?> repositoryType,
+            @NonNull Class<?> rootEntity,
+            @NonNull RuntimePersistentEntity<?> persistentEntity) {
+
+        //noinspection unchecked
+        return entityUpserts.computeIfAbsent(new QueryKey(repositoryType, rootEntity), (queryKey) -> {
+            final Dialect dialect = dialects.getOrDefault(queryKey.repositoryType, Dialect.ANSI);
+            final SqlQueryBuilder queryBuilder = queryBuilders.getOrDefault(dialect, DEFAULT_SQL_BUILDER);
+            final QueryResult queryResult = queryBuilder.buildUpsert(annotationMetadata, persistentEntity);
+
+            final String sql = queryResult.getQuery();
+            final Map<String, String> parameters = queryResult.getParameters();
+            // no keys are generated by an upsert, hence batching works for all dialects
+            return new StoredInsert<>(
+                    sql,
+                    persistentEntity,
+                    parameters.values().toArray(new String[0]),
+                    true,
+                    dialect,
+                    true
+            );
+        });
+    }
+
+    /**
+     * Resolves a stored query that selects the values of the {@link StoredInsert#getRetainedProperties() retained properties}
+     * of an upsert by the identity of the entity.
+     * @param repositoryType  The repository type
+     * @param insert The upsert
+     * @param <T> The generic type
+     * @return The query
+     * @since 1.0.1
+     */
+    protected @NonNull <T> StoredStatement<T> resolveRetainedValuesQuery(
+            Class<?> repositoryType,
+            @NonNull StoredInsert<T> insert) {
+
+        final RuntimePersistentEntity<T> persistentEntity = insert.getPersistentEntity();
+        final QueryKey key = new QueryKey(repositoryType, persistentEntity.getIntrospection().getBeanType());
+        //noinspection unchecked
+        return entityRetainedValues.computeIfAbsent(key, (queryKey) -> {
+            final SqlQueryBuilder queryBuilder = queryBuilders.getOrDefault(insert.getDialect(), DEFAULT_SQL_BUILDER);
+            final PersistentProperty identity = persistentEntity.getIdentity();
+            if (identity == null) {
+                throw new IllegalStateException("Cannot select an entity without an identity: " + persistentEntity.getName());
+            }
+            final QueryModel queryModel = QueryModel.from(persistentEntity)
+                    .idEq(new QueryParameter(identity.getName()));
+            for (RuntimePersistentProperty<T> property : insert.getRetainedProperties()) {
+                queryModel.projections().property(property.getName());
+            }
+            final QueryResult queryResult = queryBuilder.buildQuery(
+                    AnnotationMetadata.EMPTY_METADATA,
+                    queryModel
+            );
+            return new StoredStatement<>(
+                    queryResult.getQuery(),
+                    persistentEntity,
+                    queryResult.getParameters().values().toArray(new String[0])
+            );
+        });
+    }
+
     /**
      * Builds a join table insert.
      * @param repositoryType The repository type
@@ -552,6 +773,50 @@ public abstract class AbstractSqlRepositoryOperations<RS, PS> implements Reposit
         }
     }
 
+    /**
+     * A stored statement that targets a single row of an entity by its identity, such as a DELETE by id.
+     *
+     * @param <T> The entity type
+     */
+    protected final class StoredStatement<T> {
+        private final String sql;
+        private final RuntimePersistentEntity<T> persistentEntity;
+        private final String[] parameterBinding;
+
+        /**
+         * Default constructor.
+         * @param sql The SQL
+         * @param persistentEntity The entity
+         * @param parameterBinding The paths of the identity properties bound to the parameters, in order
+         */
+        StoredStatement(String sql, RuntimePersistentEntity<T> persistentEntity, String[] parameterBinding) {
+            this.sql = sql;
+            this.persistentEntity = persistentEntity;
+            this.parameterBinding = parameterBinding;
+        }
+
+        /**
+         * @return The SQL
+         */
+        public @NonNull String getSql() {
+            return sql;
+        }
+
+        /**
+         * @return The persistent entity
+         */
+        public @NonNull RuntimePersistentEntity<T> getPersistentEntity() {
+            return persistentEntity;
+        }
+
+        /**
+         * @return The paths of the identity properties bound to the parameters, in order
+         */
+        public @NonNull String[] getParameterBinding() {
+            return parameterBinding;
+        }
+    }
+
     /**
      * A stored insert statement.
      *
@@ -565,6 +830,11 @@ public abstract class AbstractSqlRepositoryOperations<RS, PS> implements Reposit
         private final boolean supportsBatch;
         private final RuntimePersistentEntity<T> persistentEntity;
         private final Dialect dialect;
+        private final boolean upsert;
+        private final List<RuntimePersistentProperty<T>> returnedProperties;
+        private final List<RuntimePersistentProperty<T>> retainedProperties;
+        private final String[] generatedColumns;
+        private final String returningSql;
 
         /**
          * Default constructor.
@@ -580,13 +850,91 @@ public abstract class AbstractSqlRepositoryOperations<RS, PS> implements Reposit
                 String[] parameterBinding,
                 boolean supportsBatch,
                 Dialect dialect) {
+            this(sql, persistentEntity, parameterBinding, supportsBatch, dialect, false);
+        }
+
+        /**
+         * Constructor that allows specifying whether the statement is an upsert.
+         *  @param sql              The SQL INSERT or upsert
+         * @param persistentEntity The entity
+         * @param parameterBinding The parameter binding
+         * @param supportsBatch    Whether batch insert is supported
+         * @param dialect The dialect
+         * @param upsert Whether the statement is an upsert
+         */
+        StoredInsert(
+                String sql,
+                RuntimePersistentEntity<T> persistentEntity,
+                String[] parameterBinding,
+                boolean supportsBatch,
+                Dialect dialect,
+                boolean upsert) {
             this.sql = sql;
             this.persistentEntity = persistentEntity;
             this.parameterBinding = parameterBinding;
             this.identity = persistentEntity.getIdentity();
-            this.generateId = identity != null && identity.isGenerated();
+            this.generateId = !upsert && identity != null && identity.isGenerated();
             this.supportsBatch = supportsBatch;
             this.dialect = dialect;
+            this.upsert = upsert;
+            if (upsert && dialect != Dialect.H2) {
+                // values that are not updateable are only written when the row is inserted. H2 MERGE replaces all columns
+                this.retainedProperties = Collections.unmodifiableList(persistentEntity.getPersistentProperties().stream()
+                        .filter(p -> !p.isGenerated() && !p.getAnnotationMetadata().booleanValue(AutoPopulated.class, "updateable").orElse(true))
+                        .collect(Collectors.toList()));
+            } else {
+                this.retainedProperties = Collections.emptyList();
+            }
+            List<RuntimePersistentProperty<T>> generated = upsert ? Collections.emptyList() : getGeneratedProperties(persistentEntity);
+            if (generated.isEmpty()) {
+                this.returnedProperties = Collections.emptyList();
+                this.generatedColumns = null;
+                this.returningSql = null;
+            } else {
+                List<RuntimePersistentProperty<T>> returned = new ArrayList<>(generated.size() + 1);
+                if (generateId && !(identity instanceof Embedded)) {
+                    returned.add(identity);
+                }
+                returned.addAll(generated);
+                this.returnedProperties = Collections.unmodifiableList(returned);
+                this.generatedColumns = returned.stream().map(PersistentProperty::getPersistedName).toArray(String[]::new);
+                this.returningSql = resolveReturningStatement(dialect, persistentEntity, sql, returned);
+            }
+        }
+
+        /**
+         * @return The properties whose values are generated by the database and read back after an insert, with the identity first if generated.
+         */
+        public @NonNull List<RuntimePersistentProperty<T>> getReturnedProperties() {
+            return returnedProperties;
+        }
+
+        /**
+         * @return The names of the generated columns to request from the driver or null if only the identity is generated
+         */
+        public @Nullable String[] getGeneratedColumns() {
+            return generatedColumns;
+        }
+
+        /**
+         * @return A variant of the insert that returns the generated columns as a result set, or null if not supported by the dialect
+         */
+        public @Nullable String getReturningSql() {
+            return returningSql;
+        }
+
+        /**
+         * @return The properties of an upsert that keep their stored value when an existing row is updated and are hence read back afterwards
+         */
+        public @NonNull List<RuntimePersistentProperty<T>> getRetainedProperties() {
+            return retainedProperties;
+        }
+
+        /**
+         * @return Whether the statement is an upsert, in which case the identity is bound rather than generated
+         */
+        public boolean isUpsert() {
+            return upsert;
         }
 
         /**
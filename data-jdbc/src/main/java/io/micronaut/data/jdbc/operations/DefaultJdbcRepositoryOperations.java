@@ -27,14 +27,22 @@ import io.micronaut.core.convert.ConversionService;
 import io.micronaut.core.type.Argument;
 import io.micronaut.core.util.ArgumentUtils;
 import io.micronaut.core.util.ArrayUtils;
+import io.micronaut.core.util.CollectionUtils;
 import io.micronaut.core.util.StringUtils;
+import io.micronaut.core.util.clhm.ConcurrentLinkedHashMap;
 import io.micronaut.data.annotation.DateUpdated;
+import io.micronaut.data.annotation.Lock;
 import io.micronaut.data.annotation.Query;
+import io.micronaut.data.annotation.QueryTimeout;
 import io.micronaut.data.annotation.Relation;
 import io.micronaut.data.annotation.Repository;
 import io.micronaut.data.exceptions.DataAccessException;
+import io.micronaut.data.exceptions.QueryTimeoutException;
+import io.micronaut.data.exceptions.TransientDataAccessException;
 import io.micronaut.data.intercept.annotation.DataMethod;
 import io.micronaut.data.jdbc.annotation.JdbcRepository;
+import io.micronaut.data.jdbc.config.DataJdbcConfiguration;
+import io.micronaut.data.jdbc.mapper.ColumnIndexCachingResultSetReader;
 import io.micronaut.data.jdbc.mapper.ColumnIndexResultSetReader;
 import io.micronaut.data.jdbc.mapper.ColumnNameResultSetReader;
 import io.micronaut.data.jdbc.mapper.JdbcQueryStatement;
@@ -64,6 +72,8 @@ import io.micronaut.http.codec.MediaTypeCodec;
 import io.micronaut.inject.BeanDefinition;
 import io.micronaut.inject.qualifiers.Qualifiers;
 import io.micronaut.transaction.TransactionOperations;
+import io.micronaut.transaction.jdbc.ConnectionHolder;
+import io.micronaut.transaction.support.TransactionSynchronizationManager;
 
 import javax.annotation.PreDestroy;
 import javax.inject.Named;
@@ -71,9 +81,13 @@ import javax.sql.DataSource;
 import java.io.Serializable;
 import java.lang.reflect.Array;
 import java.sql.*;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
@@ -95,8 +109,22 @@ public class DefaultJdbcRepositoryOperations extends AbstractSqlRepositoryOperat
         AutoCloseable {
 
     private static final Object IGNORED_PARAMETER = new Object();
+    private static final Set<String> CANCELLED_SQL_STATES = CollectionUtils.setOf(
+            "57014", // Postgres and DB2 query cancelled
+            "HY008", // Operation cancelled (H2, SQL Server)
+            "70100" // MySQL query interrupted
+    );
+    private static final int SORTED_QUERY_CACHE_SIZE = 500;
     private final TransactionOperations<Connection> transactionOperations;
     private final DataSource dataSource;
+    private final Duration defaultQueryTimeout;
+    private final Map<String, Duration> queryTimeouts = new ConcurrentHashMap<>(10);
+    private volatile StatementWatchdog watchdog;
+    private final DataJdbcConfiguration configuration;
+    private final Map<CoalescerKey, WriteCoalescer> writeCoalescers = new ConcurrentHashMap<>(10);
+    private final Map<SortedQueryKey, String> sortedQueries = new ConcurrentLinkedHashMap.Builder<SortedQueryKey, String>()
+            .maximumWeightedCapacity(SORTED_QUERY_CACHE_SIZE)
+            .build();
     private ExecutorAsyncOperations asyncOperations;
     private ExecutorService executorService;
 
@@ -124,6 +152,9 @@ public class DefaultJdbcRepositoryOperations extends AbstractSqlRepositoryOperat
         this.dataSource = dataSource;
         this.transactionOperations = transactionOperations;
         this.executorService = executorService;
+        this.configuration = beanContext.findBean(DataJdbcConfiguration.class, Qualifiers.byName(dataSourceName))
+                .orElse(null);
+        this.defaultQueryTimeout = configuration != null ? configuration.getQueryTimeout() : null;
         Collection<BeanDefinition<GenericRepository>> beanDefinitions = beanContext.getBeanDefinitions(GenericRepository.class, Qualifiers.byStereotype(Repository.class));
         for (BeanDefinition<GenericRepository> beanDefinition : beanDefinitions) {
             String targetDs = beanDefinition.stringValue(Repository.class).orElse("default");
@@ -152,9 +183,12 @@ public class DefaultJdbcRepositoryOperations extends AbstractSqlRepositoryOperat
             synchronized (this) { // double check
                 asyncOperations = this.asyncOperations;
                 if (asyncOperations == null) {
+                    // tasks submitted within a transaction participate in it, one task at a time
                     asyncOperations = new ExecutorAsyncOperations(
                             this,
-                            executorService != null ? executorService : newLocalThreadPool()
+                            TransactionSynchronizationManager.propagatingExecutor(
+                                    executorService != null ? executorService : newLocalThreadPool()
+                            )
                     );
                     this.asyncOperations = asyncOperations;
                 }
@@ -175,7 +209,7 @@ public class DefaultJdbcRepositoryOperations extends AbstractSqlRepositoryOperat
         return transactionOperations.executeRead(status -> {
             Connection connection = status.getConnection();
             try (PreparedStatement ps = prepareStatement(connection, preparedQuery, false, true)) {
-                try (ResultSet rs = ps.executeQuery()) {
+                try (ResultSet rs = executeWatched(ps, PreparedStatement::executeQuery)) {
                     if (rs.next()) {
                         Class<T> rootEntity = preparedQuery.getRootEntity();
                         Class<R> resultType = preparedQuery.getResultType();
@@ -215,7 +249,7 @@ public class DefaultJdbcRepositoryOperations extends AbstractSqlRepositoryOperat
                     }
                 }
             } catch (SQLException e) {
-                throw new DataAccessException("Error executing SQL Query: " + e.getMessage(), e);
+                throw translateException("Error executing SQL Query: ", e);
             }
             return null;
         });
@@ -266,11 +300,14 @@ public class DefaultJdbcRepositoryOperations extends AbstractSqlRepositoryOperat
         return transactionOperations.executeRead(status -> {
             try {
                 Connection connection = status.getConnection();
-                PreparedStatement ps = prepareStatement(connection, preparedQuery, false, true);
-                ResultSet rs = ps.executeQuery();
-                return rs.next();
+                try (PreparedStatement ps = prepareStatement(connection, preparedQuery, false, true)) {
+                    ps.setFetchSize(1);
+                    try (ResultSet rs = executeWatched(ps, PreparedStatement::executeQuery)) {
+                        return rs.next();
+                    }
+                }
             } catch (SQLException e) {
-                throw new DataAccessException("Error executing SQL query: " + e.getMessage(), e);
+                throw translateException("Error executing SQL query: ", e);
             }
         });
     }
@@ -294,19 +331,19 @@ public class DefaultJdbcRepositoryOperations extends AbstractSqlRepositoryOperat
         try {
             ps = prepareStatement(connection, preparedQuery, false, false);
         } catch (SQLException e) {
-            throw new DataAccessException("SQL Error preparing Query: " + e.getMessage(), e);
+            throw translateException("SQL Error preparing Query: ", e);
         }
 
         ResultSet rs;
         try {
-            rs = ps.executeQuery();
+            rs = executeWatched(ps, PreparedStatement::executeQuery);
         } catch (SQLException e) {
             try {
                 ps.close();
             } catch (SQLException e2) {
                 // ignore
             }
-            throw new DataAccessException("SQL Error executing Query: " + e.getMessage(), e);
+            throw translateException("SQL Error executing Query: ", e);
         }
         boolean dtoProjection = preparedQuery.isDtoProjection();
         boolean isRootResult = resultType == rootEntity;
@@ -316,9 +353,10 @@ public class DefaultJdbcRepositoryOperations extends AbstractSqlRepositoryOperat
             SqlResultConsumer sqlMappingConsumer = preparedQuery.hasResultConsumer() ? preparedQuery.getParameterInRole(SqlResultConsumer.ROLE, SqlResultConsumer.class).orElse(null) : null;
             SqlTypeMapper<ResultSet, R> mapper;
             if (dtoProjection) {
+                // the mapper only reads the rows of this query, hence the column indexes can be resolved once
                 mapper = new SqlDTOMapper<>(
                         getEntity(rootEntity),
-                        columnNameResultSetReader
+                        new ColumnIndexCachingResultSetReader(columnIndexResultSetReader)
                 );
             } else {
                 mapper = new SqlResultEntityTypeMapper<>(
@@ -372,7 +410,7 @@ public class DefaultJdbcRepositoryOperations extends AbstractSqlRepositoryOperat
                         }
                         return hasNext;
                     } catch (SQLException e) {
-                        throw new DataAccessException("Error retrieving next JDBC result: " + e.getMessage(), e);
+                        throw translateException("Error retrieving next JDBC result: ", e);
                     }
                 }
             };
@@ -389,7 +427,7 @@ public class DefaultJdbcRepositoryOperations extends AbstractSqlRepositoryOperat
                 rs.close();
                 ps.close();
             } catch (SQLException e) {
-                throw new DataAccessException("Error closing JDBC result stream: " + e.getMessage(), e);
+                throw translateException("Error closing JDBC result stream: ", e);
             }
         }
     }
@@ -411,14 +449,92 @@ public class DefaultJdbcRepositoryOperations extends AbstractSqlRepositoryOperat
             try {
                 Connection connection = status.getConnection();
                 try (PreparedStatement ps = prepareStatement(connection, preparedQuery, true, false)) {
-                    return Optional.of(ps.executeUpdate());
+                    return Optional.of(executeWatched(ps, PreparedStatement::executeUpdate));
                 }
             } catch (SQLException e) {
-                throw new DataAccessException("Error executing SQL UPDATE: " + e.getMessage(), e);
+                throw translateException("Error executing SQL UPDATE: ", e);
             }
         });
     }
 
+    @NonNull
+    @Override
+    public <T, R> Iterable<R> executeReturning(@NonNull PreparedQuery<T, R> preparedQuery) {
+        final Class<R> resultType = preparedQuery.getResultType();
+        final RuntimePersistentEntity<R> persistentEntity = getEntity(resultType);
+        final Dialect dialect = dialects.getOrDefault(preparedQuery.getRepositoryType(), Dialect.ANSI);
+        final String query = preparedQuery.getQuery();
+        final String statement = resolveAffectedRowsStatement(dialect, persistentEntity, query);
+        if (statement == null) {
+            throw new UnsupportedOperationException("Dialect " + dialect + " does not support returning the entities affected by: " + query);
+        }
+        final boolean returning = queryBuilders.getOrDefault(dialect, DEFAULT_SQL_BUILDER).supportsReturning();
+        //noinspection ConstantConditions
+        return transactionOperations.executeWrite(status -> {
+            try {
+                Connection connection = status.getConnection();
+                List<R> results = new ArrayList<>();
+                try (PreparedStatement ps = prepareStatement(connection, preparedQuery, statement, true, false)) {
+                    try (ResultSet rs = executeWatched(ps, PreparedStatement::executeQuery)) {
+                        SqlResultEntityTypeMapper<ResultSet, R> mapper = new SqlResultEntityTypeMapper<>(
+                                persistentEntity,
+                                columnNameResultSetReader,
+                                Collections.emptySet(),
+                                jsonCodec
+                        );
+                        while (mapper.hasNext(rs)) {
+                            results.add(mapper.map(rs, resultType));
+                        }
+                    }
+                }
+                if (!returning && !results.isEmpty()) {
+                    // the rows were selected and locked beforehand, delete exactly those rows by their identity
+                    // so that rows inserted in the meantime are neither deleted nor missing from the result
+                    final StoredStatement<R> delete = resolveEntityDelete(preparedQuery.getRepositoryType(), resultType, persistentEntity);
+                    final String deleteSql = delete.getSql();
+                    if (QUERY_LOG.isDebugEnabled()) {
+                        QUERY_LOG.debug("Executing SQL DELETE: {}", deleteSql);
+                    }
+                    try (PreparedStatement ps = connection.prepareStatement(deleteSql)) {
+                        applyTimeout(ps, preparedQuery.getAnnotationMetadata());
+                        for (R entity : results) {
+                            setIdentityParameters(ps, persistentEntity, delete.getParameterBinding(), entity);
+                            ps.addBatch();
+                        }
+                        executeWatched(ps, PreparedStatement::executeBatch);
+                    }
+                }
+                return results;
+            } catch (SQLException e) {
+                throw translateException("Error executing SQL statement: ", e);
+            }
+        });
+    }
+
+    private <T> void setIdentityParameters(
+            PreparedStatement ps,
+            RuntimePersistentEntity<T> persistentEntity,
+            String[] parameterBinding,
+            T entity) {
+        for (int i = 0; i < parameterBinding.length; i++) {
+            String path = parameterBinding[i];
+            int j = path.indexOf('.');
+            RuntimePersistentProperty<T> identity = persistentEntity.getPropertyByName(j > -1 ? path.substring(0, j) : path);
+            if (identity == null) {
+                throw new IllegalStateException("Cannot bind non-existent identity: " + persistentEntity.getSimpleName() + "." + path);
+            }
+            Object value = identity.getProperty().get(entity);
+            DataType dataType = identity.getDataType();
+            if (j > -1) {
+                RuntimePersistentProperty embeddedProp = (RuntimePersistentProperty) persistentEntity.getPropertyByPath(path)
+                        .orElseThrow(() -> new IllegalStateException("Cannot bind non-existent identity: " + persistentEntity.getSimpleName() + "." + path));
+                value = value != null ? embeddedProp.getProperty().get(value) : null;
+                dataType = embeddedProp.getDataType();
+            }
+            preparedStatementWriter.setDynamic(ps, i + 1, dataType, value);
+        }
+    }
+
     @Override
     public <T> Optional<Number> deleteAll(@NonNull BatchOperation<T> operation) {
         throw new UnsupportedOperationException("The deleteAll method via batch is unsupported. Execute the SQL update directly");
@@ -441,13 +557,22 @@ public class DefaultJdbcRepositoryOperations extends AbstractSqlRepositoryOperat
         if (StringUtils.isNotEmpty(query) && ArrayUtils.isNotEmpty(params)) {
             final RuntimePersistentEntity<T> persistentEntity =
                     (RuntimePersistentEntity<T>) getEntity(entity.getClass());
+            final List<RuntimePersistentProperty<T>> generatedProperties = getGeneratedProperties(persistentEntity);
+            final String returningSql = generatedProperties.isEmpty() ? null : resolveReturningStatement(
+                    dialects.getOrDefault(repositoryType, Dialect.ANSI),
+                    persistentEntity,
+                    query,
+                    generatedProperties
+            );
+            final String updateSql = returningSql != null ? returningSql : query;
             return transactionOperations.executeWrite(status -> {
                 try {
                     Connection connection = status.getConnection();
                     if (QUERY_LOG.isDebugEnabled()) {
-                        QUERY_LOG.debug("Executing SQL UPDATE: {}", query);
+                        QUERY_LOG.debug("Executing SQL UPDATE: {}", updateSql);
                     }
-                    try (PreparedStatement ps = connection.prepareStatement(query)) {
+                    try (PreparedStatement ps = connection.prepareStatement(updateSql)) {
+                        applyTimeout(ps, annotationMetadata);
                         for (int i = 0; i < params.length; i++) {
                             String propertyName = params[i];
                             RuntimePersistentProperty<T> pp =
@@ -581,11 +706,19 @@ public class DefaultJdbcRepositoryOperations extends AbstractSqlRepositoryOperat
                                 }
                             }
                         }
-                        ps.executeUpdate();
+                        if (returningSql != null) {
+                            try (ResultSet resultSet = executeWatched(ps, PreparedStatement::executeQuery)) {
+                                if (resultSet.next()) {
+                                    readGeneratedValues(generatedProperties, entity, resultSet);
+                                }
+                            }
+                        } else {
+                            executeWatched(ps, PreparedStatement::executeUpdate);
+                        }
                         return entity;
                     }
                 } catch (SQLException e) {
-                    throw new DataAccessException("Error executing SQL UPDATE: " + e.getMessage(), e);
+                    throw translateException("Error executing SQL UPDATE: ", e);
                 }
             });
         }
@@ -599,9 +732,47 @@ public class DefaultJdbcRepositoryOperations extends AbstractSqlRepositoryOperat
         final Class<?> repositoryType = operation.getRepositoryType();
         final AnnotationMetadata annotationMetadata = operation.getAnnotationMetadata();
         T entity = operation.getEntity();
+        if (configuration != null && configuration.isCoalesceWrites() && insert.doesSupportBatch() && !insert.isUpsert()
+                && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return persistCoalesced(annotationMetadata, repositoryType, insert, entity);
+        }
         return persistOne(annotationMetadata, repositoryType, insert, entity, new HashSet(5));
     }
 
+    /**
+     * Persists the entity together with the entities persisted concurrently by other callers in a single batch and
+     * transaction. Only inserts with the same annotation metadata, such as those of the same repository method,
+     * are coalesced since the metadata determines how the batch is executed.
+     */
+    private <T> T persistCoalesced(
+            AnnotationMetadata annotationMetadata,
+            Class<?> repositoryType,
+            StoredInsert<T> insert,
+            T entity) {
+        @SuppressWarnings("unchecked") WriteCoalescer<T> coalescer = writeCoalescers.computeIfAbsent(new CoalescerKey(insert, annotationMetadata), key ->
+                new WriteCoalescer<T>(
+                        configuration.getCoalesceBatchSize(),
+                        configuration.getCoalesceWindow().toNanos(),
+                        entities -> {
+                            // concurrent callers may persist entities that are equal but not the same instance
+                            Set persisted = Collections.newSetFromMap(new IdentityHashMap<>(entities.size()));
+                            persistInBatch(annotationMetadata, repositoryType, entities, insert, persisted);
+                            return entities;
+                        },
+                        single -> persistOne(annotationMetadata, repositoryType, insert, single, new HashSet(5))
+                )
+        );
+        try {
+            return coalescer.submit(entity).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+
     private <T> T persistOne(
             AnnotationMetadata annotationMetadata,
             Class<?> repositoryType,
@@ -616,24 +787,56 @@ public class DefaultJdbcRepositoryOperations extends AbstractSqlRepositoryOperat
                 String insertSql = insert.getSql();
                 BeanProperty<T, Object> identity = insert.getIdentityProperty();
                 final boolean hasGeneratedID = generateId && identity != null;
+                final String returningSql = insert.getReturningSql();
+                final String[] generatedColumns = insert.getGeneratedColumns();
+                // MySQL only ever returns the auto increment key
+                final boolean readGeneratedColumns = generatedColumns != null && insert.getDialect() != Dialect.MYSQL;
+                if (returningSql != null) {
+                    insertSql = returningSql;
+                }
 
                 if (QUERY_LOG.isDebugEnabled()) {
                     QUERY_LOG.debug("Executing SQL Insert: {}", insertSql);
                 }
 
                 PreparedStatement stmt;
-                if (hasGeneratedID && (insert.getDialect() == Dialect.ORACLE || insert.getDialect() == Dialect.SQL_SERVER)) {
+                if (returningSql != null) {
+                    stmt = connection.prepareStatement(insertSql);
+                } else if (readGeneratedColumns) {
+                    stmt = connection.prepareStatement(insertSql, generatedColumns);
+                } else if (hasGeneratedID && (insert.getDialect() == Dialect.ORACLE || insert.getDialect() == Dialect.SQL_SERVER)) {
                     stmt = connection
                             .prepareStatement(insertSql, new String[] { insert.getIdentity().getPersistedName() });
                 } else {
                     stmt = connection
                             .prepareStatement(insertSql, generateId ? Statement.RETURN_GENERATED_KEYS : Statement.NO_GENERATED_KEYS);
                 }
+                applyTimeout(stmt, annotationMetadata);
 
                 setInsertParameters(insert, entity, stmt);
-                stmt.executeUpdate();
-                persisted.add(entity);
-                if (hasGeneratedID) {
+                if (returningSql != null) {
+                    try (ResultSet resultSet = executeWatched(stmt, PreparedStatement::executeQuery)) {
+                        if (resultSet.next()) {
+                            readGeneratedValues(insert.getReturnedProperties(), entity, resultSet);
+                        } else {
+                            throw new DataAccessException("Generated values failed to return. No result returned.");
+                        }
+                    }
+                    persisted.add(entity);
+                } else if (readGeneratedColumns) {
+                    executeWatched(stmt, PreparedStatement::executeUpdate);
+                    persisted.add(entity);
+                    ResultSet generatedKeys = stmt.getGeneratedKeys();
+                    if (generatedKeys.next()) {
+                        readGeneratedValues(insert.getReturnedProperties(), entity, generatedKeys);
+                    } else {
+                        throw new DataAccessException("Generated values failed to return. No result returned.");
+                    }
+                } else {
+                    executeWatched(stmt, PreparedStatement::executeUpdate);
+                    persisted.add(entity);
+                }
+                if (hasGeneratedID && returningSql == null && !readGeneratedColumns) {
                     ResultSet generatedKeys = stmt.getGeneratedKeys();
                     if (generatedKeys.next()) {
                         long id = generatedKeys.getLong(1);
@@ -646,22 +849,120 @@ public class DefaultJdbcRepositoryOperations extends AbstractSqlRepositoryOperat
                         throw new DataAccessException("ID failed to generate. No result returned.");
                     }
                 }
-                cascadeInserts(
+                if (!insert.isUpsert()) {
+                    cascadeInserts(
+                            annotationMetadata,
+                            repositoryType,
+                            insert,
+                            entity,
+                            persisted,
+                            connection,
+                            identity
+                    );
+                } else {
+                    readRetainedValues(connection, annotationMetadata, repositoryType, insert, Collections.singletonList(entity));
+                }
+                return entity;
+            } catch (SQLException e) {
+                throw translateException("SQL Error executing INSERT: ", e);
+            }
+        });
+    }
+
+    @NonNull
+    @Override
+    public <T> T upsert(@NonNull InsertOperation<T> operation) {
+        final Class<?> repositoryType = operation.getRepositoryType();
+        final AnnotationMetadata annotationMetadata = operation.getAnnotationMetadata();
+        final Class<T> rootEntity = operation.getRootEntity();
+        final RuntimePersistentEntity<T> persistentEntity = getEntity(rootEntity);
+        final T entity = operation.getEntity();
+        final StoredInsert<T> statement = hasGeneratedIdToAssign(persistentEntity, entity) ?
+                resolveEntityInsert(annotationMetadata, repositoryType, rootEntity, persistentEntity) :
+                resolveEntityUpsert(annotationMetadata, repositoryType, rootEntity, persistentEntity);
+        return persistOne(annotationMetadata, repositoryType, statement, entity, new HashSet(5));
+    }
+
+    @NonNull
+    @Override
+    public <T> Iterable<T> upsertAll(@NonNull BatchOperation<T> operation) {
+        final Class<?> repositoryType = operation.getRepositoryType();
+        final AnnotationMetadata annotationMetadata = operation.getAnnotationMetadata();
+        final Class<T> rootEntity = operation.getRootEntity();
+        final RuntimePersistentEntity<T> persistentEntity = getEntity(rootEntity);
+        final List<T> results = new ArrayList<>(10);
+        final List<T> inserts = new ArrayList<>(10);
+        final List<T> upserts = new ArrayList<>(10);
+        for (T entity : operation) {
+            results.add(entity);
+            if (hasGeneratedIdToAssign(persistentEntity, entity)) {
+                inserts.add(entity);
+            } else {
+                upserts.add(entity);
+            }
+        }
+        //noinspection ConstantConditions
+        return transactionOperations.executeWrite((status) -> {
+            final Set persisted = new HashSet(10);
+            if (!upserts.isEmpty()) {
+                persistInBatch(
                         annotationMetadata,
                         repositoryType,
-                        insert,
-                        entity,
-                        persisted,
-                        connection,
-                        identity
+                        upserts,
+                        resolveEntityUpsert(annotationMetadata, repositoryType, rootEntity, persistentEntity),
+                        persisted
                 );
-                return entity;
-            } catch (SQLException e) {
-                throw new DataAccessException("SQL Error executing INSERT: " + e.getMessage(), e);
             }
+            if (!inserts.isEmpty()) {
+                final StoredInsert<T> insert = resolveEntityInsert(annotationMetadata, repositoryType, rootEntity, persistentEntity);
+                if (insert.doesSupportBatch()) {
+                    persistInBatch(annotationMetadata, repositoryType, inserts, insert, persisted);
+                } else {
+                    for (T entity : inserts) {
+                        persistOne(annotationMetadata, repositoryType, insert, entity, persisted);
+                    }
+                }
+            }
+            return results;
         });
     }
 
+    // the upsert cannot tell whether a row was inserted or updated, hence read back the values an update retains
+    private <T> void readRetainedValues(
+            Connection connection,
+            AnnotationMetadata annotationMetadata,
+            Class<?> repositoryType,
+            StoredInsert<T> upsert,
+            List<T> entities) throws SQLException {
+        final List<RuntimePersistentProperty<T>> retainedProperties = upsert.getRetainedProperties();
+        if (retainedProperties.isEmpty() || entities.isEmpty()) {
+            return;
+        }
+        final StoredStatement<T> select = resolveRetainedValuesQuery(repositoryType, upsert);
+        final String selectSql = select.getSql();
+        if (QUERY_LOG.isDebugEnabled()) {
+            QUERY_LOG.debug("Executing Query: {}", selectSql);
+        }
+        try (PreparedStatement ps = connection.prepareStatement(selectSql)) {
+            applyTimeout(ps, annotationMetadata);
+            for (T entity : entities) {
+                setIdentityParameters(ps, upsert.getPersistentEntity(), select.getParameterBinding(), entity);
+                try (ResultSet rs = executeWatched(ps, PreparedStatement::executeQuery)) {
+                    if (!rs.next()) {
+                        throw new DataAccessException("Upserted row could not be read back for entity: " + entity);
+                    }
+                    readGeneratedValues(retainedProperties, entity, rs);
+                }
+            }
+        }
+    }
+
+    // entities with a generated identity that has not been assigned yet can only be inserted
+    private <T> boolean hasGeneratedIdToAssign(RuntimePersistentEntity<T> persistentEntity, T entity) {
+        final RuntimePersistentProperty<T> identity = persistentEntity.getIdentity();
+        return identity != null && identity.isGenerated() && identity.getProperty().get(entity) == null;
+    }
+
     private <T> void cascadeInserts(
             AnnotationMetadata annotationMetadata,
             Class<?> repositoryType,
@@ -788,6 +1089,7 @@ public class DefaultJdbcRepositoryOperations extends AbstractSqlRepositoryOperat
 
                                     try (PreparedStatement ps =
                                                  connection.prepareStatement(associationInsert)) {
+                                        applyTimeout(ps, annotationMetadata);
                                         if (QUERY_LOG.isDebugEnabled()) {
                                             QUERY_LOG.debug("Executing SQL Insert: {}", associationInsert);
                                         }
@@ -812,7 +1114,7 @@ public class DefaultJdbcRepositoryOperations extends AbstractSqlRepositoryOperat
                                                     childId);
                                             ps.addBatch();
                                         }
-                                        ps.executeBatch();
+                                        executeWatched(ps, PreparedStatement::executeBatch);
                                     }
                                 }
                             }
@@ -827,10 +1129,47 @@ public class DefaultJdbcRepositoryOperations extends AbstractSqlRepositoryOperat
             @NonNull PreparedQuery<T, R> preparedQuery,
             boolean isUpdate,
             boolean isSingleResult) throws SQLException {
+        return prepareStatement(connection, preparedQuery, preparedQuery.getQuery(), isUpdate, isSingleResult);
+    }
+
+    private <T, R> PreparedStatement prepareStatement(
+            Connection connection,
+            @NonNull PreparedQuery<T, R> preparedQuery,
+            @NonNull String query,
+            boolean isUpdate,
+            boolean isSingleResult) throws SQLException {
         Object[] queryParameters = preparedQuery.getParameterArray();
         int[] parameterBinding = preparedQuery.getIndexedParameterBinding();
         DataType[] parameterTypes = preparedQuery.getIndexedParameterTypes();
-        String query = preparedQuery.getQuery();
+        final Class<?> repositoryType = preparedQuery.getRepositoryType();
+        Dialect dialect = dialects.getOrDefault(repositoryType, Dialect.ANSI);
+        SqlQueryBuilder queryBuilder = queryBuilders.getOrDefault(dialect, DEFAULT_SQL_BUILDER);
+        Pageable pageable = isUpdate ? Pageable.UNPAGED : preparedQuery.getPageable();
+        if (isSingleResult && pageable.getOffset() > 0) {
+            pageable = Pageable.from(pageable.getNumber(), 1, pageable.getSort());
+        }
+        boolean bindPagination = false;
+        if (pageable != Pageable.UNPAGED && pageable.getSize() > 0 && !pageable.isSorted() && !preparedQuery.isCount()) {
+            // use the paged form rendered at compile time, if any
+            String pagedQuery = preparedQuery.getAnnotationMetadata()
+                    .stringValue(Query.class, DataMethod.META_MEMBER_PAGED_QUERY)
+                    .orElse(null);
+            if (pagedQuery != null) {
+                query = pagedQuery;
+                bindPagination = true;
+            }
+        }
+        if (pageable != Pageable.UNPAGED && !bindPagination) {
+            String unsortedQuery = query;
+            Class<T> rootEntity = preparedQuery.getRootEntity();
+            Sort sort = pageable.getSort();
+            boolean paged = pageable.getSize() > 0;
+            query = sortedQueries.computeIfAbsent(
+                    new SortedQueryKey(unsortedQuery, rootEntity, dialect, sort, paged),
+                    key -> buildSortedQuery(unsortedQuery, rootEntity, queryBuilder, dialect, sort, paged)
+            );
+            bindPagination = paged;
+        }
 
         final boolean hasIn = preparedQuery.hasInExpression();
         if (hasIn) {
@@ -842,7 +1181,8 @@ public class DefaultJdbcRepositoryOperations extends AbstractSqlRepositoryOperat
                 int queryParameterIndex = parameterBinding[inIndex - 1];
                 Object value = queryParameters[queryParameterIndex];
 
-                if (value == null) {
+                if (value == null || value == IGNORED_PARAMETER) {
+                    // already ignored if the same query parameters were used for a previous statement
                     query = matcher.replaceFirst(NOT_TRUE_EXPRESSION);
                     queryParameters[queryParameterIndex] = IGNORED_PARAMETER;
                 } else {
@@ -860,25 +1200,13 @@ public class DefaultJdbcRepositoryOperations extends AbstractSqlRepositoryOperat
         }
 
         if (!isUpdate) {
-            Pageable pageable = preparedQuery.getPageable();
-            if (pageable != Pageable.UNPAGED) {
-                Class<T> rootEntity = preparedQuery.getRootEntity();
-                Sort sort = pageable.getSort();
-                final Class<?> repositoryType = preparedQuery.getRepositoryType();
-                Dialect dialect = dialects.getOrDefault(repositoryType, Dialect.ANSI);
-                QueryBuilder queryBuilder = queryBuilders.getOrDefault(dialect, DEFAULT_SQL_BUILDER);
-                if (sort.isSorted()) {
-                    query += queryBuilder.buildOrderBy(getEntity(rootEntity), sort).getQuery();
-                } else if (isSqlServerWithoutOrderBy(query, dialect)) {
-                    // SQL server requires order by
-                    RuntimePersistentEntity<T> persistentEntity = getEntity(rootEntity);
-                    sort = sortById(persistentEntity);
-                    query += queryBuilder.buildOrderBy(persistentEntity, sort).getQuery();
+            if (!preparedQuery.isCount()) {
+                AnnotationMetadata annotationMetadata = preparedQuery.getAnnotationMetadata();
+                if (annotationMetadata.hasAnnotation(Lock.class)) {
+                    Lock.Mode mode = annotationMetadata.enumValue(Lock.class, Lock.Mode.class).orElse(Lock.Mode.WRITE);
+                    Lock.Wait wait = annotationMetadata.enumValue(Lock.class, "wait", Lock.Wait.class).orElse(Lock.Wait.DEFAULT);
+                    query += queryBuilder.buildLock(mode, wait);
                 }
-                if (isSingleResult && pageable.getOffset() > 0) {
-                    pageable = Pageable.from(pageable.getNumber(), 1);
-                }
-                query += queryBuilder.buildPagination(pageable).getQuery();
             }
         }
 
@@ -886,6 +1214,7 @@ public class DefaultJdbcRepositoryOperations extends AbstractSqlRepositoryOperat
             QUERY_LOG.debug("Executing Query: {}", query);
         }
         final PreparedStatement ps = connection.prepareStatement(query);
+        applyTimeout(ps, preparedQuery.getAnnotationMetadata());
         int index = 1;
         for (int i = 0; i < parameterBinding.length; i++) {
             int parameterIndex = parameterBinding[i];
@@ -946,9 +1275,60 @@ public class DefaultJdbcRepositoryOperations extends AbstractSqlRepositoryOperat
                 }
             }
         }
+        if (bindPagination) {
+            bindPagination(ps, index, queryBuilder, pageable);
+        }
         return ps;
     }
 
+    /**
+     * Appends the order and the pagination clause of a page to the given query. The result is cached per
+     * query and sort by the caller, so that the same statement text is used for every request of the page.
+     *
+     * @param query The query
+     * @param rootEntity The root entity
+     * @param queryBuilder The query builder
+     * @param dialect The dialect
+     * @param sort The sort
+     * @param paged Whether to append the pagination clause
+     * @param <T> The entity type
+     * @return The query
+     */
+    private <T> String buildSortedQuery(
+            String query,
+            Class<T> rootEntity,
+            SqlQueryBuilder queryBuilder,
+            Dialect dialect,
+            Sort sort,
+            boolean paged) {
+        StringBuilder sortedQuery = new StringBuilder(query);
+        if (sort.isSorted()) {
+            sortedQuery.append(queryBuilder.buildOrderBy(getEntity(rootEntity), sort).getQuery());
+        } else if (isSqlServerWithoutOrderBy(query, dialect)) {
+            // SQL server requires order by
+            RuntimePersistentEntity<T> persistentEntity = getEntity(rootEntity);
+            sortedQuery.append(queryBuilder.buildOrderBy(persistentEntity, sortById(persistentEntity)).getQuery());
+        }
+        if (paged) {
+            // bound as parameters rather than literals so that each page shares the statement
+            sortedQuery.append(queryBuilder.buildParameterizedPagination());
+        }
+        return sortedQuery.toString();
+    }
+
+    private void bindPagination(PreparedStatement ps, int index, SqlQueryBuilder queryBuilder, Pageable pageable) throws SQLException {
+        if (QUERY_LOG.isTraceEnabled()) {
+            QUERY_LOG.trace("Binding pagination with limit {} and offset {}", pageable.getSize(), pageable.getOffset());
+        }
+        if (queryBuilder.isLimitBeforeOffset()) {
+            ps.setInt(index++, pageable.getSize());
+            ps.setLong(index, pageable.getOffset());
+        } else {
+            ps.setLong(index++, pageable.getOffset());
+            ps.setInt(index, pageable.getSize());
+        }
+    }
+
     @Nullable
     @Override
     public <T> T findOne(@NonNull Class<T> type, @NonNull Serializable id) {
@@ -1041,15 +1421,21 @@ public class DefaultJdbcRepositoryOperations extends AbstractSqlRepositoryOperat
             BeanProperty<T, Object> identity = insert.getIdentityProperty();
             final boolean hasGeneratedID = generateId && identity != null;
 
+            final String[] generatedColumns = insert.getGeneratedColumns();
+            // MySQL only ever returns the auto increment key
+            final boolean readGeneratedColumns = generatedColumns != null && insert.getDialect() != Dialect.MYSQL;
             try {
                 PreparedStatement stmt;
-                if (hasGeneratedID && insert.getDialect() == Dialect.ORACLE) {
+                if (readGeneratedColumns) {
+                    stmt = connection.prepareStatement(insertSql, generatedColumns);
+                } else if (hasGeneratedID && insert.getDialect() == Dialect.ORACLE) {
                     stmt = connection
                             .prepareStatement(insertSql, new String[] { identity.getName() });
                 } else {
                     stmt = connection
                             .prepareStatement(insertSql, generateId ? Statement.RETURN_GENERATED_KEYS : Statement.NO_GENERATED_KEYS);
                 }
+                applyTimeout(stmt, annotationMetadata);
                 if (QUERY_LOG.isDebugEnabled()) {
                     QUERY_LOG.debug("Executing Batch SQL Insert: {}", insertSql);
                 }
@@ -1061,10 +1447,17 @@ public class DefaultJdbcRepositoryOperations extends AbstractSqlRepositoryOperat
                     stmt.addBatch();
                     results.add(entity);
                 }
-                stmt.executeBatch();
-
+                executeWatched(stmt, PreparedStatement::executeBatch);
 
-                if (hasGeneratedID) {
+                if (readGeneratedColumns) {
+                    ResultSet generatedKeys = stmt.getGeneratedKeys();
+                    for (T entity : results) {
+                        if (!generatedKeys.next()) {
+                            throw new DataAccessException("Failed to read generated values for entity: " + entity);
+                        }
+                        readGeneratedValues(insert.getReturnedProperties(), entity, generatedKeys);
+                    }
+                } else if (hasGeneratedID) {
                     Iterator<T> resultIterator = results.iterator();
                     ResultSet generatedKeys = stmt.getGeneratedKeys();
                     while (resultIterator.hasNext()) {
@@ -1081,20 +1474,24 @@ public class DefaultJdbcRepositoryOperations extends AbstractSqlRepositoryOperat
                         }
                     }
                 }
-                for (T result : results) {
-                    cascadeInserts(
-                            annotationMetadata,
-                            repositoryType,
-                            insert,
-                            result,
-                            persisted,
-                            connection,
-                            identity
-                    );
+                if (!insert.isUpsert()) {
+                    for (T result : results) {
+                        cascadeInserts(
+                                annotationMetadata,
+                                repositoryType,
+                                insert,
+                                result,
+                                persisted,
+                                connection,
+                                identity
+                        );
+                    }
+                } else {
+                    readRetainedValues(connection, annotationMetadata, repositoryType, insert, results);
                 }
                 return results;
             } catch (SQLException e) {
-                throw new DataAccessException("SQL error executing INSERT: " + e.getMessage(), e);
+                throw translateException("SQL error executing INSERT: ", e);
             }
         });
     }
@@ -1105,6 +1502,100 @@ public class DefaultJdbcRepositoryOperations extends AbstractSqlRepositoryOperat
         if (executorService != null) {
             executorService.shutdown();
         }
+        StatementWatchdog watchdog = this.watchdog;
+        if (watchdog != null) {
+            watchdog.close();
+        }
+    }
+
+    /**
+     * Applies the query timeout of the method, or the configured default, to the given statement. If there is a
+     * transaction with a timeout the remaining time of the transaction is applied instead when it is shorter.
+     * Statements with a timeout are also watched while they execute, see {@link #executeWatched(PreparedStatement, PreparedStatementCallback)}.
+     *
+     * @param statement The statement
+     * @param annotationMetadata The annotation metadata of the method
+     * @throws SQLException if the timeout cannot be set
+     */
+    private void applyTimeout(Statement statement, AnnotationMetadata annotationMetadata) throws SQLException {
+        long timeoutMillis = -1;
+        String queryTimeout = annotationMetadata.stringValue(QueryTimeout.class).orElse(null);
+        if (queryTimeout != null) {
+            timeoutMillis = queryTimeouts.computeIfAbsent(queryTimeout, value ->
+                    ConversionService.SHARED.convert(value, Duration.class)
+                            .orElseThrow(() -> new DataAccessException("Invalid query timeout: " + value))
+            ).toMillis();
+        } else if (defaultQueryTimeout != null) {
+            timeoutMillis = defaultQueryTimeout.toMillis();
+        }
+        Object holder = TransactionSynchronizationManager.getResource(dataSource);
+        if (holder instanceof ConnectionHolder && ((ConnectionHolder) holder).hasTimeout()) {
+            // throws TransactionTimedOutException if the deadline has already been reached
+            long remaining = ((ConnectionHolder) holder).getTimeToLiveInMillis();
+            timeoutMillis = timeoutMillis < 0 ? remaining : Math.min(timeoutMillis, remaining);
+        }
+        if (timeoutMillis > 0) {
+            statement.setQueryTimeout((int) Math.max(1, (timeoutMillis + 999) / 1000));
+        }
+    }
+
+    /**
+     * Executes the given statement. If the statement has a query timeout it is watched while it executes and
+     * cancelled if the driver does not time it out itself. Results are consumed after the statement is no longer
+     * watched, so that streaming a large result is not cancelled.
+     *
+     * @param statement The statement
+     * @param execution The execution of the statement
+     * @param <R> The result type
+     * @return The result
+     * @throws SQLException if the execution fails
+     */
+    private <R> R executeWatched(PreparedStatement statement, PreparedStatementCallback<R> execution) throws SQLException {
+        int queryTimeout = statement.getQueryTimeout();
+        if (queryTimeout <= 0) {
+            return execution.call(statement);
+        }
+        StatementWatchdog watchdog = getWatchdog();
+        watchdog.watch(statement, TimeUnit.SECONDS.toMillis(queryTimeout));
+        try {
+            return execution.call(statement);
+        } finally {
+            watchdog.unwatch(statement);
+        }
+    }
+
+    private StatementWatchdog getWatchdog() {
+        StatementWatchdog watchdog = this.watchdog;
+        if (watchdog == null) {
+            synchronized (this) { // double check
+                watchdog = this.watchdog;
+                if (watchdog == null) {
+                    watchdog = new StatementWatchdog();
+                    this.watchdog = watchdog;
+                }
+            }
+        }
+        return watchdog;
+    }
+
+    /**
+     * Translates the given exception into a {@link DataAccessException}.
+     *
+     * @param message The message prefix
+     * @param e The exception
+     * @return The translated exception
+     */
+    private DataAccessException translateException(String message, SQLException e) {
+        if (e instanceof SQLTimeoutException || CANCELLED_SQL_STATES.contains(e.getSQLState()) || e.getErrorCode() == 1013) {
+            // 1013 is Oracle's ORA-01013: user requested cancel of current operation
+            return new QueryTimeoutException(message + e.getMessage(), e);
+        }
+        String sqlState = e.getSQLState();
+        if (e instanceof SQLTransientException || (sqlState != null && sqlState.startsWith("40"))) {
+            // class 40 is transaction rollback, such as serialization failures and deadlocks
+            return new TransientDataAccessException(message + e.getMessage(), e);
+        }
+        return new DataAccessException(message + e.getMessage(), e);
     }
 
     @NonNull
@@ -1125,7 +1616,7 @@ public class DefaultJdbcRepositoryOperations extends AbstractSqlRepositoryOperat
         try {
             return callback.call(transactionOperations.getConnection());
         } catch (SQLException e) {
-            throw new DataAccessException("Error executing SQL Callback: " + e.getMessage(), e);
+            throw translateException("Error executing SQL Callback: ", e);
         }
     }
 
@@ -1138,9 +1629,11 @@ public class DefaultJdbcRepositoryOperations extends AbstractSqlRepositoryOperat
             QUERY_LOG.debug("Executing Query: {}", sql);
         }
         try {
-            return callback.call(transactionOperations.getConnection().prepareStatement(sql));
+            PreparedStatement ps = transactionOperations.getConnection().prepareStatement(sql);
+            applyTimeout(ps, AnnotationMetadata.EMPTY_METADATA);
+            return executeWatched(ps, callback);
         } catch (SQLException e) {
-            throw new DataAccessException("Error preparing SQL statement: " + e.getMessage(), e);
+            throw translateException("Error preparing SQL statement: ", e);
         }
     }
 
@@ -1189,7 +1682,7 @@ public class DefaultJdbcRepositoryOperations extends AbstractSqlRepositoryOperat
                         return nextCalled;
                     }
                 } catch (SQLException e) {
-                    throw new DataAccessException("Error retrieving next JDBC result: " + e.getMessage(), e);
+                    throw translateException("Error retrieving next JDBC result: ", e);
                 }
             }
 
@@ -1202,4 +1695,76 @@ public class DefaultJdbcRepositoryOperations extends AbstractSqlRepositoryOperat
         return StreamSupport.stream(iterable.spliterator(), false);
     }
 
+    /**
+     * Key for a query with the order and pagination clause of a page appended.
+     */
+    private static final class SortedQueryKey {
+        private final String query;
+        private final Class<?> rootEntity;
+        private final Dialect dialect;
+        private final Sort sort;
+        private final boolean paged;
+        private final int hashCode;
+
+        SortedQueryKey(String query, Class<?> rootEntity, Dialect dialect, Sort sort, boolean paged) {
+            this.query = query;
+            this.rootEntity = rootEntity;
+            this.dialect = dialect;
+            this.sort = sort;
+            this.paged = paged;
+            this.hashCode = Objects.hash(query, rootEntity, dialect, sort, paged);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            SortedQueryKey that = (SortedQueryKey) o;
+            return paged == that.paged &&
+                    dialect == that.dialect &&
+                    rootEntity.equals(that.rootEntity) &&
+                    query.equals(that.query) &&
+                    sort.equals(that.sort);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * Key for the coalescer of the inserts of an entity with the same annotation metadata.
+     */
+    private final class CoalescerKey {
+        private final StoredInsert<?> insert;
+        private final AnnotationMetadata annotationMetadata;
+
+        CoalescerKey(StoredInsert<?> insert, AnnotationMetadata annotationMetadata) {
+            this.insert = insert;
+            this.annotationMetadata = annotationMetadata;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CoalescerKey that = (CoalescerKey) o;
+            return insert == that.insert &&
+                    annotationMetadata.equals(that.annotationMetadata);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(insert) + annotationMetadata.hashCode();
+        }
+    }
 }
@@ -17,6 +17,7 @@ package io.micronaut.data.jdbc.operations;
 
 import io.micronaut.data.jdbc.runtime.JdbcOperations;
 import io.micronaut.data.operations.RepositoryOperations;
+import io.micronaut.data.operations.ReturningCapableRepository;
 
 /**
  * Sub-interface for {@link RepositoryOperations} specific to JDBC implementations.
@@ -24,5 +25,5 @@ import io.micronaut.data.operations.RepositoryOperations;
  * @author graemerocher
  * @since 1.0.0
  */
-public interface JdbcRepositoryOperations extends RepositoryOperations, JdbcOperations {
+public interface JdbcRepositoryOperations extends RepositoryOperations, ReturningCapableRepository, JdbcOperations {
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.data.jdbc.operations;
+
+import io.micronaut.core.annotation.Internal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cancels statements that are still running after their deadline, for drivers that do not reliably honour
+ * {@link Statement#setQueryTimeout(int)}. Statements are only watched while they execute, so that the time spent
+ * consuming their results does not count towards the deadline. A single daemon thread periodically checks the
+ * watched statements, forgetting the ones that have been closed and calling {@link Statement#cancel()} on the
+ * ones that have overrun.
+ *
+ * @author graemerocher
+ * @since 1.0.1
+ */
+@Internal
+final class StatementWatchdog implements AutoCloseable {
+    /**
+     * The time a statement may run past its deadline before it is cancelled, giving the driver the
+     * chance to time out the statement itself.
+     */
+    static final long GRACE_PERIOD_MILLIS = 1000;
+
+    private static final Logger LOG = LoggerFactory.getLogger(StatementWatchdog.class);
+    private static final long CHECK_INTERVAL_MILLIS = 250;
+
+    private final Map<Statement, Long> deadlines = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Default constructor.
+     */
+    StatementWatchdog() {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "micronaut-data-statement-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::check, CHECK_INTERVAL_MILLIS, CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Watch the given statement, which is about to execute.
+     * @param statement The statement
+     * @param timeoutMillis The timeout in milliseconds
+     */
+    void watch(Statement statement, long timeoutMillis) {
+        deadlines.put(statement, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis + GRACE_PERIOD_MILLIS));
+    }
+
+    /**
+     * Stop watching the given statement once it has finished executing.
+     * @param statement The statement
+     */
+    void unwatch(Statement statement) {
+        deadlines.remove(statement);
+    }
+
+    /**
+     * @return The number of statements currently watched
+     */
+    int size() {
+        return deadlines.size();
+    }
+
+    /**
+     * Checks the watched statements.
+     */
+    void check() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<Statement, Long>> i = deadlines.entrySet().iterator();
+        while (i.hasNext()) {
+            Map.Entry<Statement, Long> entry = i.next();
+            Statement statement = entry.getKey();
+            try {
+                if (statement.isClosed()) {
+                    i.remove();
+                } else if (now - entry.getValue() >= 0) {
+                    i.remove();
+                    if (LOG.isWarnEnabled()) {
+                        LOG.warn("Cancelling statement that exceeded its timeout: {}", statement);
+                    }
+                    statement.cancel();
+                }
+            } catch (SQLException | RuntimeException e) {
+                i.remove();
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Error checking statement: " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        deadlines.clear();
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.data.jdbc.operations;
+
+import io.micronaut.core.annotation.Internal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Coalesces writes of single entities submitted concurrently by independent callers into batches.
+ *
+ * <p>The first caller that submits an entity becomes the leader of a new batch and waits until the batch is full or
+ * the window has elapsed, whichever comes first. Entities submitted in the meantime join the batch. The batch is
+ * then written once by either the leader or the caller that filled it, and every caller's future completes with its
+ * written entity. If the batch fails each entity is written again on its own so that a single bad entity only fails
+ * its own caller.</p>
+ *
+ * @param <T> The entity type
+ * @author graemerocher
+ * @since 1.0.1
+ */
+@Internal
+final class WriteCoalescer<T> {
+    private static final Logger LOG = LoggerFactory.getLogger(WriteCoalescer.class);
+
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final Function<List<T>, List<T>> batchWriter;
+    private final Function<T, T> singleWriter;
+    private Batch<T> current;
+
+    /**
+     * Default constructor.
+     *
+     * @param maxBatchSize The maximum number of entities written in one batch
+     * @param windowNanos The time the leader of a batch waits for other entities in nanoseconds
+     * @param batchWriter Writes a batch of entities within a single transaction
+     * @param singleWriter Writes a single entity within its own transaction
+     */
+    WriteCoalescer(int maxBatchSize, long windowNanos, Function<List<T>, List<T>> batchWriter, Function<T, T> singleWriter) {
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = windowNanos;
+        this.batchWriter = batchWriter;
+        this.singleWriter = singleWriter;
+    }
+
+    /**
+     * Submit the given entity for writing. The calling thread may write the batch the entity ends up in.
+     *
+     * @param entity The entity
+     * @return A future completed once the entity has been written
+     */
+    CompletableFuture<T> submit(T entity) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Batch<T> batch;
+        boolean leader = false;
+        boolean full = false;
+        synchronized (this) {
+            batch = current;
+            if (batch == null) {
+                batch = new Batch<>(maxBatchSize);
+                current = batch;
+                leader = true;
+            }
+            batch.entities.add(entity);
+            batch.futures.add(future);
+            if (batch.entities.size() >= maxBatchSize) {
+                current = null;
+                full = true;
+            }
+        }
+        if (full) {
+            batch.filled.countDown();
+            if (batch.claim()) {
+                write(batch);
+            }
+        } else if (leader) {
+            try {
+                batch.filled.await(windowNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (this) {
+                if (current == batch) {
+                    current = null;
+                }
+            }
+            if (batch.claim()) {
+                write(batch);
+            }
+        }
+        return future;
+    }
+
+    private void write(Batch<T> batch) {
+        List<T> entities = batch.entities;
+        List<CompletableFuture<T>> futures = batch.futures;
+        try {
+            List<T> results = batchWriter.apply(entities);
+            for (int i = 0; i < futures.size(); i++) {
+                futures.get(i).complete(results.get(i));
+            }
+        } catch (RuntimeException e) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Coalesced write of " + entities.size() + " entities failed, writing them individually: " + e.getMessage(), e);
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).complete(singleWriter.apply(entities.get(i)));
+                } catch (RuntimeException ex) {
+                    futures.get(i).completeExceptionally(ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * A batch of entities.
+     *
+     * @param <T> The entity type
+     */
+    private static final class Batch<T> {
+        final List<T> entities;
+        final List<CompletableFuture<T>> futures;
+        final CountDownLatch filled = new CountDownLatch(1);
+        final AtomicBoolean claimed = new AtomicBoolean();
+
+        Batch(int maxBatchSize) {
+            this.entities = new ArrayList<>(maxBatchSize);
+            this.futures = new ArrayList<>(maxBatchSize);
+        }
+
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+}
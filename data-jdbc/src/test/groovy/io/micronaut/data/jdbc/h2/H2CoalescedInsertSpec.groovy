@@ -0,0 +1,109 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.data.jdbc.h2
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.data.annotation.GeneratedValue
+import io.micronaut.data.annotation.Id
+import io.micronaut.data.annotation.MappedEntity
+import io.micronaut.data.exceptions.DataAccessException
+import io.micronaut.data.jdbc.annotation.JdbcRepository
+import io.micronaut.data.model.query.builder.sql.Dialect
+import io.micronaut.data.repository.CrudRepository
+import io.micronaut.test.annotation.MicronautTest
+import spock.lang.Shared
+import spock.lang.Specification
+
+import javax.inject.Inject
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+@MicronautTest(transactional = false)
+@Property(name = "datasources.default.name", value = "coalescedInsertDb")
+@Property(name = "datasources.default.schema-generate", value = "CREATE_DROP")
+@Property(name = "datasources.default.dialect", value = "H2")
+@Property(name = "datasources.default.coalesce-writes", value = "true")
+@Property(name = "datasources.default.coalesce-window", value = "500ms")
+@Property(name = "datasources.default.coalesce-batch-size", value = "4")
+class H2CoalescedInsertSpec extends Specification {
+
+    @Inject
+    @Shared
+    AuditEntryRepository auditEntryRepository
+
+    @Shared
+    ExecutorService executor = Executors.newFixedThreadPool(4)
+
+    void cleanupSpec() {
+        executor.shutdown()
+    }
+
+    void cleanup() {
+        auditEntryRepository.deleteAll()
+    }
+
+    void "test concurrent inserts are assigned their own identities"() {
+        when:
+        List<CompletableFuture<AuditEntry>> futures = (1..8).collect { i ->
+            CompletableFuture.supplyAsync({ auditEntryRepository.save(new AuditEntry(message: "Entry $i")) }, executor)
+        }
+        List<AuditEntry> saved = futures*.get(10, TimeUnit.SECONDS)
+
+        then:
+        saved*.message == (1..8).collect { "Entry $it".toString() }
+        saved*.id.every { it != null }
+        saved*.id.toUnique().size() == 8
+        saved.every { auditEntryRepository.findById(it.id).get().message == it.message }
+        auditEntryRepository.count() == 8
+    }
+
+    void "test a failing insert does not fail the inserts coalesced with it"() {
+        when:
+        List<CompletableFuture<AuditEntry>> futures = ["First", null, "Third", "Fourth"].collect { message ->
+            CompletableFuture.supplyAsync({ auditEntryRepository.save(new AuditEntry(message: message)) }, executor)
+        }
+        List<CompletableFuture<AuditEntry>> succeeded = futures.findAll { it != futures[1] }
+
+        then:
+        succeeded*.get(10, TimeUnit.SECONDS)*.message == ["First", "Third", "Fourth"]
+        succeeded*.get()*.id.toUnique().size() == 3
+        auditEntryRepository.count() == 3
+
+        when:
+        futures[1].join()
+
+        then:
+        def e = thrown(CompletionException)
+        e.cause instanceof DataAccessException
+    }
+}
+
+@MappedEntity
+class AuditEntry {
+
+    @Id
+    @GeneratedValue
+    Long id
+
+    String message
+}
+
+@JdbcRepository(dialect = Dialect.H2)
+interface AuditEntryRepository extends CrudRepository<AuditEntry, Long> {
+}
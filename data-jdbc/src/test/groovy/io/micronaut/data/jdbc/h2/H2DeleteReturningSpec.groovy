@@ -0,0 +1,93 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.data.jdbc.h2
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.data.annotation.GeneratedValue
+import io.micronaut.data.annotation.Id
+import io.micronaut.data.annotation.MappedEntity
+import io.micronaut.data.jdbc.annotation.JdbcRepository
+import io.micronaut.data.model.query.builder.sql.Dialect
+import io.micronaut.data.repository.CrudRepository
+import io.micronaut.test.annotation.MicronautTest
+import spock.lang.Shared
+import spock.lang.Specification
+
+import javax.inject.Inject
+
+@MicronautTest(transactional = false)
+@Property(name = "datasources.default.name", value = "deleteReturningDb")
+@Property(name = "datasources.default.schema-generate", value = "CREATE_DROP")
+@Property(name = "datasources.default.dialect", value = "H2")
+class H2DeleteReturningSpec extends Specification {
+
+    @Inject
+    @Shared
+    ChoreRepository choreRepository
+
+    void cleanup() {
+        choreRepository.deleteAll()
+    }
+
+    void "test delete returning the deleted entities selects and then deletes them by id"() {
+        given:
+        def chores = choreRepository.saveAll([
+                new Chore(title: "Dishes", room: "Kitchen"),
+                new Chore(title: "Dishes", room: "Garden"),
+                new Chore(title: "Laundry", room: "Cellar")
+        ]).toList()
+
+        when:"The chores with a title are deleted"
+        def deleted = choreRepository.deleteByTitleReturning("Dishes")
+
+        then:"The deleted chores are returned and only those are deleted"
+        deleted.size() == 2
+        deleted*.id.toSet() == chores.findAll { it.title == "Dishes" }*.id.toSet()
+        deleted*.room.toSet() == ["Kitchen", "Garden"].toSet()
+        choreRepository.count() == 1
+        choreRepository.findAll().first().title == "Laundry"
+    }
+
+    void "test delete returning the deleted entities when nothing matches"() {
+        given:
+        choreRepository.save(new Chore(title: "Laundry", room: "Cellar"))
+
+        when:
+        def deleted = choreRepository.deleteByTitleReturning("Dishes")
+
+        then:
+        deleted.isEmpty()
+        choreRepository.count() == 1
+    }
+}
+
+@MappedEntity
+class Chore {
+
+    @Id
+    @GeneratedValue
+    Long id
+
+    String title
+
+    String room
+}
+
+@JdbcRepository(dialect = Dialect.H2)
+interface ChoreRepository extends CrudRepository<Chore, Long> {
+
+    List<Chore> deleteByTitleReturning(String title)
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.data.jdbc.h2
+
+import groovy.sql.Sql
+import io.micronaut.context.annotation.Property
+import io.micronaut.data.annotation.GeneratedValue
+import io.micronaut.data.annotation.Id
+import io.micronaut.data.annotation.MappedEntity
+import io.micronaut.data.jdbc.annotation.JdbcRepository
+import io.micronaut.data.model.query.builder.sql.Dialect
+import io.micronaut.data.repository.CrudRepository
+import io.micronaut.test.annotation.MicronautTest
+import spock.lang.Shared
+import spock.lang.Specification
+
+import javax.inject.Inject
+import javax.sql.DataSource
+
+@MicronautTest(transactional = false)
+@Property(name = "datasources.default.name", value = "generatedValuesDb")
+@Property(name = "datasources.default.dialect", value = "H2")
+class H2GeneratedValuesSpec extends Specification {
+
+    @Inject
+    @Shared
+    TicketRepository ticketRepository
+
+    @Inject
+    @Shared
+    DataSource dataSource
+
+    void setup() {
+        def sql = new Sql(dataSource)
+        sql.execute('CREATE TABLE IF NOT EXISTS `ticket` (`id` BIGINT AUTO_INCREMENT PRIMARY KEY, `name` VARCHAR(255) NOT NULL, `priority` INT DEFAULT 5, `code` VARCHAR(255) DEFAULT \'NEW\')')
+        sql.execute('DELETE FROM `ticket`')
+    }
+
+    void "test generated and defaulted columns are read back after an insert"() {
+        when:"An entity is saved"
+        def ticket = ticketRepository.save(new Ticket(name: "First"))
+
+        then:"The identity and the defaulted columns are populated from the database"
+        ticket.id
+        ticket.priority == 5
+        ticket.code == 'NEW'
+        ticketRepository.findById(ticket.id).get().priority == 5
+    }
+
+    void "test generated and defaulted columns are read back after a batch insert"() {
+        when:"Several entities are saved in a batch"
+        def tickets = ticketRepository.saveAll([new Ticket(name: "First"), new Ticket(name: "Second")]).toList()
+
+        then:"Each entity is populated from the database"
+        tickets.size() == 2
+        tickets.every { it.id && it.priority == 5 && it.code == 'NEW' }
+        tickets[0].id != tickets[1].id
+    }
+}
+
+@MappedEntity
+class Ticket {
+
+    @Id
+    @GeneratedValue
+    Long id
+
+    String name
+
+    @GeneratedValue
+    Integer priority
+
+    @GeneratedValue
+    String code
+}
+
+@JdbcRepository(dialect = Dialect.H2)
+interface TicketRepository extends CrudRepository<Ticket, Long> {
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.data.jdbc.h2
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.annotation.Property
+import io.micronaut.data.annotation.GeneratedValue
+import io.micronaut.data.annotation.Id
+import io.micronaut.data.annotation.MappedEntity
+import io.micronaut.data.annotation.Query
+import io.micronaut.data.annotation.QueryTimeout
+import io.micronaut.data.exceptions.QueryTimeoutException
+import io.micronaut.data.jdbc.annotation.JdbcRepository
+import io.micronaut.data.model.query.builder.sql.Dialect
+import io.micronaut.data.repository.CrudRepository
+import io.micronaut.test.annotation.MicronautTest
+import io.micronaut.transaction.SynchronousTransactionManager
+import io.micronaut.transaction.support.DefaultTransactionDefinition
+import spock.lang.Shared
+import spock.lang.Specification
+import spock.lang.Timeout
+
+import javax.inject.Inject
+import java.sql.Connection
+import java.time.Duration
+
+@MicronautTest(transactional = false)
+@Property(name = "datasources.default.name", value = "queryTimeoutDb")
+@Property(name = "datasources.default.schema-generate", value = "CREATE_DROP")
+@Property(name = "datasources.default.dialect", value = "H2")
+@Timeout(20)
+class H2QueryTimeoutSpec extends Specification {
+
+    @Inject
+    @Shared
+    TimedTaskRepository timedTaskRepository
+
+    @Inject
+    @Shared
+    SynchronousTransactionManager<Connection> transactionManager
+
+    void setupSpec() {
+        timedTaskRepository.save(new TimedTask(name: "Report"))
+    }
+
+    void "test the query timeout of the method is applied"() {
+        when:
+        timedTaskRepository.findSlowlyWithTimeout()
+
+        then:
+        thrown(QueryTimeoutException)
+    }
+
+    void "test the remaining time of the transaction is applied"() {
+        given:
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition()
+        definition.setTimeout(Duration.ofSeconds(1))
+
+        when:
+        transactionManager.execute(definition, { status -> timedTaskRepository.findSlowly() })
+
+        then:
+        thrown(QueryTimeoutException)
+    }
+
+    void "test the query timeout of the data source is applied"() {
+        given:
+        ApplicationContext context = ApplicationContext.run(
+                'datasources.default.name': 'defaultQueryTimeoutDb',
+                'datasources.default.schema-generate': 'CREATE_DROP',
+                'datasources.default.dialect': 'H2',
+                'datasources.default.query-timeout': '1s'
+        )
+        TimedTaskRepository repository = context.getBean(TimedTaskRepository)
+        repository.save(new TimedTask(name: "Report"))
+
+        when:
+        repository.findSlowly()
+
+        then:
+        thrown(QueryTimeoutException)
+
+        cleanup:
+        context.close()
+    }
+
+    void "test queries that complete in time are not affected by the timeout"() {
+        expect:
+        timedTaskRepository.findByName("Report").size() == 1
+    }
+}
+
+@MappedEntity
+class TimedTask {
+
+    @Id
+    @GeneratedValue
+    Long id
+
+    String name
+}
+
+@JdbcRepository(dialect = Dialect.H2)
+interface TimedTaskRepository extends CrudRepository<TimedTask, Long> {
+
+    String SLOW_QUERY = "SELECT t.* FROM timed_task t, SYSTEM_RANGE(1, 100000000000) r WHERE MOD(r.X, 7) = 99"
+
+    @Query(SLOW_QUERY)
+    List<TimedTask> findSlowly()
+
+    @Query(SLOW_QUERY)
+    @QueryTimeout("1s")
+    List<TimedTask> findSlowlyWithTimeout()
+
+    @QueryTimeout("1s")
+    List<TimedTask> findByName(String name)
+}
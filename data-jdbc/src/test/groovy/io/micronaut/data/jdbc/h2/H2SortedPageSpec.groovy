@@ -0,0 +1,127 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.data.jdbc.h2
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.data.annotation.GeneratedValue
+import io.micronaut.data.annotation.Id
+import io.micronaut.data.annotation.MappedEntity
+import io.micronaut.data.jdbc.annotation.JdbcRepository
+import io.micronaut.data.jdbc.operations.DefaultJdbcRepositoryOperations
+import io.micronaut.data.jdbc.runtime.JdbcOperations
+import io.micronaut.data.model.Page
+import io.micronaut.data.model.Pageable
+import io.micronaut.data.model.Sort
+import io.micronaut.data.model.query.builder.sql.Dialect
+import io.micronaut.data.repository.PageableRepository
+import io.micronaut.test.annotation.MicronautTest
+import spock.lang.Shared
+import spock.lang.Specification
+
+import javax.inject.Inject
+import java.lang.reflect.Field
+
+@MicronautTest(transactional = false)
+@Property(name = "datasources.default.name", value = "sortedPageDb")
+@Property(name = "datasources.default.schema-generate", value = "CREATE_DROP")
+@Property(name = "datasources.default.dialect", value = "H2")
+class H2SortedPageSpec extends Specification {
+
+    @Inject
+    @Shared
+    RankedRepository rankedRepository
+
+    @Inject
+    @Shared
+    JdbcOperations jdbcOperations
+
+    void setupSpec() {
+        rankedRepository.saveAll((1..10).collect { i -> new Ranked(name: "Ranked $i", score: 100 - i) })
+    }
+
+    void "test sorted pages with different offsets share the statement"() {
+        given:
+        Map<?, String> sortedQueries = sortedQueries()
+        sortedQueries.clear()
+        Sort sort = Sort.of(Sort.Order.asc("score"))
+
+        when:
+        List<Page<Ranked>> pages = (0..3).collect { rankedRepository.findAll(Pageable.from(it, 3, sort)) }
+
+        then:"Every page has its own rows"
+        pages*.content*.score == [[90, 91, 92], [93, 94, 95], [96, 97, 98], [99]]
+        pages.every { it.totalSize == 10 }
+
+        and:"The limit and offset are bound rather than rendered into the statement"
+        List<String> paged = sortedQueries.values().findAll { it.contains(" LIMIT ") }
+        paged.size() == 1
+        paged[0].contains(" ORDER BY ")
+        paged[0].endsWith(" LIMIT ? OFFSET ?")
+    }
+
+    void "test single result queries with an offset"() {
+        given:
+        Sort sort = Sort.of(Sort.Order.desc("score"))
+
+        expect:"The row at the page number is returned"
+        rankedRepository.findByScoreGreaterThan(0, Pageable.from(0, 10, sort)).score == 99
+        rankedRepository.findByScoreGreaterThan(0, Pageable.from(2, 10, sort)).score == 97
+        rankedRepository.findByScoreGreaterThan(95, Pageable.from(3, 5, sort)).score == 96
+    }
+
+    void "test sorted queries with IN lists of different sizes share the cached statement"() {
+        given:
+        Map<?, String> sortedQueries = sortedQueries()
+        sortedQueries.clear()
+        Sort sort = Sort.of(Sort.Order.desc("score"))
+
+        expect:"Each list is bound in full"
+        rankedRepository.findByNameIn(["Ranked 1", "Ranked 5"], sort)*.score == [99, 95]
+        rankedRepository.findByNameIn(["Ranked 2", "Ranked 7", "Ranked 9", "Ranked 10"], sort)*.score == [98, 93, 91, 90]
+        rankedRepository.findByNameIn(["Ranked 3"], sort)*.score == [97]
+        rankedRepository.findByNameIn(["Ranked 4", "Ranked 8"], Sort.of(Sort.Order.asc("score")))*.score == [92, 96]
+
+        and:"The sorted query is cached once per sort and before the IN lists are expanded"
+        sortedQueries.size() == 2
+        sortedQueries.values().every { !it.contains("?,?") }
+    }
+
+    private Map<?, String> sortedQueries() {
+        Field field = DefaultJdbcRepositoryOperations.getDeclaredField("sortedQueries")
+        field.setAccessible(true)
+        return (Map<?, String>) field.get(jdbcOperations)
+    }
+}
+
+@MappedEntity
+class Ranked {
+
+    @Id
+    @GeneratedValue
+    Long id
+
+    String name
+
+    int score
+}
+
+@JdbcRepository(dialect = Dialect.H2)
+interface RankedRepository extends PageableRepository<Ranked, Long> {
+
+    Ranked findByScoreGreaterThan(int score, Pageable pageable)
+
+    List<Ranked> findByNameIn(List<String> names, Sort sort)
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.data.jdbc.h2
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.data.tck.entities.Address
+import io.micronaut.data.tck.entities.Restaurant
+import io.micronaut.test.annotation.MicronautTest
+import spock.lang.Shared
+import spock.lang.Specification
+
+import javax.inject.Inject
+
+@MicronautTest
+@Property(name = "datasources.default.name", value = "mydb")
+@Property(name = "datasources.default.schema-generate", value = "CREATE_DROP")
+@Property(name = "datasources.default.dialect", value = "H2")
+class H2UpsertSpec extends Specification {
+
+    @Inject
+    @Shared
+    H2RestaurantRepository restaurantRepository
+
+    void cleanup() {
+        restaurantRepository.deleteAll()
+    }
+
+    void "test upsert inserts and updates an entity"() {
+        when:"An entity without an id is upserted"
+        def restaurant = restaurantRepository.upsert(new Restaurant("Fred's Cafe", new Address("High St.", "7896")))
+
+        then:"The entity is inserted and the id assigned"
+        restaurant.id
+        restaurantRepository.count() == 1
+
+        when:"The entity is changed and upserted again"
+        def changed = new Restaurant("Fred's Bistro", new Address("Low St.", "1234"))
+        changed.id = restaurant.id
+        changed.hqAddress = new Address("John St.", "4567")
+        restaurantRepository.upsert(changed)
+        def found = restaurantRepository.findById(restaurant.id).get()
+
+        then:"The existing row is updated including the embedded columns"
+        restaurantRepository.count() == 1
+        found.name == "Fred's Bistro"
+        found.address.street == 'Low St.'
+        found.address.zipCode == '1234'
+        found.hqAddress.street == 'John St.'
+        found.hqAddress.zipCode == '4567'
+
+        when:"An entity with an id that does not exist is upserted"
+        def assigned = new Restaurant("Joe's Cafe", new Address("Smith St.", "5555"))
+        assigned.id = restaurant.id + 100
+        restaurantRepository.upsert(assigned)
+
+        then:"The entity is inserted with its id"
+        restaurantRepository.count() == 2
+        restaurantRepository.findById(restaurant.id + 100).get().name == "Joe's Cafe"
+    }
+
+    void "test upsertAll inserts and updates entities"() {
+        given:
+        def existing = restaurantRepository.save(new Restaurant("Fred's Cafe", new Address("High St.", "7896")))
+        def changed = new Restaurant("Fred's Bistro", new Address("Low St.", "1234"))
+        changed.id = existing.id
+        def inserted = new Restaurant("Joe's Cafe", new Address("Smith St.", "5555"))
+
+        when:"New and existing entities are upserted"
+        def results = restaurantRepository.upsertAll([changed, inserted]).toList()
+
+        then:"The existing entity is updated and the new one inserted"
+        results.size() == 2
+        inserted.id
+        restaurantRepository.count() == 2
+        restaurantRepository.findById(existing.id).get().name == "Fred's Bistro"
+        restaurantRepository.findById(existing.id).get().address.street == 'Low St.'
+        restaurantRepository.findById(inserted.id).get().name == "Joe's Cafe"
+    }
+}
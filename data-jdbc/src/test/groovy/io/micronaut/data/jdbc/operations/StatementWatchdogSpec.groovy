@@ -0,0 +1,52 @@
+package io.micronaut.data.jdbc.operations
+
+import spock.lang.Specification
+
+import java.sql.Statement
+
+class StatementWatchdogSpec extends Specification {
+
+    void "test overrunning statements are cancelled and closed statements forgotten"() {
+        given:
+        StatementWatchdog watchdog = new StatementWatchdog()
+        Statement running = Mock(Statement)
+        Statement closed = Mock(Statement)
+        Statement pending = Mock(Statement)
+
+        when:
+        watchdog.watch(running, -StatementWatchdog.GRACE_PERIOD_MILLIS - 1)
+        watchdog.watch(closed, -StatementWatchdog.GRACE_PERIOD_MILLIS - 1)
+        watchdog.watch(pending, 60000)
+        watchdog.check()
+
+        then:
+        _ * running.isClosed() >> false
+        1 * running.cancel()
+        _ * closed.isClosed() >> true
+        0 * closed.cancel()
+        _ * pending.isClosed() >> false
+        0 * pending.cancel()
+        watchdog.size() == 1
+
+        cleanup:
+        watchdog.close()
+    }
+
+    void "test statements that finished executing are no longer cancelled"() {
+        given:
+        StatementWatchdog watchdog = new StatementWatchdog()
+        Statement streaming = Mock(Statement)
+
+        when:"A statement finishes executing and its results are consumed past its deadline"
+        watchdog.watch(streaming, -StatementWatchdog.GRACE_PERIOD_MILLIS - 1)
+        watchdog.unwatch(streaming)
+        watchdog.check()
+
+        then:
+        0 * streaming.cancel()
+        watchdog.size() == 0
+
+        cleanup:
+        watchdog.close()
+    }
+}
@@ -0,0 +1,73 @@
+package io.micronaut.data.jdbc.operations
+
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class WriteCoalescerSpec extends Specification {
+
+    ExecutorService executor = Executors.newFixedThreadPool(8)
+
+    void cleanup() {
+        executor.shutdown()
+    }
+
+    void "test concurrent writes are coalesced into batches"() {
+        given:
+        List<List<Integer>> batches = [].asSynchronized()
+        WriteCoalescer<Integer> coalescer = new WriteCoalescer<>(4, TimeUnit.SECONDS.toNanos(5), { List<Integer> entities ->
+            batches << new ArrayList<>(entities)
+            entities.collect { it * 10 }
+        }, { Integer entity -> throw new IllegalStateException("Should not write individually") })
+
+        when:
+        List<CompletableFuture<Integer>> futures = (1..8).collect { i ->
+            CompletableFuture.supplyAsync({ coalescer.submit(i).join() }, executor)
+        }
+
+        then:
+        futures*.get(10, TimeUnit.SECONDS).sort() == (1..8).collect { it * 10 }
+        batches.size() == 2
+        batches.every { it.size() == 4 }
+    }
+
+    void "test a partial batch is written once the window elapses"() {
+        given:
+        WriteCoalescer<Integer> coalescer = new WriteCoalescer<>(100, TimeUnit.MILLISECONDS.toNanos(10), { List<Integer> entities ->
+            entities
+        }, { Integer entity -> entity })
+
+        expect:
+        coalescer.submit(1).get(10, TimeUnit.SECONDS) == 1
+    }
+
+    void "test a failed batch falls back to writing each entity individually"() {
+        given:
+        WriteCoalescer<Integer> coalescer = new WriteCoalescer<>(2, TimeUnit.SECONDS.toNanos(5), { List<Integer> entities ->
+            throw new IllegalStateException("Batch failed")
+        }, { Integer entity ->
+            if (entity == 2) {
+                throw new IllegalArgumentException("Bad entity")
+            }
+            entity
+        })
+
+        when:
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync({ coalescer.submit(1).join() }, executor)
+        CompletableFuture<Integer> second = CompletableFuture.supplyAsync({ coalescer.submit(2).join() }, executor)
+
+        then:
+        first.get(10, TimeUnit.SECONDS) == 1
+
+        when:
+        second.join()
+
+        then:
+        def e = thrown(CompletionException)
+        e.cause instanceof IllegalArgumentException || e.cause.cause instanceof IllegalArgumentException
+    }
+}
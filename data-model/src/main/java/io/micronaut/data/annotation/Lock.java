@@ -0,0 +1,79 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.data.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Allows applying a pessimistic lock to the rows returned by a query method. For SQL dialects this results in
+ * a {@code FOR UPDATE} / {@code FOR SHARE} clause or, for SQL Server, a table hint such as {@code WITH (UPDLOCK, READPAST)}.
+ *
+ * <p>Combining {@link Wait#SKIP_LOCKED} with a method such as {@code findTop10ByStatusOrderByCreated} allows multiple
+ * workers to claim rows from a table based queue concurrently.</p>
+ *
+ * <p>Locks are only held for the duration of the surrounding transaction, hence methods annotated with {@code @Lock}
+ * should be invoked within a transaction.</p>
+ *
+ * @author graemerocher
+ * @since 1.0.1
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.ANNOTATION_TYPE, ElementType.METHOD})
+@Documented
+public @interface Lock {
+
+    /**
+     * @return The lock mode
+     */
+    Mode value() default Mode.WRITE;
+
+    /**
+     * @return What to do if a row is already locked by another transaction
+     */
+    Wait wait() default Wait.DEFAULT;
+
+    /**
+     * The lock mode.
+     */
+    enum Mode {
+        /**
+         * A shared lock ({@code FOR SHARE}). Falls back to an exclusive lock on databases that do not support shared row locks.
+         */
+        READ,
+        /**
+         * An exclusive lock ({@code FOR UPDATE}).
+         */
+        WRITE
+    }
+
+    /**
+     * The behaviour when encountering rows locked by another transaction.
+     */
+    enum Wait {
+        /**
+         * Block until the lock is released.
+         */
+        DEFAULT,
+        /**
+         * Fail immediately ({@code NOWAIT}).
+         */
+        NOWAIT,
+        /**
+         * Skip rows that are locked ({@code SKIP LOCKED}).
+         */
+        SKIP_LOCKED
+    }
+}
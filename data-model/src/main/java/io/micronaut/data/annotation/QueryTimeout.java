@@ -0,0 +1,39 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.data.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Specifies the maximum time the statements executed by a repository method may run for. If the timeout is
+ * exceeded the statement is cancelled and a {@link io.micronaut.data.exceptions.QueryTimeoutException} is thrown.
+ *
+ * <p>When the method is invoked within a transaction that has a timeout the remaining time of the transaction
+ * is applied instead if it is shorter.</p>
+ *
+ * @author graemerocher
+ * @since 1.0.1
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.ANNOTATION_TYPE, ElementType.METHOD, ElementType.TYPE})
+@Documented
+public @interface QueryTimeout {
+
+    /**
+     * @return The timeout as a duration, for example {@code 5s}
+     */
+    String value();
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.data.exceptions;
+
+/**
+ * Exception thrown when a query exceeds its timeout and is cancelled, either by the database or because
+ * the deadline of the surrounding transaction was reached.
+ *
+ * @author graemerocher
+ * @since 1.0.1
+ */
+public class QueryTimeoutException extends DataAccessException {
+    /**
+     * Default constructor.
+     * @param message The message
+     */
+    public QueryTimeoutException(String message) {
+        super(message);
+    }
+
+    /**
+     * Default constructor.
+     * @param message The message
+     * @param cause The cause
+     */
+    public QueryTimeoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
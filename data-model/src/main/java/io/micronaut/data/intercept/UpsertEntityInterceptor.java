@@ -0,0 +1,29 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.data.intercept;
+
+import io.micronaut.core.annotation.Blocking;
+
+/**
+ * An interceptor that accepts a single entity to be inserted or updated and returns either the entity or nothing.
+ * @param <T> The declaring type.
+ *
+ * @author graemerocher
+ * @since 1.0.1
+ */
+@Blocking
+public interface UpsertEntityInterceptor<T> extends DataInterceptor<T, Object> {
+}
@@ -42,6 +42,11 @@ public @interface DataMethod {
      */
     String META_MEMBER_COUNT_QUERY = "countQuery";
 
+    /**
+     * The member that holds the paged form of the query, which binds the limit and offset as parameters.
+     */
+    String META_MEMBER_PAGED_QUERY = "pagedQuery";
+
     /**
      * The member that holds the count parameters.
      */
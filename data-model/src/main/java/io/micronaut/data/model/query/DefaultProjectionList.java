@@ -57,7 +57,9 @@ class DefaultProjectionList implements ProjectionList {
                         QueryModel.PropertyProjection pp = (QueryModel.PropertyProjection) existing;
                         QueryModel.CountDistinctProjection newProjection = new QueryModel.CountDistinctProjection(pp.getPropertyName());
                         projections.add(newProjection);
-                    } else if (existing instanceof QueryModel.IdProjection || existing instanceof QueryModel.DistinctProjection) {
+                    } else if (existing instanceof QueryModel.IdProjection
+                            || existing instanceof QueryModel.DistinctProjection
+                            || existing instanceof QueryModel.LiteralProjection) {
                         projections.clear();
                         projections.add(new QueryModel.CountProjection());
                     }
@@ -1309,6 +1309,31 @@ public interface QueryModel extends Criteria {
 
     }
 
+    /**
+     * A projection that selects a constant value, used to test whether any result exists without reading it.
+     *
+     * @since 1.0.1
+     */
+    class LiteralProjection extends Projection {
+        private final Number value;
+
+        /**
+         * Default constructor.
+         * @param value The numeric value
+         */
+        public LiteralProjection(@NonNull Number value) {
+            ArgumentUtils.requireNonNull("value", value);
+            this.value = value;
+        }
+
+        /**
+         * @return The value
+         */
+        public @NonNull Number getValue() {
+            return value;
+        }
+    }
+
     /**
      * Used to count the results of a query.
      */
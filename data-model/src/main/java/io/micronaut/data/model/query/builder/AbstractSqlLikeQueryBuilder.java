@@ -506,6 +506,10 @@ public abstract class AbstractSqlLikeQueryBuilder implements QueryBuilder {
         queryState.getQuery().append(SELECT_CLAUSE);
 
         buildSelectClause(query, queryState);
+        if (!isCountQuery(query)) {
+            // a count does not return the rows, hence locking them is not required
+            appendTableLockHint(annotationMetadata, queryState.getQuery());
+        }
         QueryModel.Junction criteria = query.getCriteria();
 
         Collection<JoinPath> joinPaths = query.getJoinPaths();
@@ -645,6 +649,26 @@ public abstract class AbstractSqlLikeQueryBuilder implements QueryBuilder {
                 .append(logicalName);
     }
 
+    private boolean isCountQuery(QueryModel query) {
+        for (QueryModel.Projection projection : query.getProjections()) {
+            if (projection instanceof QueryModel.CountProjection || projection instanceof QueryModel.CountDistinctProjection) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Appends a table level lock hint directly after the table alias of the FROM clause for dialects
+     * that express locking via table hints. The default implementation appends nothing.
+     *
+     * @param annotationMetadata The annotation metadata of the query method
+     * @param queryString        The query being built
+     */
+    protected void appendTableLockHint(@NonNull AnnotationMetadata annotationMetadata, @NonNull StringBuilder queryString) {
+        // no-op
+    }
+
     /**
      * Whether queries should be escaped for the given entity.
      * @param entity The entity
@@ -683,6 +707,8 @@ public abstract class AbstractSqlLikeQueryBuilder implements QueryBuilder {
                     queryString.append("DISTINCT(")
                             .append(logicalName)
                             .append(CLOSE_BRACKET);
+                } else if (projection instanceof QueryModel.LiteralProjection) {
+                    queryString.append(((QueryModel.LiteralProjection) projection).getValue());
                 } else if (projection instanceof QueryModel.IdProjection) {
                     PersistentProperty identity = entity.getIdentity();
                     if (identity == null) {
@@ -1478,10 +1504,18 @@ public abstract class AbstractSqlLikeQueryBuilder implements QueryBuilder {
                     aliasName = getAliasName(entity);
                 }
             }
-            buff.append(aliasName)
-                    .append(DOT)
-                    .append(getColumnName(persistentProperty))
-                    .append(SPACE)
+            if (order.isIgnoreCase()) {
+                buff.append("lower(")
+                        .append(aliasName)
+                        .append(DOT)
+                        .append(getColumnName(persistentProperty))
+                        .append(')');
+            } else {
+                buff.append(aliasName)
+                        .append(DOT)
+                        .append(getColumnName(persistentProperty));
+            }
+            buff.append(SPACE)
                     .append(order.getDirection());
             if (i.hasNext()) {
                 buff.append(",");
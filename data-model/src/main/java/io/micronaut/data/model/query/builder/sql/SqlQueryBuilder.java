@@ -16,6 +16,7 @@
 package io.micronaut.data.model.query.builder.sql;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import io.micronaut.core.annotation.AnnotationMetadata;
 import io.micronaut.core.annotation.AnnotationValue;
 import io.micronaut.core.annotation.Creator;
@@ -773,6 +774,290 @@ public class SqlQueryBuilder extends AbstractSqlLikeQueryBuilder implements Quer
         );
     }
 
+    /**
+     * Builds a statement that inserts the given entity or, if a row with the same identity already exists, updates it.
+     * Depending on the dialect this is either an {@code INSERT ... ON CONFLICT} (Postgres), an
+     * {@code INSERT ... ON DUPLICATE KEY UPDATE} (MySQL) or a {@code MERGE} statement (H2, Oracle, SQL Server and ANSI).
+     *
+     * <p>Unlike {@link #buildInsert(AnnotationMetadata, PersistentEntity)} the identity is always bound as a parameter, even
+     * if it is generated, since it is required to detect the conflicting row. Properties that are not updateable, such as
+     * those annotated with {@link DateCreated}, are only written when inserting.</p>
+     *
+     * <p>SQL Server does not allow inserting explicit values into IDENTITY columns, hence upserts are not supported
+     * for entities whose identity is generated by an IDENTITY column on SQL Server.</p>
+     *
+     * @param repositoryMetadata The repository annotation metadata
+     * @param entity The entity
+     * @return The upsert statement
+     * @throws IllegalArgumentException If an upsert cannot be built for the entity
+     */
+    public @NonNull QueryResult buildUpsert(@NonNull AnnotationMetadata repositoryMetadata, @NonNull PersistentEntity entity) {
+        ArgumentUtils.requireNonNull("entity", entity);
+        PersistentProperty identity = entity.getIdentity();
+        if (identity == null) {
+            throw new IllegalArgumentException("Cannot build an upsert for an entity without an identity: " + entity.getName());
+        }
+        if (dialect == Dialect.SQL_SERVER && isIdentityColumn(identity)) {
+            // MERGE would insert an explicit value into the IDENTITY column, which requires IDENTITY_INSERT
+            throw new IllegalArgumentException("Cannot build an upsert for an entity with an IDENTITY generated id on SQL Server: " + entity.getName());
+        }
+        boolean escape = shouldEscape(entity);
+        NamingStrategy namingStrategy = entity.getNamingStrategy();
+        Collection<? extends PersistentProperty> persistentProperties = entity.getPersistentProperties();
+        Map<String, String> parameters = new LinkedHashMap<>(persistentProperties.size() + 1);
+        Map<String, DataType> parameterTypes = new LinkedHashMap<>(persistentProperties.size() + 1);
+        List<String> columns = new ArrayList<>(persistentProperties.size() + 1);
+        List<String> values = new ArrayList<>(persistentProperties.size() + 1);
+        List<String> keyColumns = new ArrayList<>(2);
+        List<String> updateColumns = new ArrayList<>(persistentProperties.size());
+
+        for (PersistentProperty prop : persistentProperties) {
+            if (prop.isGenerated()) {
+                continue;
+            }
+            boolean updateable = prop.getAnnotationMetadata().booleanValue(AutoPopulated.class, "updateable").orElse(true);
+            if (prop instanceof Embedded) {
+                Embedded embedded = (Embedded) prop;
+                for (PersistentProperty embeddedProp : embedded.getAssociatedEntity().getPersistentProperties()) {
+                    String columnName = embeddedProp.getAnnotationMetadata().stringValue(MappedProperty.class)
+                            .orElseGet(() -> namingStrategy.mappedName(embedded, embeddedProp));
+                    columnName = escape ? quote(columnName) : columnName;
+                    String propertyPath = prop.getName() + "." + embeddedProp.getName();
+                    parameterTypes.put(propertyPath, embeddedProp.getDataType());
+                    addWriteExpression(values, embeddedProp);
+                    parameters.put(String.valueOf(values.size()), propertyPath);
+                    columns.add(columnName);
+                    if (updateable) {
+                        updateColumns.add(columnName);
+                    }
+                }
+            } else if (!(prop instanceof Association) || !((Association) prop).isForeignKey()) {
+                String columnName = escape ? quote(getColumnName(prop)) : getColumnName(prop);
+                parameterTypes.put(prop.getName(), prop.getDataType());
+                addWriteExpression(values, prop);
+                parameters.put(String.valueOf(values.size()), prop.getName());
+                columns.add(columnName);
+                if (updateable) {
+                    updateColumns.add(columnName);
+                }
+            }
+        }
+
+        if (identity instanceof Embedded) {
+            for (PersistentProperty embeddedProp : ((Embedded) identity).getAssociatedEntity().getPersistentProperties()) {
+                String columnName = embeddedProp.getAnnotationMetadata().stringValue(MappedProperty.class)
+                        .orElseGet(() -> namingStrategy.mappedName(identity.getName() + embeddedProp.getCapitilizedName()));
+                columnName = escape ? quote(columnName) : columnName;
+                String propertyPath = identity.getName() + "." + embeddedProp.getName();
+                parameterTypes.put(propertyPath, embeddedProp.getDataType());
+                addWriteExpression(values, embeddedProp);
+                parameters.put(String.valueOf(values.size()), propertyPath);
+                columns.add(columnName);
+                keyColumns.add(columnName);
+            }
+        } else {
+            String columnName = escape ? quote(getColumnName(identity)) : getColumnName(identity);
+            parameterTypes.put(identity.getName(), identity.getDataType());
+            addWriteExpression(values, identity);
+            parameters.put(String.valueOf(values.size()), identity.getName());
+            columns.add(columnName);
+            keyColumns.add(columnName);
+        }
+
+        String tableName = getTableName(entity);
+        String columnList = String.join(",", columns);
+        String valueList = String.join(",", values);
+        StringBuilder builder = new StringBuilder();
+        switch (dialect) {
+            case POSTGRES:
+                builder.append(INSERT_INTO).append(tableName)
+                        .append(" (").append(columnList).append(") VALUES (").append(valueList).append(CLOSE_BRACKET)
+                        .append(" ON CONFLICT (").append(String.join(",", keyColumns)).append(CLOSE_BRACKET);
+                if (updateColumns.isEmpty()) {
+                    builder.append(" DO NOTHING");
+                } else {
+                    builder.append(" DO UPDATE SET ").append(updateColumns.stream()
+                            .map(c -> c + "=EXCLUDED." + c)
+                            .collect(Collectors.joining(",")));
+                }
+                break;
+            case MYSQL:
+                builder.append(INSERT_INTO).append(tableName)
+                        .append(" (").append(columnList).append(") VALUES (").append(valueList).append(CLOSE_BRACKET)
+                        .append(" ON DUPLICATE KEY UPDATE ");
+                if (updateColumns.isEmpty()) {
+                    // MySQL requires at least one assignment, re-assigning the key is a no-op
+                    builder.append(keyColumns.get(0)).append('=').append(keyColumns.get(0));
+                } else {
+                    builder.append(updateColumns.stream()
+                            .map(c -> c + "=VALUES(" + c + ")")
+                            .collect(Collectors.joining(",")));
+                }
+                break;
+            case H2:
+                builder.append("MERGE INTO ").append(tableName)
+                        .append(" (").append(columnList).append(") KEY (").append(String.join(",", keyColumns))
+                        .append(") VALUES (").append(valueList).append(CLOSE_BRACKET);
+                break;
+            case ORACLE:
+            case SQL_SERVER:
+            case ANSI:
+            default:
+                String sourceAlias = "s_";
+                String targetAlias = "t_";
+                builder.append("MERGE INTO ").append(tableName).append(getTableAsKeyword()).append(targetAlias)
+                        .append(" USING (");
+                if (dialect == Dialect.ORACLE) {
+                    builder.append("SELECT ");
+                    for (int i = 0; i < columns.size(); i++) {
+                        if (i > 0) {
+                            builder.append(COMMA);
+                        }
+                        builder.append(values.get(i)).append(' ').append(columns.get(i));
+                    }
+                    builder.append(" FROM dual) ").append(sourceAlias);
+                } else {
+                    builder.append("VALUES (").append(valueList).append(")) AS ").append(sourceAlias)
+                            .append(" (").append(columnList).append(CLOSE_BRACKET);
+                }
+                builder.append(" ON (")
+                        .append(keyColumns.stream()
+                                .map(c -> targetAlias + DOT + c + "=" + sourceAlias + DOT + c)
+                                .collect(Collectors.joining(LOGICAL_AND)))
+                        .append(CLOSE_BRACKET);
+                if (!updateColumns.isEmpty()) {
+                    builder.append(" WHEN MATCHED THEN UPDATE SET ")
+                            .append(updateColumns.stream()
+                                    .map(c -> targetAlias + DOT + c + "=" + sourceAlias + DOT + c)
+                                    .collect(Collectors.joining(",")));
+                }
+                builder.append(" WHEN NOT MATCHED THEN INSERT (").append(columnList).append(") VALUES (")
+                        .append(columns.stream().map(c -> sourceAlias + DOT + c).collect(Collectors.joining(",")))
+                        .append(CLOSE_BRACKET);
+                if (dialect == Dialect.SQL_SERVER) {
+                    // SQL Server requires MERGE to be terminated
+                    builder.append(';');
+                }
+                break;
+        }
+        return QueryResult.of(
+                builder.toString(),
+                parameters,
+                parameterTypes,
+                Collections.emptySet()
+        );
+    }
+
+    private boolean isIdentityColumn(PersistentProperty identity) {
+        if (!identity.isGenerated() || identity instanceof Embedded) {
+            return false;
+        }
+        GeneratedValue.Type type = identity.getAnnotationMetadata().enumValue(GeneratedValue.class, GeneratedValue.Type.class)
+                .orElseGet(this::selectAutoStrategy);
+        return type != SEQUENCE;
+    }
+
+    /**
+     * Whether the dialect can return columns of the rows affected by an INSERT, UPDATE or DELETE statement
+     * as a result set. See {@link #buildReturning(String, PersistentEntity, List)}.
+     *
+     * @return True if it can
+     */
+    public boolean supportsReturning() {
+        return dialect == Dialect.POSTGRES || dialect == Dialect.SQL_SERVER;
+    }
+
+    /**
+     * Modifies an INSERT, UPDATE or DELETE statement previously built by this builder so that it returns the given columns of
+     * the affected rows, which can then be read with {@link java.sql.PreparedStatement#executeQuery()}. For Postgres a
+     * {@code RETURNING} clause is appended, for SQL Server an {@code OUTPUT} clause is added before the {@code VALUES} or
+     * {@code WHERE} clause.
+     *
+     * @param statement The statement
+     * @param entity The entity
+     * @param properties The properties to return, in order
+     * @return The modified statement or null if the dialect does not support returning columns, in which case
+     * {@link java.sql.Connection#prepareStatement(String, String[])} can be used to request generated values
+     */
+    public @Nullable String buildReturning(
+            @NonNull String statement,
+            @NonNull PersistentEntity entity,
+            @NonNull List<? extends PersistentProperty> properties) {
+        ArgumentUtils.requireNonNull("statement", statement);
+        ArgumentUtils.requireNonNull("entity", entity);
+        if (!supportsReturning() || CollectionUtils.isEmpty(properties)) {
+            return null;
+        }
+        boolean escape = shouldEscape(entity);
+        String prefix = dialect == Dialect.POSTGRES ? "" : getReturningTableName(statement, entity) + DOT;
+        return addReturningClause(statement, properties.stream()
+                .map(p -> prefix + (escape ? quote(getColumnName(p)) : getColumnName(p)))
+                .collect(Collectors.joining(String.valueOf(COMMA))));
+    }
+
+    /**
+     * Modifies an UPDATE or DELETE statement previously built by this builder so that it returns all the columns of the
+     * affected rows, named as they would be by a query for the entity. See {@link #buildReturning(String, PersistentEntity, List)}.
+     *
+     * @param statement The statement
+     * @param entity The entity
+     * @return The modified statement or null if the dialect does not support returning columns
+     * @since 1.0.1
+     */
+    public @Nullable String buildReturning(@NonNull String statement, @NonNull PersistentEntity entity) {
+        ArgumentUtils.requireNonNull("statement", statement);
+        ArgumentUtils.requireNonNull("entity", entity);
+        if (!supportsReturning()) {
+            return null;
+        }
+        return addReturningClause(statement, selectAllColumns(entity, getReturningTableName(statement, entity)));
+    }
+
+    /**
+     * Builds a SELECT statement that reads and locks the rows that the given DELETE statement would remove, for dialects
+     * that cannot return the deleted rows. The statement takes the same parameters as the DELETE statement.
+     *
+     * @param statement The DELETE statement
+     * @param entity The entity
+     * @return The SELECT statement
+     * @since 1.0.1
+     */
+    public @NonNull String buildSelectForDelete(@NonNull String statement, @NonNull PersistentEntity entity) {
+        ArgumentUtils.requireNonNull("statement", statement);
+        ArgumentUtils.requireNonNull("entity", entity);
+        int i = statement.toUpperCase(Locale.ENGLISH).indexOf(FROM_CLAUSE);
+        if (!isDeleteStatement(statement) || i < 0) {
+            throw new IllegalArgumentException("Not a DELETE statement: " + statement);
+        }
+        return SELECT_CLAUSE + selectAllColumns(entity, getTableName(entity)) + statement.substring(i) + buildLock(Lock.Mode.WRITE, Lock.Wait.DEFAULT);
+    }
+
+    private String getReturningTableName(String statement, PersistentEntity entity) {
+        if (dialect == Dialect.POSTGRES) {
+            return getTableName(entity);
+        } else {
+            return isDeleteStatement(statement) ? "DELETED" : "INSERTED";
+        }
+    }
+
+    private boolean isDeleteStatement(String statement) {
+        return statement.regionMatches(true, 0, DELETE_CLAUSE, 0, DELETE_CLAUSE.length());
+    }
+
+    private String addReturningClause(String statement, String columns) {
+        if (dialect == Dialect.POSTGRES) {
+            return statement + " RETURNING " + columns;
+        } else {
+            String output = " OUTPUT " + columns;
+            int i = statement.startsWith(INSERT_INTO) ? statement.indexOf(") VALUES (") + 1 : statement.indexOf(WHERE_CLAUSE);
+            if (i > 0) {
+                return statement.substring(0, i) + output + statement.substring(i);
+            } else {
+                return statement + output;
+            }
+        }
+    }
+
     private String resolveSequenceName(PersistentProperty identity, String unescapedTableName) {
         return identity.getAnnotationMetadata().stringValue(GeneratedValue.class, "ref")
                                     .orElseGet(() -> unescapedTableName + SEQ_SUFFIX);
@@ -840,6 +1125,135 @@ public class SqlQueryBuilder extends AbstractSqlLikeQueryBuilder implements Quer
         }
     }
 
+    /**
+     * Builds a pagination clause that binds the limit and the offset as statement parameters instead of
+     * literals, hence the clause is the same for every page. The parameters are bound in the order
+     * given by {@link #isLimitBeforeOffset()}.
+     *
+     * @return The pagination clause
+     */
+    public @NonNull String buildParameterizedPagination() {
+        if (isLimitBeforeOffset()) {
+            return " LIMIT ? OFFSET ?";
+        } else {
+            return " OFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
+        }
+    }
+
+    /**
+     * @return Whether the limit parameter of the {@link #buildParameterizedPagination() pagination clause} is bound before the offset
+     */
+    public boolean isLimitBeforeOffset() {
+        switch (dialect) {
+            case H2:
+            case MYSQL:
+            case POSTGRES:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Renders the paged form of the given query, with the {@link #buildParameterizedPagination() pagination clause} appended.
+     * For {@link Dialect#SQL_SERVER}, which only supports pagination of ordered results, a query that is not ordered
+     * is ordered by the identity of the entity.
+     *
+     * @param entity The entity
+     * @param query The query
+     * @return The paged query
+     * @throws IllegalArgumentException If the query cannot be paged
+     */
+    public @NonNull String buildPagedQuery(@NonNull PersistentEntity entity, @NonNull String query) {
+        ArgumentUtils.requireNonNull("entity", entity);
+        ArgumentUtils.requireNonNull("query", query);
+        StringBuilder pagedQuery = new StringBuilder(query);
+        if (dialect == Dialect.SQL_SERVER && !query.contains(ORDER_BY_CLAUSE)) {
+            PersistentProperty identity = entity.getIdentity();
+            if (identity == null) {
+                throw new IllegalArgumentException("Pagination requires an entity ID on SQL Server");
+            }
+            pagedQuery.append(buildOrderBy(entity, Sort.of(Sort.Order.asc(identity.getName()))).getQuery());
+        }
+        return pagedQuery.append(buildParameterizedPagination()).toString();
+    }
+
+    /**
+     * Whether the row locking clause of {@link #buildLock(Lock.Mode, Lock.Wait)} can be combined with pagination.
+     * Oracle rejects {@code FOR UPDATE} after {@code FETCH FIRST} with ORA-02014.
+     *
+     * @return True if it can
+     */
+    public boolean supportsLockWithPagination() {
+        return dialect != Dialect.ORACLE;
+    }
+
+    /**
+     * Builds the row locking clause to append to the end of a query, after any ordering or pagination.
+     * For {@link Dialect#SQL_SERVER} locking is instead expressed as a table hint and this method returns an empty string.
+     *
+     * @param mode The lock mode
+     * @param wait The wait behaviour
+     * @return The locking clause, never null
+     */
+    public @NonNull String buildLock(@NonNull Lock.Mode mode, @NonNull Lock.Wait wait) {
+        ArgumentUtils.requireNonNull("mode", mode);
+        ArgumentUtils.requireNonNull("wait", wait);
+        StringBuilder builder = new StringBuilder();
+        switch (dialect) {
+            case SQL_SERVER:
+                return "";
+            case H2:
+                // H2 supports neither shared row locks nor the wait options
+                return " FOR UPDATE";
+            case ORACLE:
+                // Oracle has no shared row lock clause
+                builder.append(" FOR UPDATE");
+                break;
+            case MYSQL:
+            case POSTGRES:
+            case ANSI:
+            default:
+                builder.append(mode == Lock.Mode.READ ? " FOR SHARE" : " FOR UPDATE");
+                break;
+        }
+        switch (wait) {
+            case NOWAIT:
+                builder.append(" NOWAIT");
+                break;
+            case SKIP_LOCKED:
+                builder.append(" SKIP LOCKED");
+                break;
+            case DEFAULT:
+            default:
+                break;
+        }
+        return builder.toString();
+    }
+
+    @Override
+    protected void appendTableLockHint(@NonNull AnnotationMetadata annotationMetadata, @NonNull StringBuilder queryString) {
+        if (dialect == Dialect.SQL_SERVER && annotationMetadata.hasAnnotation(Lock.class)) {
+            Lock.Mode mode = annotationMetadata.enumValue(Lock.class, Lock.Mode.class).orElse(Lock.Mode.WRITE);
+            Lock.Wait wait = annotationMetadata.enumValue(Lock.class, "wait", Lock.Wait.class).orElse(Lock.Wait.DEFAULT);
+            queryString.append(" WITH (")
+                    .append(mode == Lock.Mode.READ ? "HOLDLOCK" : "UPDLOCK")
+                    .append(", ROWLOCK");
+            switch (wait) {
+                case NOWAIT:
+                    queryString.append(", NOWAIT");
+                    break;
+                case SKIP_LOCKED:
+                    queryString.append(", READPAST");
+                    break;
+                case DEFAULT:
+                default:
+                    break;
+            }
+            queryString.append(CLOSE_BRACKET);
+        }
+    }
+
     @Override
     protected void encodeInExpression(StringBuilder whereClause, Placeholder placeholder) {
         whereClause
@@ -35,6 +35,16 @@ public class Projections {
         return ID_PROJECTION;
     }
 
+    /**
+     * Projection that selects a constant value for each record.
+     * @param value The numeric value
+     * @return The LiteralProjection instance
+     * @since 1.0.1
+     */
+    public static QueryModel.LiteralProjection literal(Number value) {
+        return new QueryModel.LiteralProjection(value);
+    }
+
     /**
      * Projection that returns the number of records from the query.
      * instead of the results themselves
@@ -153,6 +153,24 @@ public interface RepositoryOperations {
      */
     @NonNull <T> Iterable<T> persistAll(@NonNull BatchOperation<T> operation);
 
+    /**
+     * Inserts the entity of the given operation or updates it if it already exists, using a single statement where possible.
+     * @param operation The operation
+     * @param <T> The generic type
+     * @return The entity, possibly mutated
+     * @since 1.0.1
+     */
+    @NonNull <T> T upsert(@NonNull InsertOperation<T> operation);
+
+    /**
+     * Inserts or updates all the given entities.
+     * @param operation The operation
+     * @param <T> The generic type
+     * @return The entities, possibly mutated
+     * @since 1.0.1
+     */
+    @NonNull <T> Iterable<T> upsertAll(@NonNull BatchOperation<T> operation);
+
     /**
      * Executes an update for the given query and parameter values. If it is possible to
      * return the number of objects updated, then do so.
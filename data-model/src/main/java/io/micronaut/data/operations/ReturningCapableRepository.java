@@ -0,0 +1,38 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.data.operations;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.micronaut.data.model.runtime.PreparedQuery;
+
+/**
+ * A {@link RepositoryOperations} capable of returning the entities affected by an update or delete.
+ *
+ * @author graemerocher
+ * @since 1.0.1
+ */
+public interface ReturningCapableRepository extends RepositoryOperations {
+
+    /**
+     * Executes an update or delete for the given query and parameter values and returns the affected
+     * entities, as they are after the update or as they were before the delete.
+     * @param preparedQuery The prepared query
+     * @param <T> The entity type
+     * @param <R> The result type
+     * @return The affected entities
+     */
+    @NonNull <T, R> Iterable<R> executeReturning(@NonNull PreparedQuery<T, R> preparedQuery);
+}
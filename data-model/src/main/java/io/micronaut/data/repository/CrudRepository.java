@@ -68,6 +68,32 @@ public interface CrudRepository<E, ID> extends GenericRepository<E, ID> {
     @NonNull
     <S extends E> Iterable<S> saveAll(@Valid @NotNull @NonNull Iterable<S> entities);
 
+    /**
+     * Inserts the given entity or, if an entity with the same id already exists, updates it. Where supported this is
+     * performed with a single statement (for example {@code INSERT ... ON CONFLICT} or {@code MERGE}) avoiding a separate
+     * existence check. An entity without an assigned id is always inserted.
+     *
+     * @param entity The entity to save. Must not be {@literal null}.
+     * @return The saved entity will never be {@literal null}.
+     * @throws javax.validation.ConstraintViolationException if the entity is {@literal null} or invalid.
+     * @param <S> The generic type
+     * @since 1.0.1
+     */
+    @NonNull
+    <S extends E> S upsert(@Valid @NotNull @NonNull S entity);
+
+    /**
+     * Inserts or updates all given entities. See {@link #upsert(Object)}.
+     *
+     * @param entities The entities to save. Must not be {@literal null}.
+     * @param <S> The generic type
+     * @return The saved entities objects. will never be {@literal null}.
+     * @throws javax.validation.ConstraintViolationException if the entities are {@literal null}.
+     * @since 1.0.1
+     */
+    @NonNull
+    <S extends E> Iterable<S> upsertAll(@Valid @NotNull @NonNull Iterable<S> entities);
+
     /**
      * Retrieves an entity by its id.
      *
@@ -52,7 +52,7 @@ public class MappedEntityVisitor implements TypeElementVisitor<MappedEntity, Obj
      */
     public static final int POSITION = 100;
 
-    private Map<String, SourcePersistentEntity> entityMap = new HashMap<>(50);
+    private final Map<String, SourcePersistentEntity> entityMap = new HashMap<>(50);
     private final Function<ClassElement, SourcePersistentEntity> entityResolver = new Function<ClassElement, SourcePersistentEntity>() {
         @Override
         public SourcePersistentEntity apply(ClassElement classElement) {
@@ -81,6 +81,12 @@ public class MappedEntityVisitor implements TypeElementVisitor<MappedEntity, Obj
         return POSITION;
     }
 
+    @Override
+    public void finish(VisitorContext visitorContext) {
+        // the entity models only apply to the current compilation
+        entityMap.clear();
+    }
+
     @Override
     public void visitClass(ClassElement element, VisitorContext context) {
         NamingStrategy namingStrategy = resolveNamingStrategy(element);
@@ -30,6 +30,7 @@ import io.micronaut.data.model.query.QueryModel;
 import io.micronaut.data.model.Sort;
 import io.micronaut.data.model.query.builder.QueryResult;
 import io.micronaut.data.model.query.builder.QueryBuilder;
+import io.micronaut.data.model.query.builder.sql.SqlQueryBuilder;
 import io.micronaut.data.processor.model.SourcePersistentEntity;
 import io.micronaut.data.processor.model.SourcePersistentProperty;
 import io.micronaut.data.processor.visitors.finders.*;
@@ -64,16 +65,18 @@ import java.util.stream.Collectors;
 public class RepositoryTypeElementVisitor implements TypeElementVisitor<Repository, Object> {
 
     public static final String SPRING_REPO = "org.springframework.data.repository.Repository";
+    private static final String STATELESS_ANNOTATION = "io.micronaut.data.jpa.annotation.Stateless";
 
     private ClassElement currentClass;
     private ClassElement currentRepository;
     private QueryBuilder queryEncoder;
-    private Map<String, String> typeRoles = new HashMap<>();
+    private final Map<String, String> defaultTypeRoles = new HashMap<>(4);
+    private Map<String, String> typeRoles = Collections.emptyMap();
     private List<MethodCandidate> finders;
     private boolean failing = false;
-    private Set<String> visitedRepositories = new HashSet<>();
+    private final Set<String> visitedRepositories = new HashSet<>();
     private Map<String, DataType> dataTypes = Collections.emptyMap();
-    private Map<String, SourcePersistentEntity> entityMap = new HashMap<>(50);
+    private final Map<String, SourcePersistentEntity> entityMap = new HashMap<>(50);
     private final Function<ClassElement, SourcePersistentEntity> entityResolver = new Function<ClassElement, SourcePersistentEntity>() {
         @Override
         public SourcePersistentEntity apply(ClassElement classElement) {
@@ -85,10 +88,10 @@ public class RepositoryTypeElementVisitor implements TypeElementVisitor<Reposito
      * Default constructor.
      */
     public RepositoryTypeElementVisitor() {
-        typeRoles.put(Pageable.class.getName(), TypeRole.PAGEABLE);
-        typeRoles.put(Sort.class.getName(), TypeRole.SORT);
-        typeRoles.put(Page.class.getName(), TypeRole.PAGE);
-        typeRoles.put(Slice.class.getName(), TypeRole.SLICE);
+        defaultTypeRoles.put(Pageable.class.getName(), TypeRole.PAGEABLE);
+        defaultTypeRoles.put(Sort.class.getName(), TypeRole.SORT);
+        defaultTypeRoles.put(Page.class.getName(), TypeRole.PAGE);
+        defaultTypeRoles.put(Slice.class.getName(), TypeRole.SLICE);
     }
 
     @Override
@@ -98,6 +101,16 @@ public class RepositoryTypeElementVisitor implements TypeElementVisitor<Reposito
         }
     }
 
+    @Override
+    public void finish(VisitorContext visitorContext) {
+        // the visited repositories and entity models only apply to the current compilation
+        visitedRepositories.clear();
+        entityMap.clear();
+        currentRepository = null;
+        currentClass = null;
+        failing = false;
+    }
+
     @Override
     public void visitClass(ClassElement element, VisitorContext context) {
         String interfaceName = element.getName();
@@ -115,6 +128,9 @@ public class RepositoryTypeElementVisitor implements TypeElementVisitor<Reposito
         if (element.hasDeclaredStereotype(Repository.class)) {
             visitedRepositories.add(interfaceName);
             currentRepository = element;
+            // the roles only depend on the repository being visited, so that the outcome
+            // is the same whether or not other repositories are part of the compilation
+            typeRoles = new HashMap<>(defaultTypeRoles);
             queryEncoder = QueryBuilder.newQueryBuilder(element.getAnnotationMetadata());
             this.dataTypes = MappedEntityVisitor.getConfiguredDataTypes(currentRepository);
             AnnotationMetadata annotationMetadata = element.getAnnotationMetadata();
@@ -221,6 +237,8 @@ public class RepositoryTypeElementVisitor implements TypeElementVisitor<Reposito
                     }
                     if (methodInfo != null) {
 
+                        warnStatelessWrite(element, methodInfo, context);
+
                         // populate parameter roles
                         for (Map.Entry<String, Element> entry : methodMatchContext.getParametersInRole().entrySet()) {
                             methodInfo.addParameterRole(
@@ -239,6 +257,12 @@ public class RepositoryTypeElementVisitor implements TypeElementVisitor<Reposito
                         boolean encodeEntityParameters = false;
                         boolean supportsImplicitQueries = matchContext.supportsImplicitQueries();
                         if (queryObject != null) {
+                            String lockError = validateLock(methodMatchContext, methodInfo);
+                            if (lockError != null) {
+                                methodMatchContext.fail(lockError);
+                                this.failing = true;
+                                return;
+                            }
                             if (queryObject instanceof RawQuery) {
                                 RawQuery rawQuery = (RawQuery) queryObject;
 
@@ -341,6 +365,12 @@ public class RepositoryTypeElementVisitor implements TypeElementVisitor<Reposito
                                             annotationBuilder.value(encodedQuery.getQuery())
                                     );
                                 }
+                                String pagedQuery = buildPagedQuery(methodMatchContext, methodInfo, encodedQuery);
+                                if (pagedQuery != null) {
+                                    element.annotate(io.micronaut.data.annotation.Query.class, annotationBuilder ->
+                                            annotationBuilder.member(DataMethod.META_MEMBER_PAGED_QUERY, pagedQuery)
+                                    );
+                                }
                             }
                         }
 
@@ -467,6 +497,79 @@ public class RepositoryTypeElementVisitor implements TypeElementVisitor<Reposito
         }
     }
 
+    /**
+     * Pre-renders the paged form of the SQL query of a method that can be paged, so that the runtime only has to
+     * bind the limit and offset.
+     *
+     * @param matchContext The match context
+     * @param methodInfo The method info
+     * @param encodedQuery The encoded query
+     * @return The paged query or null if the query is not paged
+     */
+    private @Nullable String buildPagedQuery(MethodMatchContext matchContext, MethodMatchInfo methodInfo, QueryResult encodedQuery) {
+        if (!(queryEncoder instanceof SqlQueryBuilder) || methodInfo.getOperationType() != MethodMatchInfo.OperationType.QUERY) {
+            return null;
+        }
+        if (!isPaged(matchContext, methodInfo)) {
+            return null;
+        }
+        try {
+            return ((SqlQueryBuilder) queryEncoder).buildPagedQuery(matchContext.getRootEntity(), encodedQuery.getQuery());
+        } catch (IllegalArgumentException e) {
+            // left to the runtime, which reports the error once the query is paged
+            return null;
+        }
+    }
+
+    /**
+     * Validates the use of {@link Lock} on the given method.
+     *
+     * @param matchContext The match context
+     * @param methodInfo The method info
+     * @return The error message or null if the method is valid
+     */
+    private @Nullable String validateLock(MethodMatchContext matchContext, MethodMatchInfo methodInfo) {
+        AnnotationMetadata annotationMetadata = new AnnotationMetadataHierarchy(
+                currentRepository.getAnnotationMetadata(),
+                matchContext.getAnnotationMetadata()
+        );
+        if (!annotationMetadata.hasAnnotation(Lock.class)) {
+            return null;
+        }
+        if (!(queryEncoder instanceof SqlQueryBuilder)) {
+            return "@Lock is only supported by repositories that use SQL queries";
+        }
+        if (methodInfo.getOperationType() != MethodMatchInfo.OperationType.QUERY) {
+            return "@Lock can only be applied to query methods, not " + methodInfo.getOperationType().name().toLowerCase(Locale.ENGLISH) + " methods";
+        }
+        if (!((SqlQueryBuilder) queryEncoder).supportsLockWithPagination() && isPaged(matchContext, methodInfo)) {
+            return "@Lock cannot be applied to paged query methods for the configured dialect";
+        }
+        return null;
+    }
+
+    /**
+     * Warns when an insert or update method is executed statelessly, since a stateless session silently skips
+     * the cascades and lifecycle callbacks of the entity.
+     *
+     * @param element The method
+     * @param methodInfo The method info
+     * @param context The visitor context
+     */
+    private void warnStatelessWrite(MethodElement element, MethodMatchInfo methodInfo, VisitorContext context) {
+        MethodMatchInfo.OperationType operationType = methodInfo.getOperationType();
+        boolean write = operationType == MethodMatchInfo.OperationType.INSERT || operationType == MethodMatchInfo.OperationType.UPDATE;
+        if (write && element.hasAnnotation(STATELESS_ANNOTATION)) {
+            context.warn("Method [" + element.getName() + "] of repository [" + currentRepository.getName() + "] is annotated with @Stateless: "
+                    + "associations are not cascaded and entity lifecycle callbacks such as @PrePersist and @PreUpdate are not invoked", element);
+        }
+    }
+
+    private boolean isPaged(MethodMatchContext matchContext, MethodMatchInfo methodInfo) {
+        QueryModel query = methodInfo.getQuery();
+        return matchContext.getParametersInRole().containsKey(TypeRole.PAGEABLE) || (query != null && query.getMax() > -1);
+    }
+
     private void parameterBindingToIndex(
             AnnotationValueBuilder<DataMethod> annotationBuilder,
             ParameterElement[] parameters,
@@ -625,6 +728,8 @@ public class RepositoryTypeElementVisitor implements TypeElementVisitor<Reposito
                 new SaveEntityMethod(),
                 new SaveOneMethod(),
                 new SaveAllMethod(),
+                new UpsertEntityMethod(),
+                new UpsertAllMethod(),
                 new ListMethod(),
                 new CountMethod(),
                 new DeleteByMethod(),
@@ -633,6 +738,8 @@ public class RepositoryTypeElementVisitor implements TypeElementVisitor<Reposito
                 new UpdateMethod(),
                 new UpdateEntityMethod(),
                 new UpdateByMethod(),
+                new DeleteReturningMethod(),
+                new UpdateReturningMethod(),
                 new ListSliceMethod(),
                 new FindSliceByMethod(),
                 new ListSliceMethod(),
@@ -19,6 +19,7 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import io.micronaut.core.util.StringUtils;
 import io.micronaut.data.annotation.Query;
+import io.micronaut.data.intercept.DataInterceptor;
 import io.micronaut.data.model.query.QueryModel;
 import io.micronaut.data.processor.visitors.MatchContext;
 import io.micronaut.data.processor.visitors.MethodMatchContext;
@@ -26,6 +27,7 @@ import io.micronaut.inject.ast.ClassElement;
 import io.micronaut.inject.ast.MethodElement;
 
 import java.util.Locale;
+import java.util.regex.Pattern;
 
 /**
  * Dynamic finder for support for delete operations.
@@ -44,9 +46,35 @@ public class DeleteByMethod extends DynamicFinder {
         super(PREFIXES);
     }
 
+    /**
+     * A custom pattern.
+     * @param pattern The pattern
+     */
+    protected DeleteByMethod(Pattern pattern) {
+        super(pattern, OPERATORS);
+    }
+
     @Override
     public boolean isMethodMatch(MethodElement methodElement, MatchContext matchContext) {
-        return super.isMethodMatch(methodElement, matchContext) && TypeUtils.isValidBatchUpdateReturnType(methodElement); // void return
+        return super.isMethodMatch(methodElement, matchContext) && isValidReturnType(methodElement);
+    }
+
+    /**
+     * Whether the return type of the method is supported.
+     * @param methodElement The method element
+     * @return True if it is
+     */
+    protected boolean isValidReturnType(@NonNull MethodElement methodElement) {
+        return TypeUtils.isValidBatchUpdateReturnType(methodElement); // void return
+    }
+
+    /**
+     * Picks the runtime interceptor for the method.
+     * @param matchContext The match context
+     * @return The interceptor type
+     */
+    protected @NonNull Class<? extends DataInterceptor> pickInterceptor(@NonNull MethodMatchContext matchContext) {
+        return DeleteMethod.pickDeleteAllInterceptor(matchContext.getReturnType());
     }
 
     @Override
@@ -69,7 +97,7 @@ public class DeleteByMethod extends DynamicFinder {
             return new MethodMatchInfo(
                     null,
                     query,
-                    getInterceptorElement(matchContext, DeleteMethod.pickDeleteAllInterceptor(matchContext.getReturnType())),
+                    getInterceptorElement(matchContext, pickInterceptor(matchContext)),
                     MethodMatchInfo.OperationType.DELETE
             );
         }
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.data.processor.visitors.finders;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micronaut.core.annotation.AnnotationClassValue;
+import io.micronaut.data.annotation.RepositoryConfiguration;
+import io.micronaut.data.intercept.DataInterceptor;
+import io.micronaut.data.intercept.ExecuteReturningInterceptor;
+import io.micronaut.data.model.query.QueryModel;
+import io.micronaut.data.model.query.builder.sql.SqlQueryBuilder;
+import io.micronaut.data.operations.PrimaryRepositoryOperations;
+import io.micronaut.data.operations.RepositoryOperations;
+import io.micronaut.data.operations.ReturningCapableRepository;
+import io.micronaut.data.processor.visitors.MethodMatchContext;
+import io.micronaut.inject.ast.ClassElement;
+import io.micronaut.inject.ast.MethodElement;
+
+import java.util.regex.Pattern;
+
+/**
+ * Dynamic finder for delete operations that return the deleted entities, for example
+ * {@code List<Book> deleteByTitleReturning(String title)}.
+ *
+ * @author graemerocher
+ * @since 1.0.1
+ */
+public class DeleteReturningMethod extends DeleteByMethod {
+
+    /**
+     * The suffix of methods that return the affected entities.
+     */
+    public static final String RETURNING_SUFFIX = "Returning";
+
+    /**
+     * Default constructor.
+     */
+    public DeleteReturningMethod() {
+        super(compileReturningPattern(PREFIXES));
+    }
+
+    @Override
+    protected boolean isValidReturnType(@NonNull MethodElement methodElement) {
+        return TypeUtils.isIterableOfEntity(methodElement.getGenericReturnType());
+    }
+
+    @NonNull
+    @Override
+    protected Class<? extends DataInterceptor> pickInterceptor(@NonNull MethodMatchContext matchContext) {
+        return ExecuteReturningInterceptor.class;
+    }
+
+    @Nullable
+    @Override
+    protected MethodMatchInfo buildInfo(
+            MethodMatchContext matchContext, ClassElement queryResultType, @Nullable QueryModel query) {
+        if (query == null) {
+            matchContext.fail("Unable to implement delete method with no query arguments");
+            return null;
+        }
+        if (!(matchContext.getQueryBuilder() instanceof SqlQueryBuilder)) {
+            matchContext.fail("Returning the deleted entities is only supported by repositories that use SQL queries");
+            return null;
+        }
+        if (!isSupportedByOperations(matchContext)) {
+            return null;
+        }
+        return new MethodMatchInfo(
+                queryResultType,
+                query,
+                getInterceptorElement(matchContext, pickInterceptor(matchContext)),
+                MethodMatchInfo.OperationType.DELETE
+        );
+    }
+
+    /**
+     * Checks that the operations configured for the repository can return the affected entities, failing the match otherwise.
+     * If no specific operations are configured they are resolved at runtime and checked then.
+     * @param matchContext The match context
+     * @return Whether returning the affected entities is supported
+     */
+    static boolean isSupportedByOperations(MethodMatchContext matchContext) {
+        String operations = matchContext.getRepositoryClass().getAnnotationMetadata()
+                .findAnnotation(RepositoryConfiguration.class)
+                .flatMap(av -> av.get("operations", AnnotationClassValue.class))
+                .map(AnnotationClassValue::getName)
+                .orElse(null);
+        if (operations == null || operations.equals(RepositoryOperations.class.getName()) || operations.equals(PrimaryRepositoryOperations.class.getName())) {
+            return true;
+        }
+        boolean supported = matchContext.getVisitorContext().getClassElement(operations)
+                .map(ce -> ce.isAssignable(ReturningCapableRepository.class.getName()))
+                .orElse(true);
+        if (!supported) {
+            matchContext.fail("Returning the affected entities is not supported by the repository operations: " + operations);
+        }
+        return supported;
+    }
+
+    /**
+     * Compiles a finder pattern for the given prefixes that requires the {@link #RETURNING_SUFFIX} and excludes it from the query sequence.
+     * @param prefixes The prefixes
+     * @return The pattern
+     */
+    static Pattern compileReturningPattern(String... prefixes) {
+        return Pattern.compile("((" + String.join("|", prefixes) + ")([\\w\\d]*?)By)([A-Z]\\w*?)" + RETURNING_SUFFIX + "$");
+    }
+}
@@ -22,6 +22,7 @@ import io.micronaut.data.intercept.DataInterceptor;
 import io.micronaut.data.intercept.async.ExistsByAsyncInterceptor;
 import io.micronaut.data.intercept.reactive.ExistsByReactiveInterceptor;
 import io.micronaut.data.model.query.QueryModel;
+import io.micronaut.data.model.query.factory.Projections;
 import io.micronaut.data.processor.visitors.MatchContext;
 import io.micronaut.data.processor.visitors.MethodMatchContext;
 import io.micronaut.inject.ast.ClassElement;
@@ -75,7 +76,8 @@ public class ExistsByFinder extends DynamicFinder {
             query = matchContext.supportsImplicitQueries() ? query : QueryModel.from(matchContext.getRootEntity());
         }
         if (query != null) {
-            query.projections().id();
+            // select a constant rather than the identity since the result is never read
+            query.projections().add(Projections.literal(1));
         }
         return new MethodMatchInfo(
                 returnType,
@@ -21,6 +21,7 @@ import io.micronaut.core.util.CollectionUtils;
 import io.micronaut.core.util.StringUtils;
 import io.micronaut.data.annotation.Query;
 import io.micronaut.data.annotation.TypeRole;
+import io.micronaut.data.intercept.DataInterceptor;
 import io.micronaut.data.model.query.QueryModel;
 import io.micronaut.data.model.query.QueryParameter;
 import io.micronaut.data.processor.model.SourcePersistentEntity;
@@ -30,6 +31,7 @@ import io.micronaut.inject.ast.*;
 
 import edu.umd.cs.findbugs.annotations.Nullable;
 import java.util.*;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
@@ -47,9 +49,35 @@ public class UpdateByMethod extends DynamicFinder {
         super("update");
     }
 
+    /**
+     * A custom pattern.
+     * @param pattern The pattern
+     */
+    protected UpdateByMethod(Pattern pattern) {
+        super(pattern, OPERATORS);
+    }
+
     @Override
     public boolean isMethodMatch(MethodElement methodElement, MatchContext matchContext) {
-        return super.isMethodMatch(methodElement, matchContext) && TypeUtils.isValidBatchUpdateReturnType(methodElement);
+        return super.isMethodMatch(methodElement, matchContext) && isValidReturnType(methodElement);
+    }
+
+    /**
+     * Whether the return type of the method is supported.
+     * @param methodElement The method element
+     * @return True if it is
+     */
+    protected boolean isValidReturnType(@NonNull MethodElement methodElement) {
+        return TypeUtils.isValidBatchUpdateReturnType(methodElement);
+    }
+
+    /**
+     * Picks the runtime interceptor for the method.
+     * @param matchContext The match context
+     * @return The interceptor type
+     */
+    protected @NonNull Class<? extends DataInterceptor> pickInterceptor(@NonNull MethodMatchContext matchContext) {
+        return UpdateMethod.pickUpdateInterceptor(matchContext.getReturnType());
     }
 
     @Override
@@ -122,7 +150,7 @@ public class UpdateByMethod extends DynamicFinder {
         return new MethodMatchInfo(
                 queryResultType,
                 query,
-                getInterceptorElement(matchContext, UpdateMethod.pickUpdateInterceptor(matchContext.getReturnType())),
+                getInterceptorElement(matchContext, pickInterceptor(matchContext)),
                 MethodMatchInfo.OperationType.UPDATE,
                 updateProperties
         );
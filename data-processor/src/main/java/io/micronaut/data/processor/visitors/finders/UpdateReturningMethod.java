@@ -0,0 +1,73 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.data.processor.visitors.finders;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micronaut.data.intercept.DataInterceptor;
+import io.micronaut.data.intercept.ExecuteReturningInterceptor;
+import io.micronaut.data.model.query.QueryModel;
+import io.micronaut.data.model.query.builder.QueryBuilder;
+import io.micronaut.data.model.query.builder.sql.SqlQueryBuilder;
+import io.micronaut.data.processor.visitors.MethodMatchContext;
+import io.micronaut.inject.ast.ClassElement;
+import io.micronaut.inject.ast.MethodElement;
+
+/**
+ * Support for finder based updates that return the updated entities, for example
+ * {@code List<Book> updateByTitleReturning(String title, int pages)}.
+ *
+ * @author graemerocher
+ * @since 1.0.1
+ */
+public class UpdateReturningMethod extends UpdateByMethod {
+
+    /**
+     * Default constructor.
+     */
+    public UpdateReturningMethod() {
+        super(DeleteReturningMethod.compileReturningPattern("update"));
+    }
+
+    @Override
+    protected boolean isValidReturnType(@NonNull MethodElement methodElement) {
+        return TypeUtils.isIterableOfEntity(methodElement.getGenericReturnType());
+    }
+
+    @NonNull
+    @Override
+    protected Class<? extends DataInterceptor> pickInterceptor(@NonNull MethodMatchContext matchContext) {
+        return ExecuteReturningInterceptor.class;
+    }
+
+    @Nullable
+    @Override
+    protected MethodMatchInfo buildInfo(
+            MethodMatchContext matchContext,
+            @NonNull ClassElement queryResultType,
+            @Nullable QueryModel query) {
+        // unlike deletes, the updated rows cannot be selected beforehand since they change
+        final QueryBuilder queryBuilder = matchContext.getQueryBuilder();
+        if (!(queryBuilder instanceof SqlQueryBuilder) || !((SqlQueryBuilder) queryBuilder).supportsReturning()) {
+            matchContext.fail("Returning the updated entities is not supported by the configured dialect. Use the POSTGRES or SQL_SERVER dialect or query the entities separately");
+            return null;
+        }
+        if (!DeleteReturningMethod.isSupportedByOperations(matchContext)) {
+            return null;
+        }
+        return super.buildInfo(matchContext, queryResultType, query);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.data.processor.visitors.finders;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micronaut.data.intercept.UpsertAllInterceptor;
+import io.micronaut.data.model.query.QueryModel;
+import io.micronaut.data.processor.visitors.MatchContext;
+import io.micronaut.data.processor.visitors.MethodMatchContext;
+import io.micronaut.inject.ast.MethodElement;
+import io.micronaut.inject.ast.ParameterElement;
+
+import java.util.regex.Pattern;
+
+/**
+ * An upsert method for inserting or updating several entities.
+ *
+ * @author graemerocher
+ * @since 1.0.1
+ */
+public class UpsertAllMethod extends AbstractPatternBasedMethod {
+
+    private static final String METHOD_PATTERN = "^(upsert(\\S*?))$";
+
+    /**
+     * Default constructor.
+     */
+    public UpsertAllMethod() {
+        super(Pattern.compile(METHOD_PATTERN));
+    }
+
+    @Override
+    public boolean isMethodMatch(MethodElement methodElement, MatchContext matchContext) {
+        ParameterElement[] parameters = methodElement.getParameters();
+        if (parameters.length == 1 && super.isMethodMatch(methodElement, matchContext)) {
+            return !TypeUtils.isReactiveOrFuture(matchContext.getReturnType()) &&
+                    TypeUtils.isIterableOfEntity(parameters[0].getGenericType());
+        }
+        return false;
+    }
+
+    @Nullable
+    @Override
+    public MethodMatchInfo buildMatchInfo(@NonNull MethodMatchContext matchContext) {
+        if (matchContext.supportsImplicitQueries()) {
+            return new MethodMatchInfo(
+                    null,
+                    null,
+                    getInterceptorElement(matchContext, UpsertAllInterceptor.class),
+                    MethodMatchInfo.OperationType.INSERT
+            );
+        } else {
+            return new MethodMatchInfo(
+                    null,
+                    QueryModel.from(matchContext.getRootEntity()),
+                    getInterceptorElement(matchContext, UpsertAllInterceptor.class),
+                    MethodMatchInfo.OperationType.INSERT
+            );
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.data.processor.visitors.finders;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micronaut.core.util.ArrayUtils;
+import io.micronaut.data.annotation.MappedEntity;
+import io.micronaut.data.intercept.UpsertEntityInterceptor;
+import io.micronaut.data.model.query.QueryModel;
+import io.micronaut.data.processor.visitors.MatchContext;
+import io.micronaut.data.processor.visitors.MethodMatchContext;
+import io.micronaut.inject.ast.ClassElement;
+import io.micronaut.inject.ast.MethodElement;
+import io.micronaut.inject.ast.ParameterElement;
+
+import java.util.regex.Pattern;
+
+/**
+ * An upsert method for inserting or updating a single entity.
+ *
+ * @author graemerocher
+ * @since 1.0.1
+ */
+public class UpsertEntityMethod extends AbstractPatternBasedMethod implements MethodCandidate {
+
+    public static final Pattern METHOD_PATTERN = Pattern.compile("^(upsert(\\S*?))$");
+
+    /**
+     * The default constructor.
+     */
+    public UpsertEntityMethod() {
+        super(METHOD_PATTERN);
+    }
+
+    @Override
+    public boolean isMethodMatch(MethodElement methodElement, MatchContext matchContext) {
+        ParameterElement[] parameters = matchContext.getParameters();
+        return parameters.length == 1 &&
+                super.isMethodMatch(methodElement, matchContext) &&
+                !TypeUtils.isReactiveOrFuture(matchContext.getReturnType()) &&
+                SaveEntityMethod.isValidSaveReturnType(matchContext, false);
+    }
+
+    @Nullable
+    @Override
+    public MethodMatchInfo buildMatchInfo(@NonNull MethodMatchContext matchContext) {
+        ParameterElement[] parameters = matchContext.getParameters();
+        if (ArrayUtils.isNotEmpty(parameters) && parameters[0].getGenericType().hasAnnotation(MappedEntity.class)) {
+            ClassElement returnType = matchContext.getReturnType();
+            if (matchContext.supportsImplicitQueries()) {
+                return new MethodMatchInfo(
+                        returnType,
+                        null,
+                        getInterceptorElement(matchContext, UpsertEntityInterceptor.class),
+                        MethodMatchInfo.OperationType.INSERT
+                );
+            } else {
+                return new MethodMatchInfo(
+                        returnType,
+                        QueryModel.from(matchContext.getRootEntity()),
+                        getInterceptorElement(matchContext, UpsertEntityInterceptor.class),
+                        MethodMatchInfo.OperationType.INSERT
+                );
+            }
+        }
+        matchContext.getVisitorContext().fail(
+                "Cannot implement upsert method for specified arguments and return type",
+                matchContext.getMethodElement()
+        );
+        return null;
+    }
+}
@@ -52,6 +52,18 @@ class JpaQueryBuilderSpec extends Specification {
         Person | 'desc'    | ["name", "age"] | 'person_.name DESC,person_.age DESC'
     }
 
+    void "test encode order by ignoring case"() {
+        given:
+        PersistentEntity entity = new RuntimePersistentEntity(Person)
+        Sort sort = Sort.of(Sort.Order.asc("name", true), Sort.Order.desc("age"))
+
+        when:
+        QueryResult encodedQuery = new JpaQueryBuilder().buildOrderBy(entity, sort)
+
+        then:
+        encodedQuery.query == ' ORDER BY lower(person_.name) ASC,person_.age DESC'
+    }
+
     @Unroll
     void "test encode query #statement - order by"() {
         given:
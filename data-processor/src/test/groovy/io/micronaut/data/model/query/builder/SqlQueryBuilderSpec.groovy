@@ -17,7 +17,9 @@ package io.micronaut.data.model.query.builder
 
 import io.micronaut.core.annotation.AnnotationMetadata
 import io.micronaut.data.annotation.Join
+import io.micronaut.data.annotation.Lock
 import io.micronaut.data.model.Association
+import io.micronaut.data.model.DataType
 import io.micronaut.data.model.PersistentEntity
 import io.micronaut.data.model.Sort
 import io.micronaut.data.model.entities.Person
@@ -127,6 +129,21 @@ class SqlQueryBuilderSpec extends Specification {
         Person | 'desc'    | ["name", "someId"] | 'person_.name DESC,person_.some_id DESC'
     }
 
+    @Unroll
+    void "test encode lock clause #mode #wait for dialect #dialect"() {
+        expect:
+        new SqlQueryBuilder(dialect).buildLock(mode, wait) == clause
+
+        where:
+        dialect            | mode            | wait                  | clause
+        Dialect.POSTGRES   | Lock.Mode.WRITE | Lock.Wait.SKIP_LOCKED | ' FOR UPDATE SKIP LOCKED'
+        Dialect.POSTGRES   | Lock.Mode.READ  | Lock.Wait.NOWAIT      | ' FOR SHARE NOWAIT'
+        Dialect.MYSQL      | Lock.Mode.WRITE | Lock.Wait.DEFAULT     | ' FOR UPDATE'
+        Dialect.ORACLE     | Lock.Mode.READ  | Lock.Wait.SKIP_LOCKED | ' FOR UPDATE SKIP LOCKED'
+        Dialect.H2         | Lock.Mode.WRITE | Lock.Wait.SKIP_LOCKED | ' FOR UPDATE'
+        Dialect.SQL_SERVER | Lock.Mode.WRITE | Lock.Wait.SKIP_LOCKED | ''
+    }
+
     void "test encode insert statement"() {
         given:
         PersistentEntity entity = new RuntimePersistentEntity(Person)
@@ -138,6 +155,92 @@ class SqlQueryBuilderSpec extends Specification {
         result.parameters.equals('1': 'name', '2': 'age', '3': 'enabled', '4': "publicId")
     }
 
+    @Unroll
+    void "test encode upsert statement for dialect #dialect"() {
+        given:
+        PersistentEntity entity = new RuntimePersistentEntity(Person)
+        def result = new SqlQueryBuilder(dialect).buildUpsert(AnnotationMetadata.EMPTY_METADATA, entity)
+
+        expect:
+        result.query == query
+        result.parameters.equals('1': 'name', '2': 'age', '3': 'enabled', '4': 'publicId', '5': 'id')
+
+        where:
+        dialect          | query
+        Dialect.POSTGRES | 'INSERT INTO "person" ("name","age","enabled","public_id","id") VALUES (?,?,?,?,?) ON CONFLICT ("id") DO UPDATE SET "name"=EXCLUDED."name","age"=EXCLUDED."age","enabled"=EXCLUDED."enabled","public_id"=EXCLUDED."public_id"'
+        Dialect.MYSQL    | 'INSERT INTO `person` (`name`,`age`,`enabled`,`public_id`,`id`) VALUES (?,?,?,?,?) ON DUPLICATE KEY UPDATE `name`=VALUES(`name`),`age`=VALUES(`age`),`enabled`=VALUES(`enabled`),`public_id`=VALUES(`public_id`)'
+        Dialect.H2       | 'MERGE INTO `person` (`name`,`age`,`enabled`,`public_id`,`id`) KEY (`id`) VALUES (?,?,?,?,?)'
+    }
+
+    @Unroll
+    void "test encode merge statement for dialect #dialect"() {
+        given:
+        PersistentEntity entity = new RuntimePersistentEntity(PersonAssignedId)
+        def result = new SqlQueryBuilder(dialect).buildUpsert(AnnotationMetadata.EMPTY_METADATA, entity)
+
+        expect:
+        result.query == query
+        result.parameters.equals('1': 'name', '2': 'age', '3': 'enabled', '4': 'id')
+
+        where:
+        dialect            | query
+        Dialect.ORACLE     | 'MERGE INTO "PERSON_ASSIGNED_ID" t_ USING (SELECT ? "NAME",? "AGE",? "ENABLED",? "ID" FROM dual) s_ ON (t_."ID"=s_."ID") WHEN MATCHED THEN UPDATE SET t_."NAME"=s_."NAME",t_."AGE"=s_."AGE",t_."ENABLED"=s_."ENABLED" WHEN NOT MATCHED THEN INSERT ("NAME","AGE","ENABLED","ID") VALUES (s_."NAME",s_."AGE",s_."ENABLED",s_."ID")'
+        Dialect.SQL_SERVER | 'MERGE INTO [person_assigned_id] t_ USING (VALUES (?,?,?,?)) AS s_ ([name],[age],[enabled],[id]) ON (t_.[id]=s_.[id]) WHEN MATCHED THEN UPDATE SET t_.[name]=s_.[name],t_.[age]=s_.[age],t_.[enabled]=s_.[enabled] WHEN NOT MATCHED THEN INSERT ([name],[age],[enabled],[id]) VALUES (s_.[name],s_.[age],s_.[enabled],s_.[id]);'
+    }
+
+    void "test upsert is rejected for IDENTITY ids on SQL Server"() {
+        when:
+        new SqlQueryBuilder(Dialect.SQL_SERVER).buildUpsert(AnnotationMetadata.EMPTY_METADATA, new RuntimePersistentEntity(Person))
+
+        then:
+        def e = thrown(IllegalArgumentException)
+        e.message.contains('IDENTITY generated id')
+    }
+
+    void "test encode upsert statement with embedded properties"() {
+        given:
+        PersistentEntity entity = new RuntimePersistentEntity(Restaurant)
+        def result = new SqlQueryBuilder(Dialect.H2).buildUpsert(AnnotationMetadata.EMPTY_METADATA, entity)
+
+        expect:
+        result.parameters.values().toList() == ['name', 'address.street', 'address.zipCode', 'hqAddress.street', 'hqAddress.zipCode', 'id']
+        result.parameterTypes['address.street'] == DataType.STRING
+        result.parameterTypes['hqAddress.zipCode'] == DataType.STRING
+    }
+
+    @Unroll
+    void "test encode returning clause for dialect #dialect"() {
+        given:
+        PersistentEntity entity = new RuntimePersistentEntity(Person)
+        def builder = new SqlQueryBuilder(dialect)
+
+        expect:
+        builder.buildReturning(statement, entity, [entity.getPropertyByName("someId")]) == result
+
+        where:
+        dialect            | statement                                        | result
+        Dialect.POSTGRES   | 'UPDATE "person" SET "name"=? WHERE ("id" = ?)'  | 'UPDATE "person" SET "name"=? WHERE ("id" = ?) RETURNING "some_id"'
+        Dialect.SQL_SERVER | 'UPDATE [person] SET [name]=? WHERE ([id] = ?)'  | 'UPDATE [person] SET [name]=? OUTPUT INSERTED.[some_id] WHERE ([id] = ?)'
+        Dialect.SQL_SERVER | 'INSERT INTO [person] ([name]) VALUES (?)'       | 'INSERT INTO [person] ([name]) OUTPUT INSERTED.[some_id] VALUES (?)'
+        Dialect.H2         | 'INSERT INTO `person` (`name`) VALUES (?)'       | null
+    }
+
+    void "test encode statements reading the rows affected by a delete"() {
+        given:
+        PersistentEntity entity = new RuntimePersistentEntity(Person)
+        def postgres = new SqlQueryBuilder(Dialect.POSTGRES)
+        def h2 = new SqlQueryBuilder(Dialect.H2)
+        def returning = postgres.buildReturning('DELETE  FROM "person"  WHERE ("id" = ?)', entity)
+        def select = h2.buildSelectForDelete('DELETE  FROM `person`  WHERE (`id` = ?)', entity)
+
+        expect:
+        returning.startsWith('DELETE  FROM "person"  WHERE ("id" = ?) RETURNING "person"."id",')
+        returning.contains('"person"."public_id"')
+        select.startsWith('SELECT `person`.`id`,')
+        select.endsWith(' FROM `person`  WHERE (`id` = ?) FOR UPDATE')
+        h2.buildReturning('DELETE  FROM `person`  WHERE (`id` = ?)', entity) == null
+    }
+
     void "test encode insert statement for embedded"() {
         given:
         PersistentEntity entity = new RuntimePersistentEntity(Restaurant)
@@ -262,4 +365,25 @@ class SqlQueryBuilderSpec extends Specification {
         Person | 'ge'   | 'name'   | '>='     | 'avg'
         Person | 'le'   | 'name'   | '<='     | 'distinct'
     }
+
+    @Unroll
+    void "test build paged query for dialect #dialect"() {
+        when:"the paged form of a query is rendered"
+        PersistentEntity entity = PersistentEntity.of(Person)
+        SqlQueryBuilder encoder = new SqlQueryBuilder(dialect)
+        String query = encoder.buildQuery(QueryModel.from(entity)).query
+
+        then:"the pagination is bound as parameters"
+        encoder.buildPagedQuery(entity, query) == query + suffix
+        encoder.limitBeforeOffset == limitFirst
+
+        where:
+        dialect            | limitFirst | suffix
+        Dialect.H2         | true       | ' LIMIT ? OFFSET ?'
+        Dialect.MYSQL      | true       | ' LIMIT ? OFFSET ?'
+        Dialect.POSTGRES   | true       | ' LIMIT ? OFFSET ?'
+        Dialect.ORACLE     | false      | ' OFFSET ? ROWS FETCH NEXT ? ROWS ONLY'
+        Dialect.ANSI       | false      | ' OFFSET ? ROWS FETCH NEXT ? ROWS ONLY'
+        Dialect.SQL_SERVER | false      | ' ORDER BY person_.id ASC OFFSET ? ROWS FETCH NEXT ? ROWS ONLY'
+    }
 }
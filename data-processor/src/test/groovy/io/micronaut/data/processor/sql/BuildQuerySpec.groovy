@@ -1,8 +1,10 @@
 package io.micronaut.data.processor.sql
 
 import io.micronaut.data.annotation.Query
+import io.micronaut.data.intercept.ExecuteReturningInterceptor
 import io.micronaut.data.intercept.annotation.DataMethod
 import io.micronaut.data.model.Pageable
+import io.micronaut.data.model.Sort
 import io.micronaut.data.processor.visitors.AbstractDataSpec
 import spock.lang.Issue
 import spock.lang.Unroll
@@ -115,6 +117,190 @@ ${dto('MovieTitle', [title: String])}
 
     }
 
+    void "test build query with SQL Server lock hint"() {
+        given:
+        def repository = buildRepository('test.MovieRepository', """
+import io.micronaut.data.jdbc.annotation.JdbcRepository;
+import io.micronaut.data.model.query.builder.sql.Dialect;
+
+@JdbcRepository(dialect= Dialect.SQL_SERVER)
+interface MovieRepository extends CrudRepository<Movie, Integer> {
+    @Lock(wait = Lock.Wait.SKIP_LOCKED)
+    List<Movie> findTop10ByTitle(String title);
+}
+
+${entity('Movie', [title: String])}
+""")
+        def query = repository.getRequiredMethod("findTop10ByTitle", String)
+                .stringValue(Query).get()
+
+        expect:
+        query == 'SELECT movie_.[id],movie_.[title] FROM [movie] movie_ WITH (UPDLOCK, ROWLOCK, READPAST) WHERE (movie_.[title] = ?)'
+    }
+
+    void "test build delete and update returning the affected entities"() {
+        given:
+        def repository = buildRepository('test.MovieRepository', """
+import io.micronaut.data.jdbc.annotation.JdbcRepository;
+import io.micronaut.data.model.query.builder.sql.Dialect;
+
+@JdbcRepository(dialect= Dialect.POSTGRES)
+interface MovieRepository extends CrudRepository<Movie, Integer> {
+    List<Movie> deleteByTitleReturning(String title);
+    List<Movie> updateByTitleReturning(String title, String director);
+}
+
+${entity('Movie', [title: String, director: String])}
+""")
+        def deleteMethod = repository.getRequiredMethod("deleteByTitleReturning", String)
+        def updateMethod = repository.getRequiredMethod("updateByTitleReturning", String, String)
+
+        expect:
+        deleteMethod.stringValue(Query).get() == 'DELETE  FROM "movie"  WHERE ("title" = ?)'
+        deleteMethod.classValue(DataMethod, "interceptor").get() == ExecuteReturningInterceptor
+        updateMethod.stringValue(Query).get() == 'UPDATE "movie" SET "director"=? WHERE ("title" = ?)'
+        updateMethod.classValue(DataMethod, "interceptor").get() == ExecuteReturningInterceptor
+    }
+
+    void "test build delete returning the affected entities for dialects without RETURNING"() {
+        given:
+        def repository = buildRepository('test.MovieRepository', """
+import io.micronaut.data.jdbc.annotation.JdbcRepository;
+import io.micronaut.data.model.query.builder.sql.Dialect;
+
+@JdbcRepository(dialect= Dialect.H2)
+interface MovieRepository extends CrudRepository<Movie, Integer> {
+    List<Movie> deleteByTitleReturning(String title);
+}
+
+${entity('Movie', [title: String])}
+""")
+        def deleteMethod = repository.getRequiredMethod("deleteByTitleReturning", String)
+
+        expect:
+        deleteMethod.stringValue(Query).get() == 'DELETE  FROM `movie`  WHERE (`title` = ?)'
+        deleteMethod.classValue(DataMethod, "interceptor").get() == ExecuteReturningInterceptor
+    }
+
+    @Unroll
+    void "test returning the affected entities is rejected for #description"() {
+        when:
+        buildRepository('test.MovieRepository', """
+import io.micronaut.data.jdbc.annotation.JdbcRepository;
+import io.micronaut.data.model.query.builder.sql.Dialect;
+
+$annotation
+interface MovieRepository extends CrudRepository<Movie, Integer> {
+    $method
+}
+
+${entity('Movie', [title: String, director: String])}
+""")
+
+        then:
+        def e = thrown(RuntimeException)
+        e.message.contains(message)
+
+        where:
+        description         | annotation                                 | method                                                                | message
+        'updates on H2'     | '@JdbcRepository(dialect= Dialect.H2)'     | 'List<Movie> updateByTitleReturning(String title, String director);' | 'Returning the updated entities is not supported by the configured dialect'
+        'updates on Oracle' | '@JdbcRepository(dialect= Dialect.ORACLE)' | 'List<Movie> updateByTitleReturning(String title, String director);' | 'Returning the updated entities is not supported by the configured dialect'
+        'updates on JPA'    | '@Repository'                              | 'List<Movie> updateByTitleReturning(String title, String director);' | 'Returning the updated entities is not supported by the configured dialect'
+        'deletes on JPA'    | '@Repository'                              | 'List<Movie> deleteByTitleReturning(String title);'                   | 'Returning the deleted entities is only supported by repositories that use SQL queries'
+    }
+
+    void "test returning the affected entities is rejected for operations that do not support it"() {
+        when:
+        buildRepository('test.MovieRepository', """
+import io.micronaut.data.model.query.builder.sql.SqlQueryBuilder;
+import io.micronaut.data.operations.async.AsyncCapableRepository;
+
+@Repository
+@RepositoryConfiguration(queryBuilder = SqlQueryBuilder.class, operations = AsyncCapableRepository.class)
+interface MovieRepository extends CrudRepository<Movie, Integer> {
+    List<Movie> deleteByTitleReturning(String title);
+}
+
+${entity('Movie', [title: String, director: String])}
+""")
+
+        then:
+        def e = thrown(RuntimeException)
+        e.message.contains('Returning the affected entities is not supported by the repository operations: io.micronaut.data.operations.async.AsyncCapableRepository')
+    }
+
+    void "test SQL Server lock hint is not applied to the count query of a page"() {
+        given:
+        def repository = buildRepository('test.MovieRepository', """
+import io.micronaut.data.jdbc.annotation.JdbcRepository;
+import io.micronaut.data.model.query.builder.sql.Dialect;
+
+@JdbcRepository(dialect= Dialect.SQL_SERVER)
+interface MovieRepository extends CrudRepository<Movie, Integer> {
+    @Lock
+    Page<Movie> findByTitle(String title, Pageable pageable);
+
+    @Lock
+    long countByTitle(String title);
+}
+
+${entity('Movie', [title: String])}
+""")
+        def method = repository.getRequiredMethod("findByTitle", String, Pageable)
+
+        expect:
+        method.stringValue(Query).get() == 'SELECT movie_.[id],movie_.[title] FROM [movie] movie_ WITH (UPDLOCK, ROWLOCK) WHERE (movie_.[title] = ?)'
+        method.stringValue(Query, DataMethod.META_MEMBER_COUNT_QUERY).get() == 'SELECT COUNT(*) FROM [movie] movie_ WHERE (movie_.[title] = ?)'
+        repository.getRequiredMethod("countByTitle", String).stringValue(Query).get() == 'SELECT COUNT(*) FROM [movie] movie_ WHERE (movie_.[title] = ?)'
+    }
+
+    @Unroll
+    void "test @Lock is rejected for #description"() {
+        when:
+        buildRepository('test.MovieRepository', """
+import io.micronaut.data.jdbc.annotation.JdbcRepository;
+import io.micronaut.data.model.query.builder.sql.Dialect;
+
+$annotation
+interface MovieRepository extends CrudRepository<Movie, Integer> {
+    @Lock
+    $method
+}
+
+${entity('Movie', [title: String])}
+""")
+
+        then:
+        def e = thrown(RuntimeException)
+        e.message.contains(message)
+
+        where:
+        description               | annotation                                   | method                                               | message
+        'paged queries on Oracle' | '@JdbcRepository(dialect= Dialect.ORACLE)'   | 'List<Movie> findByTitle(String title, Pageable p);' | '@Lock cannot be applied to paged query methods for the configured dialect'
+        'top queries on Oracle'   | '@JdbcRepository(dialect= Dialect.ORACLE)'   | 'List<Movie> findTop10ByTitle(String title);'        | '@Lock cannot be applied to paged query methods for the configured dialect'
+        'update methods'          | '@JdbcRepository(dialect= Dialect.POSTGRES)' | 'void update(@Id Long id, String title);'            | '@Lock can only be applied to query methods, not update methods'
+        'JPA repositories'        | '@Repository'                                | 'List<Movie> findByTitle(String title);'             | '@Lock is only supported by repositories that use SQL queries'
+    }
+
+    void "test @Lock is allowed for unpaged queries on Oracle"() {
+        given:
+        def repository = buildRepository('test.MovieRepository', """
+import io.micronaut.data.jdbc.annotation.JdbcRepository;
+import io.micronaut.data.model.query.builder.sql.Dialect;
+
+@JdbcRepository(dialect= Dialect.ORACLE)
+interface MovieRepository extends CrudRepository<Movie, Integer> {
+    @Lock
+    List<Movie> findByTitle(String title, Sort sort);
+}
+
+${entity('Movie', [title: String])}
+""")
+
+        expect:
+        repository.getRequiredMethod("findByTitle", String, Sort).stringValue(Query).isPresent()
+    }
+
     @Issue('#375')
     void "test in query with property that starts with in"() {
         given:
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.data.processor.sql
+
+import io.micronaut.data.annotation.Query
+import io.micronaut.data.intercept.annotation.DataMethod
+import io.micronaut.data.model.Pageable
+import io.micronaut.data.processor.visitors.AbstractDataSpec
+
+class PagedQuerySpec extends AbstractDataSpec {
+
+    void "test paged form of queries is rendered at compile time"() {
+        given:
+        def repository = buildRepository('test.PersonRepository', """
+import io.micronaut.data.model.query.builder.sql.SqlQueryBuilder;
+import io.micronaut.data.tck.entities.Person;
+
+@Repository
+@RepositoryConfiguration(queryBuilder=SqlQueryBuilder.class, implicitQueries = false, namedParameters = false)
+interface PersonRepository extends GenericRepository<Person, Long> {
+
+    List<Person> findByNameLike(String name, Pageable pageable);
+
+    List<Person> findTop3ByNameLike(String name);
+
+    List<Person> findByAgeGreaterThan(int age);
+}
+""")
+        def paged = repository.getRequiredMethod("findByNameLike", String, Pageable)
+        def top = repository.getRequiredMethod("findTop3ByNameLike", String)
+        def unpaged = repository.getRequiredMethod("findByAgeGreaterThan", int)
+
+        expect:
+        paged.stringValue(Query, DataMethod.META_MEMBER_PAGED_QUERY).get() ==
+                paged.stringValue(Query).get() + " OFFSET ? ROWS FETCH NEXT ? ROWS ONLY"
+        top.stringValue(Query, DataMethod.META_MEMBER_PAGED_QUERY).get() ==
+                top.stringValue(Query).get() + " OFFSET ? ROWS FETCH NEXT ? ROWS ONLY"
+        !unpaged.stringValue(Query, DataMethod.META_MEMBER_PAGED_QUERY).isPresent()
+    }
+}
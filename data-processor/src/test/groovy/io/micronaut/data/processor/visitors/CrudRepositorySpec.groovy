@@ -114,6 +114,7 @@ interface MyInterface extends CrudRepository<Person, Long> {
         existsMethod.synthesize(DataMethod).rootEntity() == Person
         existsMethod.synthesize(DataMethod).idType() == Long
         existsMethod.synthesize(DataMethod).interceptor() == ExistsByInterceptor
+        existsMethod.synthesize(Query).value() == "SELECT 1 FROM $Person.name AS ${alias} WHERE (${alias}.id = :p1)"
 
         when:"the findAll method is retrieved"
         def findAll = beanDefinition.getRequiredMethod("findAll")
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.data.processor.visitors
+
+import io.micronaut.data.intercept.annotation.DataMethod
+import io.micronaut.inject.BeanDefinition
+
+class RepositoryTypeRolesSpec extends AbstractDataSpec {
+
+    void "test custom type roles apply to the repository that declares them"() {
+        given:
+        BeanDefinition beanDefinition = buildRepository('test.TenantRepository', """
+import io.micronaut.data.model.entities.Person;
+
+@Repository
+@RepositoryConfiguration(typeRoles = @TypeRole(role = "tenant", type = Tenant.class))
+interface TenantRepository extends GenericRepository<Person, Long> {
+
+    List<Person> findByName(String name, Tenant tenant);
+}
+
+class Tenant {
+}
+""")
+
+        expect:
+        beanDefinition.findPossibleMethods("findByName").findFirst().get()
+                .stringValue(DataMethod, "tenant").get() == "tenant"
+    }
+
+    void "test a repository does not inherit the custom type roles of a repository compiled before it"() {
+        when:
+        buildRepository('test.PlainRepository', """
+import io.micronaut.data.model.entities.Person;
+
+@Repository
+@RepositoryConfiguration(typeRoles = @TypeRole(role = "tenant", type = Tenant.class))
+interface TenantRepository extends GenericRepository<Person, Long> {
+
+    List<Person> findByName(String name, Tenant tenant);
+}
+
+@Repository
+interface PlainRepository extends GenericRepository<Person, Long> {
+
+    List<Person> findByName(String name, Tenant tenant);
+}
+
+class Tenant {
+}
+""")
+
+        then:"The parameter is not in a role for the second repository"
+        def e = thrown(RuntimeException)
+        e.message.contains("PlainRepository.findByName")
+        !e.message.contains("TenantRepository.findByName")
+    }
+
+    void "test a repository does not inherit the Spring Data type roles of a repository compiled before it"() {
+        when:
+        buildRepository('test.PlainRepository', """
+import io.micronaut.data.model.entities.Person;
+
+@Repository
+interface SpringRepository extends org.springframework.data.repository.CrudRepository<Person, Long> {
+
+    org.springframework.data.domain.Page<Person> findByName(String name, org.springframework.data.domain.Pageable pageable);
+}
+
+@Repository
+interface PlainRepository extends GenericRepository<Person, Long> {
+
+    org.springframework.data.domain.Page<Person> findByName(String name, org.springframework.data.domain.Pageable pageable);
+}
+""")
+
+        then:"The Spring Data types are not in a role for the second repository"
+        def e = thrown(RuntimeException)
+        e.message.contains("PlainRepository.findByName")
+        !e.message.contains("SpringRepository.findByName")
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.data.runtime.intercept;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.micronaut.aop.MethodInvocationContext;
+import io.micronaut.core.convert.ConversionService;
+import io.micronaut.core.type.ReturnType;
+import io.micronaut.data.exceptions.DataAccessException;
+import io.micronaut.data.intercept.ExecuteReturningInterceptor;
+import io.micronaut.data.intercept.RepositoryMethodKey;
+import io.micronaut.data.model.runtime.PreparedQuery;
+import io.micronaut.data.operations.RepositoryOperations;
+import io.micronaut.data.operations.ReturningCapableRepository;
+
+/**
+ * Default implementation of {@link ExecuteReturningInterceptor}.
+ * @param <T> The declaring type
+ * @param <R> The result type
+ * @author graemerocher
+ * @since 1.0.1
+ */
+public class DefaultExecuteReturningInterceptor<T, R> extends AbstractQueryInterceptor<T, Iterable<R>>
+        implements ExecuteReturningInterceptor<T, R> {
+
+    private final ReturningCapableRepository returningOperations;
+
+    /**
+     * Default constructor.
+     * @param operations The operations
+     */
+    public DefaultExecuteReturningInterceptor(@NonNull RepositoryOperations operations) {
+        super(operations);
+        if (operations instanceof ReturningCapableRepository) {
+            this.returningOperations = (ReturningCapableRepository) operations;
+        } else {
+            throw new DataAccessException("Datastore of type [" + operations.getClass() + "] does not support returning the affected entities");
+        }
+    }
+
+    @Override
+    public Iterable<R> intercept(RepositoryMethodKey methodKey, MethodInvocationContext<T, Iterable<R>> context) {
+        PreparedQuery<?, R> preparedQuery = (PreparedQuery<?, R>) prepareQuery(methodKey, context);
+        Iterable<R> rs = returningOperations.executeReturning(preparedQuery);
+        ReturnType<Iterable<R>> rt = context.getReturnType();
+        if (!rt.getType().isInstance(rs)) {
+            return ConversionService.SHARED.convert(rs, rt.asArgument())
+                        .orElseThrow(() -> new IllegalStateException("Unsupported iterable return type: " + rs.getClass()));
+        }
+        return rs;
+    }
+}
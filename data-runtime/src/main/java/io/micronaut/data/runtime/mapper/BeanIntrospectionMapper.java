@@ -30,7 +30,7 @@ import io.micronaut.core.util.ArgumentUtils;
 import io.micronaut.core.util.ArrayUtils;
 import io.micronaut.data.exceptions.DataAccessException;
 
-import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -49,43 +49,39 @@ public interface BeanIntrospectionMapper<D, R> extends TypeMapper<D, R> {
         ArgumentUtils.requireNonNull("resultSet", object);
         ArgumentUtils.requireNonNull("type", type);
         try {
-            BeanIntrospection<R> introspection = BeanIntrospection.getIntrospection(type);
+            IntrospectedTypeMapping<R> mapping = IntrospectedTypeMapping.of(type);
             ConversionService<?> conversionService = getConversionService();
-            Argument<?>[] arguments = introspection.getConstructorArguments();
+            Argument<?>[] arguments = mapping.arguments;
             R instance;
             if (ArrayUtils.isEmpty(arguments)) {
-                instance = introspection.instantiate();
+                instance = mapping.introspection.instantiate();
             } else {
                 Object[] args = new Object[arguments.length];
                 for (int i = 0; i < arguments.length; i++) {
                     Argument<?> argument = arguments[i];
                     Object o = read(object, argument.getName());
-                    if (o == null) {
+                    if (o == null || mapping.argumentTypes[i].isInstance(o)) {
                         args[i] = o;
                     } else {
                         ArgumentConversionContext<?> acc = ConversionContext.of(argument);
-                        if (argument.getType().isInstance(o)) {
-                            args[i] = o;
-                        } else {
+                        args[i] = conversionService.convert(o, acc).orElseThrow(() -> {
+                                    Optional<ConversionError> lastError = acc.getLastError();
+                                    return lastError.<RuntimeException>map(conversionError -> new ConversionErrorException(argument, conversionError))
+                                            .orElseGet(() ->
+                                                    new IllegalArgumentException("Cannot convert object type " + o.getClass() + " to required type: " + argument.getType())
+                                            );
+                                }
 
-                            args[i] = conversionService.convert(o, acc).orElseThrow(() -> {
-                                        Optional<ConversionError> lastError = acc.getLastError();
-                                        return lastError.<RuntimeException>map(conversionError -> new ConversionErrorException(argument, conversionError))
-                                                .orElseGet(() ->
-                                                        new IllegalArgumentException("Cannot convert object type " + o.getClass() + " to required type: " + argument.getType())
-                                                );
-                                    }
-
-                            );
-                        }
+                        );
                     }
                 }
-                instance = introspection.instantiate(args);
+                instance = mapping.introspection.instantiate(args);
             }
-            Collection<BeanProperty<R, Object>> properties = introspection.getBeanProperties();
-            for (BeanProperty<R, Object> property : properties) {
+            List<BeanProperty<R, Object>> properties = mapping.properties;
+            for (int i = 0; i < properties.size(); i++) {
+                BeanProperty<R, Object> property = properties.get(i);
                 Object v = read(object, property.getName());
-                if (property.getType().isInstance(v))  {
+                if (mapping.propertyTypes[i].isInstance(v))  {
                     property.set(instance, v);
                 } else {
                     property.convertAndSet(instance, v);
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.data.runtime.mapper;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.beans.BeanIntrospection;
+import io.micronaut.core.beans.BeanProperty;
+import io.micronaut.core.reflect.ReflectionUtils;
+import io.micronaut.core.type.Argument;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The constructor arguments and writable properties of an introspected type, resolved once per type
+ * and shared by all {@link BeanIntrospectionMapper} instances.
+ *
+ * @param <R> The introspected type
+ * @author graemerocher
+ * @since 1.0.1
+ */
+@Internal
+final class IntrospectedTypeMapping<R> {
+
+    private static final Map<Class<?>, IntrospectedTypeMapping<?>> MAPPINGS = new ConcurrentHashMap<>(20);
+
+    final BeanIntrospection<R> introspection;
+    final Argument<?>[] arguments;
+    final Class<?>[] argumentTypes;
+    final List<BeanProperty<R, Object>> properties;
+    final Class<?>[] propertyTypes;
+
+    private IntrospectedTypeMapping(BeanIntrospection<R> introspection) {
+        this.introspection = introspection;
+        this.arguments = introspection.getConstructorArguments();
+        this.argumentTypes = new Class<?>[arguments.length];
+        Set<String> argumentNames = new HashSet<>(arguments.length);
+        for (int i = 0; i < arguments.length; i++) {
+            Argument<?> argument = arguments[i];
+            // primitive arguments accept the boxed values returned by result readers without conversion
+            argumentTypes[i] = ReflectionUtils.getWrapperType(argument.getType());
+            argumentNames.add(argument.getName());
+        }
+        this.properties = new ArrayList<>();
+        for (BeanProperty<R, Object> property : introspection.getBeanProperties()) {
+            // properties populated by the constructor are not read a second time
+            if (!property.isReadOnly() && !argumentNames.contains(property.getName())) {
+                properties.add(property);
+            }
+        }
+        this.propertyTypes = new Class<?>[properties.size()];
+        for (int i = 0; i < propertyTypes.length; i++) {
+            propertyTypes[i] = ReflectionUtils.getWrapperType(properties.get(i).getType());
+        }
+    }
+
+    /**
+     * Resolves the mapping for the given type.
+     *
+     * @param type The type
+     * @param <R> The type
+     * @return The mapping
+     * @throws io.micronaut.core.beans.exceptions.IntrospectionException If the type is not introspected
+     */
+    @SuppressWarnings("unchecked")
+    static @NonNull <R> IntrospectedTypeMapping<R> of(@NonNull Class<R> type) {
+        IntrospectedTypeMapping<?> mapping = MAPPINGS.get(type);
+        if (mapping == null) {
+            mapping = new IntrospectedTypeMapping<>(BeanIntrospection.getIntrospection(type));
+            MAPPINGS.put(type, mapping);
+        }
+        return (IntrospectedTypeMapping<R>) mapping;
+    }
+}
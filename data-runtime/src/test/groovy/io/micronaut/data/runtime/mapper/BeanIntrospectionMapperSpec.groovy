@@ -0,0 +1,66 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.data.runtime.mapper
+
+import io.micronaut.core.annotation.Introspected
+import spock.lang.Specification
+
+class BeanIntrospectionMapperSpec extends Specification {
+
+    void "test map constructor arguments and properties"() {
+        given:
+        List<String> reads = []
+        Map<String, Object> row = [name: "Fred", age: 30L, nickname: "F"]
+        BeanIntrospectionMapper<Map<String, Object>, PersonSummary> mapper = new BeanIntrospectionMapper<Map<String, Object>, PersonSummary>() {
+            @Override
+            Object read(Map<String, Object> object, String name) {
+                reads << name
+                return object[name]
+            }
+        }
+
+        when:
+        PersonSummary summary = mapper.map(row, PersonSummary)
+
+        then:
+        summary.name == "Fred"
+        summary.age == 30
+        summary.nickname == "F"
+        reads.sort() == ["age", "name", "nickname"]
+
+        when:"the type is mapped again"
+        reads.clear()
+        summary = mapper.map([name: "Bob", age: 40, nickname: null], PersonSummary)
+
+        then:
+        summary.name == "Bob"
+        summary.age == 40
+        summary.nickname == null
+        reads.size() == 3
+    }
+}
+
+@Introspected
+class PersonSummary {
+    final String name
+    final int age
+    String nickname
+
+    PersonSummary(String name, int age) {
+        this.name = name
+        this.age = age
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.transaction;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * An item of a batch that could not be processed and whose changes were rolled back.
+ *
+ * @author graemerocher
+ * @param <I> The item type
+ * @since 1.0.1
+ * @see TransactionOperations#executeIsolatedBatch(java.util.List, int, BatchItemCallback)
+ */
+public final class BatchFailure<I> {
+    private final int index;
+    private final I item;
+    private final Exception cause;
+
+    /**
+     * Default constructor.
+     *
+     * @param index The index of the item in the batch
+     * @param item The item
+     * @param cause The exception thrown when processing the item
+     */
+    public BatchFailure(int index, I item, @NonNull Exception cause) {
+        this.index = index;
+        this.item = item;
+        this.cause = cause;
+    }
+
+    /**
+     * @return The index of the item in the batch
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return The item
+     */
+    public I getItem() {
+        return item;
+    }
+
+    /**
+     * @return The exception thrown when processing the item
+     */
+    public @NonNull Exception getCause() {
+        return cause;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchFailure{index=" + index + ", cause=" + cause + '}';
+    }
+}
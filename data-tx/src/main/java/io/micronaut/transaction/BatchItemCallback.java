@@ -0,0 +1,40 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.transaction;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A functional interface for processing a single item of a batch within the context of a transaction.
+ *
+ * @author graemerocher
+ * @param <T> The connection type
+ * @param <I> The item type
+ * @since 1.0.1
+ * @see TransactionOperations#executeIsolatedBatch(java.util.List, int, BatchItemCallback)
+ */
+@FunctionalInterface
+public interface BatchItemCallback<T, I> {
+
+    /**
+     * Process the given item.
+     *
+     * @param status The transaction status
+     * @param item The item
+     * @throws Exception When the item cannot be processed
+     */
+    void process(@NonNull TransactionStatus<T> status, I item) throws Exception;
+}
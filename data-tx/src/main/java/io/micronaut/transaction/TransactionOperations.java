@@ -18,6 +18,14 @@ package io.micronaut.transaction;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import io.micronaut.core.annotation.Blocking;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
 /***
  * Generic transaction operations interface.
  *
@@ -64,4 +72,104 @@ public interface TransactionOperations<T> {
      * @return The result
      */
     <R> R executeWrite(@NonNull TransactionCallback<T, R> callback);
+
+    /**
+     * Execute the given callbacks in read-only transactions that all observe the same consistent
+     * snapshot of the data, returning their results in order.
+     *
+     * <p>Implementations that can share a snapshot between transactions (such as the
+     * {@link io.micronaut.transaction.jdbc.DataSourceTransactionManager} on Postgres) run the callbacks
+     * concurrently on the given executor, each with its own connection. The default implementation runs
+     * the callbacks one after the other in a single read-only transaction.</p>
+     *
+     * @param callbacks The callbacks
+     * @param executor The executor to run the callbacks on
+     * @param <R> The result type
+     * @return The results of the callbacks, in the order of the callbacks
+     * @since 1.0.1
+     */
+    default <R> List<R> executeReadInParallel(
+            @NonNull List<? extends TransactionCallback<T, ? extends R>> callbacks,
+            @NonNull Executor executor) {
+        Objects.requireNonNull(callbacks, "Callbacks cannot be null");
+        Objects.requireNonNull(executor, "Executor cannot be null");
+        return executeRead(status -> {
+            List<R> results = new ArrayList<>(callbacks.size());
+            for (TransactionCallback<T, ? extends R> callback : callbacks) {
+                results.add(callback.call(status));
+            }
+            return results;
+        });
+    }
+
+    /**
+     * Process the given items within a single write transaction, isolating the items that fail so that the
+     * remaining items are still applied.
+     *
+     * <p>Items are processed in chunks of the given size, each under one savepoint that is flushed and released
+     * when the chunk succeeds. When a chunk fails it is rolled back to its savepoint and split in half, and each
+     * half is retried under its own savepoint until the failing items are found. Compared to running every item
+     * in a {@link TransactionDefinition.Propagation#NESTED} transaction this needs two savepoint round trips per
+     * chunk rather than per item when all items succeed, plus roughly two per halving for each failing item.</p>
+     *
+     * <p>Items of a failed chunk are processed again when its halves are retried, hence the callback should only
+     * modify state through the transaction. Exceptions thrown by nested transactional methods that join the
+     * transaction mark it as rollback-only, so such methods should use
+     * {@link TransactionDefinition.Propagation#NESTED} or be avoided in the callback.</p>
+     *
+     * @param items The items to process
+     * @param chunkSize The number of items to process under a single savepoint
+     * @param callback The callback that processes an item
+     * @param <I> The item type
+     * @return The items that failed, in the order of the items
+     * @throws io.micronaut.transaction.exceptions.NestedTransactionNotSupportedException if the transaction
+     * does not support savepoints
+     * @since 1.0.1
+     */
+    default @NonNull <I> List<BatchFailure<I>> executeIsolatedBatch(
+            @NonNull List<I> items,
+            int chunkSize,
+            @NonNull BatchItemCallback<T, I> callback) {
+        Objects.requireNonNull(items, "Items cannot be null");
+        Objects.requireNonNull(callback, "Callback cannot be null");
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be greater than zero");
+        }
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return executeWrite(status -> {
+            List<BatchFailure<I>> failures = new ArrayList<>();
+            // each range is {from, to}, ranges are processed in order of the items
+            Deque<int[]> ranges = new ArrayDeque<>();
+            for (int from = (items.size() - 1) / chunkSize * chunkSize; from >= 0; from -= chunkSize) {
+                ranges.push(new int[] {from, Math.min(from + chunkSize, items.size())});
+            }
+            while (!ranges.isEmpty()) {
+                int[] range = ranges.pop();
+                int from = range[0];
+                int to = range[1];
+                Object savepoint = status.createSavepoint();
+                try {
+                    for (int i = from; i < to; i++) {
+                        callback.process(status, items.get(i));
+                    }
+                    // surface deferred writes while the savepoint can still isolate them
+                    status.flush();
+                    status.releaseSavepoint(savepoint);
+                } catch (Exception e) {
+                    status.rollbackToSavepoint(savepoint);
+                    status.releaseSavepoint(savepoint);
+                    if (to - from == 1) {
+                        failures.add(new BatchFailure<>(from, items.get(from), e));
+                    } else {
+                        int middle = (from + to) >>> 1;
+                        ranges.push(new int[] {middle, to});
+                        ranges.push(new int[] {from, middle});
+                    }
+                }
+            }
+            return failures;
+        });
+    }
 }
@@ -45,6 +45,42 @@ public @interface TransactionalEventListener {
      */
     TransactionPhase value() default TransactionPhase.AFTER_COMMIT;
 
+    /**
+     * Whether to deliver the event asynchronously. If {@code true} the event is queued when the transaction
+     * completes and delivered on the {@link #executor()}, so the completing thread is not blocked by the listener.
+     * Events are delivered to each listener in the order in which they were queued.
+     * <p>Not supported for {@link TransactionPhase#BEFORE_COMMIT}, which is always delivered synchronously.</p>
+     *
+     * @return True if the event should be delivered asynchronously
+     * @since 1.0.1
+     */
+    boolean async() default false;
+
+    /**
+     * @return The name of the {@link java.util.concurrent.ExecutorService} to deliver asynchronous events on
+     * @since 1.0.1
+     */
+    String executor() default "io";
+
+    /**
+     * The maximum number of queued events delivered one after the other by a single task on the {@link #executor()}
+     * before the task yields the executor to other work. Each event is still delivered by a separate invocation
+     * of the listener.
+     *
+     * @return The maximum number of events delivered by a task
+     * @since 1.0.1
+     */
+    int maxEventsPerTask() default 1;
+
+    /**
+     * The maximum number of events waiting to be delivered to an asynchronous listener. Further events are
+     * discarded and logged until the queue has drained.
+     *
+     * @return The maximum number of queued events
+     * @since 1.0.1
+     */
+    int maxQueueSize() default 10000;
+
     /**
      * The phase at which a transactional event listener applies.
      *
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.transaction.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Retries a method annotated with {@code javax.transaction.Transactional} (or {@link TransactionalAdvice}) in a
+ * new transaction when the transaction fails with a transient error, such as a deadlock or a serialization failure.
+ *
+ * <p>The method is only retried if it started the transaction, since a transaction it joined cannot be
+ * retried on its own. Retries apply to blocking methods; methods returning a
+ * {@link java.util.concurrent.CompletionStage} or a reactive type are not retried.</p>
+ *
+ * @author graemerocher
+ * @since 1.0.1
+ */
+@Target({ElementType.ANNOTATION_TYPE, ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface TransactionalRetry {
+
+    /**
+     * @return The maximum number of attempts, including the first one
+     */
+    int maxAttempts() default 3;
+
+    /**
+     * @return The delay before the first retry, which is increased by the {@link #multiplier()} for each
+     * further retry and randomized by up to half to avoid retrying in lock step with competing transactions
+     */
+    String delay() default "20ms";
+
+    /**
+     * @return The maximum delay between two attempts
+     */
+    String maxDelay() default "1s";
+
+    /**
+     * @return The multiplier applied to the delay after each retry
+     */
+    double multiplier() default 2;
+
+    /**
+     * The SQL states that denote a transient failure of the transaction. A state matches a {@link java.sql.SQLException}
+     * in the cause chain of the failure if the SQL state of the exception starts with it, hence {@code "40"} matches
+     * every transaction rollback. Defaults to serialization failures ({@code 40001}, which is also returned by MySQL
+     * for deadlocks) and Postgres deadlocks ({@code 40P01}).
+     *
+     * @return The SQL states
+     */
+    String[] sqlStates() default {"40001", "40P01"};
+
+    /**
+     * @return Further exception types that denote a transient failure of the transaction
+     */
+    Class<? extends Throwable>[] includes() default {};
+}
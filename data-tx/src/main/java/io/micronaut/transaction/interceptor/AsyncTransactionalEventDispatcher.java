@@ -0,0 +1,333 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.transaction.interceptor;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.micronaut.aop.MethodInvocationContext;
+import io.micronaut.context.BeanContext;
+import io.micronaut.context.exceptions.ConfigurationException;
+import io.micronaut.inject.qualifiers.Qualifiers;
+import io.micronaut.transaction.annotation.TransactionalEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Delivers the events of {@link TransactionalEventListener#async() asynchronous} transactional event listeners.
+ * Each listener has its own queue that is drained by tasks on the configured executor, so events are delivered
+ * to a listener in the order in which the transactions completed while different listeners are delivered to
+ * concurrently. The queue of each listener is bounded, events that arrive while the queue is full are
+ * discarded and counted as rejected. If the executor rejects a delivery task, the delivery is retried after a
+ * short delay.
+ *
+ * <p>The queue depth and latency of each listener are exposed by {@link #getStatistics()}, for example to
+ * register them as gauges with a metrics registry.</p>
+ *
+ * @author graemerocher
+ * @since 1.0.1
+ */
+@Singleton
+public class AsyncTransactionalEventDispatcher {
+    private static final Logger LOG = LoggerFactory.getLogger(TransactionalEventListener.class);
+    private static final long RETRY_DELAY_MILLIS = 100;
+
+    private final BeanContext beanContext;
+    private final Map<String, ExecutorService> executors = new ConcurrentHashMap<>(2);
+    private final Map<String, ListenerQueue> queues = new ConcurrentHashMap<>(10);
+    private volatile ScheduledExecutorService retryScheduler;
+
+    /**
+     * Default constructor.
+     * @param beanContext The bean context
+     */
+    public AsyncTransactionalEventDispatcher(BeanContext beanContext) {
+        this.beanContext = beanContext;
+    }
+
+    /**
+     * Queues the invocation of a listener for delivery.
+     * @param context The invocation context of the listener
+     * @param executorName The name of the executor to deliver on
+     * @param maxEventsPerTask The maximum number of events delivered one after the other by a single task
+     * @param maxQueueSize The maximum number of events waiting to be delivered to the listener
+     */
+    public void dispatch(
+            @NonNull MethodInvocationContext<Object, Object> context,
+            @NonNull String executorName,
+            int maxEventsPerTask,
+            int maxQueueSize) {
+        String listener = context.getDeclaringType().getName() + "#" + context.getMethodName() +
+                Stream.of(context.getArgumentTypes()).map(Class::getName).collect(Collectors.joining(",", "(", ")"));
+        ListenerQueue queue = queues.computeIfAbsent(listener, name ->
+                new ListenerQueue(name, getExecutor(executorName), Math.max(1, maxEventsPerTask), Math.max(1, maxQueueSize))
+        );
+        queue.offer(context);
+    }
+
+    /**
+     * @return The total number of events waiting to be delivered
+     */
+    public int getQueueDepth() {
+        int depth = 0;
+        for (ListenerQueue queue : queues.values()) {
+            depth += queue.depth.get();
+        }
+        return depth;
+    }
+
+    /**
+     * @return The statistics of each listener that events have been dispatched to
+     */
+    public @NonNull Collection<ListenerStatistics> getStatistics() {
+        return new ArrayList<>(queues.values());
+    }
+
+    /**
+     * Stops retrying deliveries that were rejected by an executor.
+     */
+    @PreDestroy
+    public void close() {
+        ScheduledExecutorService scheduler = this.retryScheduler;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void retryLater(Runnable retry) {
+        ScheduledExecutorService scheduler = this.retryScheduler;
+        if (scheduler == null) {
+            synchronized (this) { // double check
+                scheduler = this.retryScheduler;
+                if (scheduler == null) {
+                    scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                        Thread thread = new Thread(runnable, "micronaut-tx-events-retry");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    this.retryScheduler = scheduler;
+                }
+            }
+        }
+        try {
+            scheduler.schedule(retry, RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // the dispatcher has been closed
+        }
+    }
+
+    private ExecutorService getExecutor(String executorName) {
+        return executors.computeIfAbsent(executorName, name ->
+                beanContext.findBean(ExecutorService.class, Qualifiers.byName(name))
+                        .orElseThrow(() -> new ConfigurationException("No executor configured for name: " + name))
+        );
+    }
+
+    /**
+     * Statistics of an asynchronous transactional event listener.
+     */
+    public interface ListenerStatistics {
+        /**
+         * @return The name of the listener method
+         */
+        @NonNull String getListener();
+
+        /**
+         * @return The number of events waiting to be delivered
+         */
+        int getQueueDepth();
+
+        /**
+         * @return The number of events the listener completed without an exception
+         */
+        long getDeliveredCount();
+
+        /**
+         * @return The number of events for which the listener threw an exception
+         */
+        long getFailedCount();
+
+        /**
+         * @return The number of events discarded because the queue of the listener was full
+         */
+        long getRejectedCount();
+
+        /**
+         * @return The average time from queueing an event to the listener completing, for delivered events only
+         */
+        @NonNull Duration getAverageLatency();
+
+        /**
+         * @return The maximum time from queueing an event to the listener completing, for delivered events only
+         */
+        @NonNull Duration getMaxLatency();
+    }
+
+    /**
+     * The queue of a single listener.
+     */
+    private final class ListenerQueue implements ListenerStatistics, Runnable {
+        private final String listener;
+        private final ExecutorService executor;
+        private final int maxEventsPerTask;
+        private final int maxQueueSize;
+        private final Queue<QueuedEvent> events = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger depth = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicLong delivered = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong totalLatency = new AtomicLong();
+        private final AtomicLong maxLatency = new AtomicLong();
+
+        ListenerQueue(String listener, ExecutorService executor, int maxEventsPerTask, int maxQueueSize) {
+            this.listener = listener;
+            this.executor = executor;
+            this.maxEventsPerTask = maxEventsPerTask;
+            this.maxQueueSize = maxQueueSize;
+        }
+
+        void offer(MethodInvocationContext<Object, Object> context) {
+            if (depth.incrementAndGet() > maxQueueSize) {
+                depth.decrementAndGet();
+                rejected.incrementAndGet();
+                LOG.error("Discarding transactional event for listener {} since its queue is full ({} events)", listener, maxQueueSize);
+                return;
+            }
+            events.add(new QueuedEvent(context, System.nanoTime()));
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    if (executor.isShutdown()) {
+                        LOG.error("Executor is shut down, {} transactional events for listener {} will not be delivered", depth.get(), listener);
+                    } else {
+                        LOG.warn("Executor rejected delivery of transactional events to listener {}, retrying in {}ms: {}", listener, RETRY_DELAY_MILLIS, e.getMessage());
+                        retryLater(this::schedule);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (int i = 0; i < maxEventsPerTask; i++) {
+                    QueuedEvent event = events.poll();
+                    if (event == null) {
+                        break;
+                    }
+                    depth.decrementAndGet();
+                    deliver(event);
+                }
+            } finally {
+                scheduled.set(false);
+                if (!events.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+
+        private void deliver(QueuedEvent event) {
+            try {
+                event.context.proceed();
+            } catch (Throwable e) {
+                failed.incrementAndGet();
+                LOG.error("Error delivering transactional event to listener " + listener + ": " + e.getMessage(), e);
+                return;
+            }
+            long latency = System.nanoTime() - event.queuedAt;
+            delivered.incrementAndGet();
+            totalLatency.addAndGet(latency);
+            maxLatency.accumulateAndGet(latency, Math::max);
+        }
+
+        @NonNull
+        @Override
+        public String getListener() {
+            return listener;
+        }
+
+        @Override
+        public int getQueueDepth() {
+            return depth.get();
+        }
+
+        @Override
+        public long getDeliveredCount() {
+            return delivered.get();
+        }
+
+        @Override
+        public long getFailedCount() {
+            return failed.get();
+        }
+
+        @Override
+        public long getRejectedCount() {
+            return rejected.get();
+        }
+
+        @NonNull
+        @Override
+        public Duration getAverageLatency() {
+            long count = delivered.get();
+            return count == 0 ? Duration.ZERO : Duration.ofNanos(totalLatency.get() / count);
+        }
+
+        @NonNull
+        @Override
+        public Duration getMaxLatency() {
+            return Duration.ofNanos(maxLatency.get());
+        }
+    }
+
+    /**
+     * An event waiting to be delivered.
+     */
+    private static final class QueuedEvent {
+        final MethodInvocationContext<Object, Object> context;
+        final long queuedAt;
+
+        QueuedEvent(MethodInvocationContext<Object, Object> context, long queuedAt) {
+            this.context = context;
+            this.queuedAt = queuedAt;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.transaction.interceptor;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.micronaut.core.util.ArgumentUtils;
+
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The policy for retrying transactions that fail with a transient error.
+ *
+ * @author graemerocher
+ * @since 1.0.1
+ * @see io.micronaut.transaction.annotation.TransactionalRetry
+ */
+public final class TransactionRetryPolicy {
+    private static final int MAX_CAUSE_DEPTH = 20;
+
+    private final int maxAttempts;
+    private final Duration delay;
+    private final Duration maxDelay;
+    private final double multiplier;
+    private final List<String> sqlStates;
+    private final List<Class<? extends Throwable>> includes;
+
+    /**
+     * Default constructor.
+     *
+     * @param maxAttempts The maximum number of attempts, including the first one
+     * @param delay The delay before the first retry
+     * @param maxDelay The maximum delay between two attempts
+     * @param multiplier The multiplier applied to the delay after each retry
+     * @param sqlStates The prefixes of the SQL states that denote a transient failure
+     * @param includes Further exception types that denote a transient failure
+     */
+    public TransactionRetryPolicy(
+            int maxAttempts,
+            @NonNull Duration delay,
+            @NonNull Duration maxDelay,
+            double multiplier,
+            @NonNull String[] sqlStates,
+            @NonNull Class<? extends Throwable>[] includes) {
+        ArgumentUtils.requireNonNull("delay", delay);
+        ArgumentUtils.requireNonNull("maxDelay", maxDelay);
+        ArgumentUtils.requireNonNull("sqlStates", sqlStates);
+        ArgumentUtils.requireNonNull("includes", includes);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.delay = delay;
+        this.maxDelay = maxDelay;
+        this.multiplier = Math.max(1, multiplier);
+        this.sqlStates = Arrays.asList(sqlStates);
+        this.includes = Arrays.asList(includes);
+    }
+
+    /**
+     * @return The maximum number of attempts, including the first one
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Whether the given exception denotes a transient failure, after which the transaction may succeed when retried.
+     * The exception and its causes are matched against the included exception types and the SQL states.
+     *
+     * @param exception The exception
+     * @return True if it is transient
+     */
+    public boolean isTransient(@NonNull Throwable exception) {
+        Throwable cause = exception;
+        for (int depth = 0; cause != null && depth < MAX_CAUSE_DEPTH; depth++) {
+            for (Class<? extends Throwable> include : includes) {
+                if (include.isInstance(cause)) {
+                    return true;
+                }
+            }
+            if (cause instanceof SQLException) {
+                String sqlState = ((SQLException) cause).getSQLState();
+                if (sqlState != null) {
+                    for (String state : sqlStates) {
+                        if (sqlState.startsWith(state)) {
+                            return true;
+                        }
+                    }
+                } else if (cause instanceof SQLTransactionRollbackException) {
+                    return true;
+                }
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+            cause = cause.getCause();
+        }
+        return false;
+    }
+
+    /**
+     * Computes the delay before the given retry, growing exponentially and randomized by up to half so that
+     * competing transactions do not retry in lock step.
+     *
+     * @param retry The retry, starting at 1
+     * @return The delay in milliseconds
+     */
+    public long getDelayMillis(int retry) {
+        double exponential = delay.toMillis() * Math.pow(multiplier, Math.max(0, retry - 1));
+        long bounded = (long) Math.min(exponential, maxDelay.toMillis());
+        if (bounded <= 1) {
+            return bounded;
+        }
+        long half = bounded / 2;
+        return half + ThreadLocalRandom.current().nextLong(bounded - half + 1);
+    }
+}
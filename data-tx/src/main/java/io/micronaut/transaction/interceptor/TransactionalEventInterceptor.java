@@ -39,6 +39,16 @@ import javax.inject.Singleton;
 public class TransactionalEventInterceptor implements MethodInterceptor<Object, Object> {
     private static final Logger LOG = LoggerFactory.getLogger(TransactionalEventListener.class);
 
+    private final AsyncTransactionalEventDispatcher asyncDispatcher;
+
+    /**
+     * Default constructor.
+     * @param asyncDispatcher The dispatcher for asynchronous listeners
+     */
+    public TransactionalEventInterceptor(AsyncTransactionalEventDispatcher asyncDispatcher) {
+        this.asyncDispatcher = asyncDispatcher;
+    }
+
     @Override
     public int getOrder() {
         return InterceptPhase.TRANSACTION.getPosition() - 10;
@@ -49,6 +59,7 @@ public class TransactionalEventInterceptor implements MethodInterceptor<Object,
         final TransactionalEventListener.TransactionPhase phase = context
                 .enumValue(TransactionalEventListener.class, TransactionalEventListener.TransactionPhase.class)
                 .orElse(TransactionalEventListener.TransactionPhase.AFTER_COMMIT);
+        final boolean async = context.isTrue(TransactionalEventListener.class, "async");
         if (TransactionSynchronizationManager.isSynchronizationActive() &&
                 TransactionSynchronizationManager.isActualTransactionActive()) {
             TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
@@ -65,20 +76,33 @@ public class TransactionalEventInterceptor implements MethodInterceptor<Object,
                     switch (status) {
                         case ROLLED_BACK:
                             if (phase == TransactionalEventListener.TransactionPhase.AFTER_ROLLBACK) {
-                                context.proceed();
+                                proceed();
                             }
                         break;
                         case COMMITTED:
                             if (phase == TransactionalEventListener.TransactionPhase.AFTER_COMMIT) {
-                                context.proceed();
+                                proceed();
                             }
                         break;
                         default:
                             if (phase == TransactionalEventListener.TransactionPhase.AFTER_COMPLETION) {
-                                context.proceed();
+                                proceed();
                             }
                     }
                 }
+
+                private void proceed() {
+                    if (async) {
+                        asyncDispatcher.dispatch(
+                                context,
+                                context.stringValue(TransactionalEventListener.class, "executor").orElse("io"),
+                                context.intValue(TransactionalEventListener.class, "maxEventsPerTask").orElse(1),
+                                context.intValue(TransactionalEventListener.class, "maxQueueSize").orElse(10000)
+                        );
+                    } else {
+                        context.proceed();
+                    }
+                }
             });
         } else {
             if (LOG.isDebugEnabled()) {
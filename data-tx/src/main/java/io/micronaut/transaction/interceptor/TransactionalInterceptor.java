@@ -8,6 +8,7 @@ import io.micronaut.aop.MethodInvocationContext;
 import io.micronaut.context.BeanLocator;
 import io.micronaut.context.annotation.Requires;
 import io.micronaut.core.annotation.AnnotationValue;
+import io.micronaut.core.async.publisher.Publishers;
 import io.micronaut.inject.ExecutableMethod;
 import io.micronaut.inject.qualifiers.Qualifiers;
 import io.micronaut.transaction.SynchronousTransactionManager;
@@ -16,13 +17,22 @@ import io.micronaut.transaction.TransactionStatus;
 import io.micronaut.transaction.exceptions.NoTransactionException;
 import io.micronaut.transaction.exceptions.TransactionSystemException;
 import io.micronaut.transaction.annotation.TransactionalAdvice;
+import io.micronaut.transaction.annotation.TransactionalRetry;
+import io.micronaut.transaction.support.TransactionSynchronizationManager;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Singleton;
 import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Default implementation of {@link TransactionalAdvice}. Forked from the reflection based code in Spring.
@@ -44,14 +54,12 @@ public class TransactionalInterceptor implements MethodInterceptor<Object, Objec
      * (e.g. before and after advice) if the aspect involves more than a
      * single method (as will be the case for around advice).
      */
-    @SuppressWarnings("unchecked")
-    private static final ThreadLocal<TransactionInfo> TRANSACTION_INFO_HOLDER =
-            new ThreadLocal() {
-                @Override
-                public String toString() {
-                    return "Current aspect-driven transaction";
-                }
-            };
+    private static final Object TRANSACTION_INFO_KEY = new Object() {
+        @Override
+        public String toString() {
+            return "Current aspect-driven transaction";
+        }
+    };
     private final Map<ExecutableMethod, TransactionInvocation> transactionInvocationMap = new ConcurrentHashMap<>(30);
 
     @NonNull
@@ -80,10 +88,102 @@ public class TransactionalInterceptor implements MethodInterceptor<Object, Objec
                     beanLocator.getBean(SynchronousTransactionManager.class, qualifier != null ? Qualifiers.byName(qualifier) : null);
             final TransactionAttribute transactionAttribute = resolveTransactionDefinition(executableMethod);
 
-            return new TransactionInvocation(transactionManager, transactionAttribute);
+            return new TransactionInvocation(transactionManager, transactionAttribute, resolveRetryPolicy(executableMethod));
         });
         final TransactionAttribute definition = transactionInvocation.definition;
         final SynchronousTransactionManager transactionManager = transactionInvocation.transactionManager;
+        final Class<Object> returnType = context.getReturnType().getType();
+        if (CompletionStage.class.isAssignableFrom(returnType) && returnType.isAssignableFrom(CompletableFuture.class)) {
+            return interceptCompletionStage(context, transactionManager, definition);
+        } else if (Publishers.isConvertibleToPublisher(returnType)) {
+            Publisher<Object> publisher = subscriber -> interceptPublisher(context, transactionManager, definition, subscriber);
+            return Publishers.convertPublisher(publisher, returnType);
+        }
+        final TransactionRetryPolicy retryPolicy = transactionInvocation.retryPolicy;
+        int attempt = 1;
+        while (true) {
+            final TransactionInfo transactionInfo = createTransactionIfNecessary(
+                    transactionManager,
+                    definition,
+                    definition.getName());
+            Object retVal;
+            try {
+                // proceed from this interceptor when retrying since the chain has already been advanced
+                retVal = attempt == 1 ? context.proceed() : context.proceed(this);
+            } catch (Throwable ex) {
+                completeTransactionAfterThrowing(transactionInfo, ex);
+                if (shouldRetry(retryPolicy, transactionInfo, ex, attempt)) {
+                    attempt++;
+                    continue;
+                }
+                throw ex;
+            } finally {
+                cleanupTransactionInfo(transactionInfo);
+            }
+            try {
+                commitTransactionAfterReturning(transactionInfo);
+            } catch (RuntimeException ex) {
+                // serialization failures may only be detected on commit
+                if (shouldRetry(retryPolicy, transactionInfo, ex, attempt)) {
+                    attempt++;
+                    continue;
+                }
+                throw ex;
+            }
+            return retVal;
+        }
+    }
+
+    /**
+     * Whether the transaction should be retried after the given failure, waiting for the backoff delay if so.
+     * Only transactions started by this invocation are retried.
+     * @param retryPolicy The retry policy, if any
+     * @param transactionInfo The transaction info
+     * @param ex The failure
+     * @param attempt The attempt that failed
+     * @return True if the invocation should be retried
+     */
+    private boolean shouldRetry(
+            @Nullable TransactionRetryPolicy retryPolicy,
+            TransactionInfo transactionInfo,
+            Throwable ex,
+            int attempt) {
+        if (retryPolicy == null
+                || attempt >= retryPolicy.getMaxAttempts()
+                || !transactionInfo.getTransactionStatus().isNewTransaction()
+                || !retryPolicy.isTransient(ex)) {
+            return false;
+        }
+        long delay = retryPolicy.getDelayMillis(attempt);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Retrying transaction for [" + transactionInfo.getJoinpointIdentification() + "] in " + delay +
+                    "ms after attempt " + attempt + " failed with transient exception: " + ex.getMessage());
+        }
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Intercepts a method returning a {@link CompletionStage}. The transaction is started before the method
+     * executes and completed when the returned stage completes. The calling thread is released from the
+     * transaction once the method returns and the transaction state is bound again to the thread that completes it.
+     * @param context The context
+     * @param transactionManager The transaction manager
+     * @param definition The definition
+     * @return The stage, which completes after the transaction has been completed
+     */
+    private Object interceptCompletionStage(
+            MethodInvocationContext<Object, Object> context,
+            SynchronousTransactionManager transactionManager,
+            TransactionAttribute definition) {
+        final TransactionSynchronizationManager.State callerState = TransactionSynchronizationManager.getState();
         final TransactionInfo transactionInfo = createTransactionIfNecessary(
                 transactionManager,
                 definition,
@@ -97,13 +197,104 @@ public class TransactionalInterceptor implements MethodInterceptor<Object, Objec
         } finally {
             cleanupTransactionInfo(transactionInfo);
         }
-        commitTransactionAfterReturning(transactionInfo);
-        return retVal;
+        if (retVal == null) {
+            commitTransactionAfterReturning(transactionInfo);
+            return null;
+        }
+        final TransactionSynchronizationManager.State transactionState = TransactionSynchronizationManager.getState();
+        TransactionSynchronizationManager.setState(callerState);
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        ((CompletionStage<Object>) retVal).whenComplete((value, throwable) -> {
+            Throwable error = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+            try {
+                TransactionSynchronizationManager.withState(transactionState, () -> {
+                    if (error != null) {
+                        completeTransactionAfterThrowing(transactionInfo, error);
+                    } else {
+                        commitTransactionAfterReturning(transactionInfo);
+                    }
+                    return null;
+                });
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(value);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Intercepts a method returning a {@link Publisher}. The transaction is started when the publisher is
+     * subscribed to and completed when it completes, fails or is cancelled, in which case it is rolled back.
+     * @param context The context
+     * @param transactionManager The transaction manager
+     * @param definition The definition
+     * @param subscriber The subscriber
+     */
+    private void interceptPublisher(
+            MethodInvocationContext<Object, Object> context,
+            SynchronousTransactionManager transactionManager,
+            TransactionAttribute definition,
+            Subscriber<? super Object> subscriber) {
+        final TransactionSynchronizationManager.State callerState = TransactionSynchronizationManager.getState();
+        final TransactionInfo transactionInfo;
+        try {
+            transactionInfo = createTransactionIfNecessary(
+                    transactionManager,
+                    definition,
+                    definition.getName());
+        } catch (Throwable ex) {
+            signalError(subscriber, ex);
+            return;
+        }
+        final Publisher<Object> source;
+        final TransactionSynchronizationManager.State transactionState;
+        try {
+            // proceed from this interceptor since each subscription invokes the method again
+            source = Publishers.convertPublisher(context.proceed(this), Publisher.class);
+        } catch (Throwable ex) {
+            Throwable error = ex;
+            try {
+                completeTransactionAfterThrowing(transactionInfo, ex);
+            } catch (Throwable e) {
+                error = e;
+            }
+            signalError(subscriber, error);
+            return;
+        } finally {
+            cleanupTransactionInfo(transactionInfo);
+        }
+        transactionState = TransactionSynchronizationManager.getState();
+        try {
+            source.subscribe(new TransactionalSubscriber(subscriber, transactionInfo, transactionState));
+        } finally {
+            TransactionSynchronizationManager.setState(callerState);
+        }
+    }
+
+    private static void signalError(Subscriber<? super Object> subscriber, Throwable error) {
+        subscriber.onSubscribe(new Subscription() {
+            @Override
+            public void request(long n) {
+                // no-op
+            }
+
+            @Override
+            public void cancel() {
+                // no-op
+            }
+        });
+        subscriber.onError(error);
     }
 
     @Nullable
     private static TransactionInfo currentTransactionInfo() throws NoTransactionException {
-        return TRANSACTION_INFO_HOLDER.get();
+        return (TransactionInfo) TransactionSynchronizationManager.getStateValue(TRANSACTION_INFO_KEY);
     }
 
     /**
@@ -226,7 +417,7 @@ public class TransactionalInterceptor implements MethodInterceptor<Object, Objec
     }
 
     /**
-     * Reset the TransactionInfo ThreadLocal.
+     * Reset the current TransactionInfo.
      * <p>Call this in all cases: exception or normal return!
      * @param txInfo information about the current transaction (may be {@code null})
      */
@@ -262,16 +453,121 @@ public class TransactionalInterceptor implements MethodInterceptor<Object, Objec
         return attribute;
     }
 
+    /**
+     * @param executableMethod The method
+     * @return The {@link TransactionRetryPolicy} or {@code null} if the method should not be retried
+     * @since 1.0.1
+     */
+    @Nullable
+    protected TransactionRetryPolicy resolveRetryPolicy(ExecutableMethod<Object, Object> executableMethod) {
+        AnnotationValue<TransactionalRetry> annotation = executableMethod.getAnnotation(TransactionalRetry.class);
+        if (annotation == null) {
+            return null;
+        }
+        String[] sqlStates = annotation.stringValues("sqlStates");
+        //noinspection unchecked
+        return new TransactionRetryPolicy(
+                annotation.intValue("maxAttempts").orElse(3),
+                annotation.get("delay", Duration.class).orElse(Duration.ofMillis(20)),
+                annotation.get("maxDelay", Duration.class).orElse(Duration.ofSeconds(1)),
+                annotation.doubleValue("multiplier").orElse(2),
+                sqlStates.length > 0 ? sqlStates : new String[] {"40001", "40P01"},
+                annotation.classValues("includes")
+        );
+    }
+
+    /**
+     * Subscriber that completes the transaction when the source publisher terminates.
+     */
+    private final class TransactionalSubscriber implements Subscriber<Object> {
+        private final Subscriber<? super Object> actual;
+        private final TransactionInfo transactionInfo;
+        private final TransactionSynchronizationManager.State transactionState;
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        TransactionalSubscriber(
+                Subscriber<? super Object> actual,
+                TransactionInfo transactionInfo,
+                TransactionSynchronizationManager.State transactionState) {
+            this.actual = actual;
+            this.transactionInfo = transactionInfo;
+            this.transactionState = transactionState;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            actual.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                    subscription.request(n);
+                }
+
+                @Override
+                public void cancel() {
+                    subscription.cancel();
+                    if (completed.compareAndSet(false, true)) {
+                        TransactionSynchronizationManager.withState(transactionState, () -> {
+                            transactionInfo.getTransactionManager().rollback(transactionInfo.getTransactionStatus());
+                            return null;
+                        });
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void onNext(Object o) {
+            actual.onNext(o);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            Throwable error = t;
+            if (completed.compareAndSet(false, true)) {
+                try {
+                    TransactionSynchronizationManager.withState(transactionState, () -> {
+                        completeTransactionAfterThrowing(transactionInfo, t);
+                        return null;
+                    });
+                } catch (Throwable e) {
+                    error = e;
+                }
+            }
+            actual.onError(error);
+        }
+
+        @Override
+        public void onComplete() {
+            if (completed.compareAndSet(false, true)) {
+                try {
+                    TransactionSynchronizationManager.withState(transactionState, () -> {
+                        commitTransactionAfterReturning(transactionInfo);
+                        return null;
+                    });
+                } catch (Throwable e) {
+                    actual.onError(e);
+                    return;
+                }
+            }
+            actual.onComplete();
+        }
+    }
+
     /**
      * Cached invocation associating a method with a definition a transaction manager.
      */
     private final class TransactionInvocation {
         final SynchronousTransactionManager transactionManager;
         final TransactionAttribute definition;
+        final TransactionRetryPolicy retryPolicy;
 
-        TransactionInvocation(SynchronousTransactionManager transactionManager, TransactionAttribute definition) {
+        TransactionInvocation(
+                SynchronousTransactionManager transactionManager,
+                TransactionAttribute definition,
+                @Nullable TransactionRetryPolicy retryPolicy) {
             this.transactionManager = transactionManager;
             this.definition = definition;
+            this.retryPolicy = retryPolicy;
         }
     }
 
@@ -351,14 +647,14 @@ public class TransactionalInterceptor implements MethodInterceptor<Object, Objec
         private void bindToThread() {
             // Expose current TransactionStatus, preserving any existing TransactionStatus
             // for restoration after this transaction is complete.
-            this.oldTransactionInfo = TRANSACTION_INFO_HOLDER.get();
-            TRANSACTION_INFO_HOLDER.set(this);
+            this.oldTransactionInfo = currentTransactionInfo();
+            TransactionSynchronizationManager.setStateValue(TRANSACTION_INFO_KEY, this);
         }
 
         private void restoreThreadLocalStatus() {
             // Use stack to restore old transaction TransactionInfo.
             // Will be null if none was set.
-            TRANSACTION_INFO_HOLDER.set(this.oldTransactionInfo);
+            TransactionSynchronizationManager.setStateValue(TRANSACTION_INFO_KEY, this.oldTransactionInfo);
         }
 
         @Override
@@ -58,6 +58,17 @@ public class ConnectionHolder extends ResourceHolderSupport {
 
     private int savepointCounter = 0;
 
+    @Nullable
+    private Boolean autoCommit;
+
+    @Nullable
+    private Boolean readOnly;
+
+    @Nullable
+    private Integer transactionIsolation;
+
+    @Nullable
+    private Boolean defaultReadOnly;
 
     /**
      * Create a new ConnectionHolder for the given ConnectionHandle.
@@ -139,6 +150,7 @@ public class ConnectionHolder extends ResourceHolderSupport {
             }
             this.currentConnection = null;
         }
+        clearKnownState();
         if (connection != null) {
             this.connectionHandle = new SimpleConnectionHandle(connection);
         } else {
@@ -176,6 +188,122 @@ public class ConnectionHolder extends ResourceHolderSupport {
         return this.savepointsSupported;
     }
 
+    /**
+     * Seed the known state of the held Connection, for example with the defaults that a
+     * connection pool is configured to hand out Connections with. Values that are
+     * {@code null} are looked up from the Connection on first access. A known read-only
+     * flag is also the flag that the Connection is reset to after a transaction.
+     * @param autoCommit The known auto-commit mode
+     * @param readOnly The known read-only flag
+     * @param transactionIsolation The known isolation level
+     * @since 1.0.1
+     */
+    public void setKnownState(@Nullable Boolean autoCommit, @Nullable Boolean readOnly, @Nullable Integer transactionIsolation) {
+        this.autoCommit = autoCommit;
+        this.readOnly = readOnly;
+        this.transactionIsolation = transactionIsolation;
+        this.defaultReadOnly = readOnly;
+    }
+
+    /**
+     * Return the auto-commit mode of the current Connection, only querying
+     * the Connection if the mode is not already known.
+     * @return The auto-commit mode
+     * @throws SQLException if thrown by the JDBC driver
+     * @since 1.0.1
+     */
+    public boolean isAutoCommit() throws SQLException {
+        if (this.autoCommit == null) {
+            this.autoCommit = getConnection().getAutoCommit();
+        }
+        return this.autoCommit;
+    }
+
+    /**
+     * Set the auto-commit mode of the current Connection, skipping the call
+     * if the Connection is known to already be in the given mode.
+     * @param autoCommit The auto-commit mode
+     * @throws SQLException if thrown by the JDBC driver
+     * @since 1.0.1
+     */
+    public void setAutoCommit(boolean autoCommit) throws SQLException {
+        if (this.autoCommit == null || this.autoCommit != autoCommit) {
+            getConnection().setAutoCommit(autoCommit);
+            this.autoCommit = autoCommit;
+        }
+    }
+
+    /**
+     * Return the read-only flag of the current Connection, only querying
+     * the Connection if the flag is not already known.
+     * @return The read-only flag
+     * @throws SQLException if thrown by the JDBC driver
+     * @since 1.0.1
+     */
+    public boolean isReadOnly() throws SQLException {
+        if (this.readOnly == null) {
+            this.readOnly = getConnection().isReadOnly();
+        }
+        return this.readOnly;
+    }
+
+    /**
+     * @return Whether the current Connection is known to be read-only, without querying the Connection.
+     */
+    boolean isKnownReadOnly() {
+        return Boolean.TRUE.equals(this.readOnly);
+    }
+
+    /**
+     * @return The read-only flag the Connection was known to have when it was handed out, if seeded with {@link #setKnownState}
+     */
+    @Nullable
+    Boolean getDefaultReadOnly() {
+        return this.defaultReadOnly;
+    }
+
+    /**
+     * Set the read-only flag of the current Connection, skipping the call
+     * if the Connection is known to already have the given flag.
+     * @param readOnly The read-only flag
+     * @throws SQLException if thrown by the JDBC driver
+     * @since 1.0.1
+     */
+    public void setReadOnly(boolean readOnly) throws SQLException {
+        if (this.readOnly == null || this.readOnly != readOnly) {
+            getConnection().setReadOnly(readOnly);
+            this.readOnly = readOnly;
+        }
+    }
+
+    /**
+     * Return the isolation level of the current Connection, only querying
+     * the Connection if the level is not already known.
+     * @return The isolation level
+     * @throws SQLException if thrown by the JDBC driver
+     * @since 1.0.1
+     */
+    public int getTransactionIsolation() throws SQLException {
+        if (this.transactionIsolation == null) {
+            this.transactionIsolation = getConnection().getTransactionIsolation();
+        }
+        return this.transactionIsolation;
+    }
+
+    /**
+     * Set the isolation level of the current Connection, skipping the call
+     * if the Connection is known to already have the given level.
+     * @param transactionIsolation The isolation level
+     * @throws SQLException if thrown by the JDBC driver
+     * @since 1.0.1
+     */
+    public void setTransactionIsolation(int transactionIsolation) throws SQLException {
+        if (this.transactionIsolation == null || this.transactionIsolation != transactionIsolation) {
+            getConnection().setTransactionIsolation(transactionIsolation);
+            this.transactionIsolation = transactionIsolation;
+        }
+    }
+
     /**
      * Create a new JDBC 3.0 Savepoint for the current Connection,
      * using generated savepoint names that are unique for the Connection.
@@ -211,6 +339,14 @@ public class ConnectionHolder extends ResourceHolderSupport {
         this.transactionActive = false;
         this.savepointsSupported = null;
         this.savepointCounter = 0;
+        clearKnownState();
+    }
+
+    private void clearKnownState() {
+        this.autoCommit = null;
+        this.readOnly = null;
+        this.transactionIsolation = null;
+        this.defaultReadOnly = null;
     }
 
 }
@@ -20,6 +20,7 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import io.micronaut.context.annotation.EachBean;
 import io.micronaut.context.annotation.Requires;
+import io.micronaut.transaction.TransactionCallback;
 import io.micronaut.transaction.TransactionDefinition;
 import io.micronaut.transaction.exceptions.CannotCreateTransactionException;
 import io.micronaut.transaction.exceptions.TransactionSystemException;
@@ -27,10 +28,20 @@ import io.micronaut.transaction.jdbc.exceptions.CannotGetJdbcConnectionException
 import io.micronaut.transaction.support.*;
 
 import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.regex.Pattern;
 import javax.sql.DataSource;
 
 
@@ -92,10 +103,18 @@ import javax.sql.DataSource;
 public class DataSourceTransactionManager extends AbstractSynchronousTransactionManager<Connection>
         implements ResourceTransactionManager<DataSource, Connection> {
 
+    private static final Pattern SNAPSHOT_ID = Pattern.compile("[0-9A-Fa-f-]+");
+
     private final DataSource dataSource;
 
     private boolean enforceReadOnly = false;
 
+    private boolean trustPoolDefaults = false;
+
+    private boolean useSetTransactionStatement = false;
+
+    private final Map<DataSource, ConnectionDefaults> poolDefaults = new ConcurrentHashMap<>(5);
+
     /**
      * Create a new DataSourceTransactionManager instance.
      * @param dataSource the JDBC DataSource to manage transactions for
@@ -147,6 +166,52 @@ public class DataSourceTransactionManager extends AbstractSynchronousTransaction
         return this.enforceReadOnly;
     }
 
+    /**
+     * Specify whether to trust that the connection pool hands out connections in
+     * their default state. If enabled, the auto-commit mode, read-only flag and isolation
+     * level of the first connection obtained from a pool are remembered and assumed for all
+     * subsequent connections of that pool, avoiding the round trips to query them at the start
+     * of every transaction. The primary and each read replica are tracked separately, and the
+     * read-only flag is restored to the remembered value after each transaction. Only enable
+     * this if the pool resets connections that are returned to it.
+     * @param trustPoolDefaults Whether to trust the defaults of the pool
+     * @since 1.0.1
+     */
+    public void setTrustPoolDefaults(boolean trustPoolDefaults) {
+        this.trustPoolDefaults = trustPoolDefaults;
+    }
+
+    /**
+     * @return Whether the connection defaults of the pool are trusted.
+     * @since 1.0.1
+     * @see #setTrustPoolDefaults
+     */
+    public boolean isTrustPoolDefaults() {
+        return this.trustPoolDefaults;
+    }
+
+    /**
+     * Specify whether to apply the read-only flag and isolation level of a transaction with a
+     * single "SET TRANSACTION READ ONLY, ISOLATION LEVEL ..." statement, as understood by MySQL and
+     * Postgres, instead of calling {@link Connection#setReadOnly} and {@link Connection#setTransactionIsolation}.
+     * Since the statement only applies to the current transaction nothing has to be reset afterwards.
+     * @param useSetTransactionStatement Whether to use a "SET TRANSACTION" statement
+     * @since 1.0.1
+     * @see #buildSetTransactionStatement
+     */
+    public void setUseSetTransactionStatement(boolean useSetTransactionStatement) {
+        this.useSetTransactionStatement = useSetTransactionStatement;
+    }
+
+    /**
+     * @return Whether a "SET TRANSACTION" statement is used to apply the transaction characteristics.
+     * @since 1.0.1
+     * @see #setUseSetTransactionStatement
+     */
+    public boolean isUseSetTransactionStatement() {
+        return this.useSetTransactionStatement;
+    }
+
     @Override
     public DataSource getResourceFactory() {
         return getDataSource();
@@ -184,28 +249,42 @@ public class DataSourceTransactionManager extends AbstractSynchronousTransaction
         try {
             if (!txObject.hasConnectionHolder() ||
                     txObject.getConnectionHolder().isSynchronizedWithTransaction()) {
-                Connection newCon = dataSource.getConnection();
+                Connection newCon = obtainConnection(definition);
                 if (logger.isDebugEnabled()) {
                     logger.debug("Acquired Connection [" + newCon + "] for JDBC transaction");
                 }
                 txObject.setConnectionHolder(new ConnectionHolder(newCon), true);
             }
 
-            txObject.getConnectionHolder().setSynchronizedWithTransaction(true);
-            con = txObject.getConnectionHolder().getConnection();
+            ConnectionHolder connectionHolder = txObject.getConnectionHolder();
+            connectionHolder.setSynchronizedWithTransaction(true);
+            con = connectionHolder.getConnection();
+            if (trustPoolDefaults && txObject.isNewConnectionHolder()) {
+                DataSource pool = resolvePool(con);
+                if (pool != null) {
+                    ConnectionDefaults defaults = poolDefaults.get(pool);
+                    if (defaults == null) {
+                        defaults = new ConnectionDefaults(con);
+                        poolDefaults.put(pool, defaults);
+                    }
+                    connectionHolder.setKnownState(defaults.autoCommit, defaults.readOnly, defaults.transactionIsolation);
+                }
+            }
 
-            TransactionDefinition.Isolation previousIsolationLevel = DataSourceUtils.prepareConnectionForTransaction(con, definition);
-            txObject.setPreviousIsolationLevel(previousIsolationLevel);
+            if (!useSetTransactionStatement) {
+                TransactionDefinition.Isolation previousIsolationLevel = DataSourceUtils.prepareConnectionForTransaction(connectionHolder, definition);
+                txObject.setPreviousIsolationLevel(previousIsolationLevel);
+            }
 
             // Switch to manual commit if necessary. This is very expensive in some JDBC drivers,
             // so we don't want to do it unnecessarily (for example if we've explicitly
             // configured the connection pool to set it already).
-            if (con.getAutoCommit()) {
+            if (connectionHolder.isAutoCommit()) {
                 txObject.setMustRestoreAutoCommit(true);
                 if (logger.isDebugEnabled()) {
                     logger.debug("Switching JDBC Connection [" + con + "] to manual commit");
                 }
-                con.setAutoCommit(false);
+                connectionHolder.setAutoCommit(false);
             }
 
             prepareTransactionalConnection(con, definition);
@@ -254,6 +333,13 @@ public class DataSourceTransactionManager extends AbstractSynchronousTransaction
         } catch (SQLException ex) {
             throw new TransactionSystemException("Could not commit JDBC transaction", ex);
         }
+        if (!status.isReadOnly()) {
+            DataSource target = dataSource instanceof LazyConnectionDataSourceProxy ?
+                    ((LazyConnectionDataSourceProxy) dataSource).getTargetDataSource() : dataSource;
+            if (target instanceof ReadReplicaRoutingDataSource && LazyConnectionDataSourceProxy.isTargetConnectionFetched(con)) {
+                ((ReadReplicaRoutingDataSource) target).writeCommitted();
+            }
+        }
     }
 
     @Override
@@ -290,12 +376,13 @@ public class DataSourceTransactionManager extends AbstractSynchronousTransaction
         }
 
         // Reset connection.
-        Connection con = txObject.getConnectionHolder().getConnection();
+        ConnectionHolder connectionHolder = txObject.getConnectionHolder();
+        Connection con = connectionHolder.getConnection();
         try {
             if (txObject.isMustRestoreAutoCommit()) {
-                con.setAutoCommit(true);
+                connectionHolder.setAutoCommit(true);
             }
-            DataSourceUtils.resetConnectionAfterTransaction(con, txObject.getPreviousIsolationLevel());
+            DataSourceUtils.resetConnectionAfterTransaction(connectionHolder, txObject.getPreviousIsolationLevel());
         } catch (Throwable ex) {
             logger.debug("Could not reset JDBC Connection after transaction", ex);
         }
@@ -311,28 +398,235 @@ public class DataSourceTransactionManager extends AbstractSynchronousTransaction
     }
 
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>If the database supports exporting a snapshot (see {@link #exportSnapshot(Connection)}) the first
+     * callback runs in a read-only, repeatable read transaction that exports its snapshot, while the remaining
+     * callbacks run concurrently on the executor in new transactions on their own connections that import it.
+     * Otherwise the callbacks run one after the other in a single read-only transaction.</p>
+     *
+     * <p>If the data source routes read-only transactions to read replicas, the importing transactions obtain their
+     * connections from the same replica as the exporting transaction.</p>
+     */
+    @Override
+    public <R> List<R> executeReadInParallel(
+            @NonNull List<? extends TransactionCallback<Connection, ? extends R>> callbacks,
+            @NonNull Executor executor) {
+        Objects.requireNonNull(callbacks, "Callbacks cannot be null");
+        Objects.requireNonNull(executor, "Executor cannot be null");
+        if (callbacks.isEmpty()) {
+            return Collections.emptyList();
+        }
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setReadOnly(true);
+        definition.setIsolationLevel(TransactionDefinition.Isolation.REPEATABLE_READ);
+        return execute(definition, status -> {
+            int size = callbacks.size();
+            String snapshot = size > 1 ? exportSnapshot(status.getConnection()) : null;
+            DataSource exporter = null;
+            if (snapshot != null && getRoutingDataSource() != null) {
+                // a snapshot can only be imported on the database that exported it, so pin the importing
+                // transactions to the replica (or primary) of the exporting transaction
+                exporter = resolveRoutedDataSource(status.getConnection());
+                if (exporter == null) {
+                    snapshot = null;
+                }
+            }
+            List<R> results = new ArrayList<>(size);
+            if (snapshot == null) {
+                for (TransactionCallback<Connection, ? extends R> callback : callbacks) {
+                    results.add(callback.call(status));
+                }
+                return results;
+            }
+
+            // the exporting transaction must stay open until every other transaction has imported the snapshot,
+            // which is guaranteed by joining all of them before it completes
+            DefaultTransactionDefinition importing = new PinnedTransactionDefinition(definition, exporter);
+            importing.setPropagationBehavior(TransactionDefinition.Propagation.REQUIRES_NEW);
+            String exported = snapshot;
+            List<CompletableFuture<R>> futures = new ArrayList<>(size - 1);
+            for (TransactionCallback<Connection, ? extends R> callback : callbacks.subList(1, size)) {
+                futures.add(CompletableFuture.supplyAsync(() -> this.<R>execute(importing, importingStatus -> {
+                    importSnapshot(importingStatus.getConnection(), exported);
+                    return callback.call(importingStatus);
+                }), executor));
+            }
+            Throwable failure = null;
+            try {
+                results.add(callbacks.get(0).call(status));
+            } catch (Exception e) {
+                failure = e;
+            }
+            for (CompletableFuture<R> future : futures) {
+                try {
+                    results.add(future.join());
+                } catch (CompletionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    if (failure == null) {
+                        failure = cause;
+                    } else {
+                        failure.addSuppressed(cause);
+                    }
+                }
+            }
+            if (failure instanceof Exception) {
+                throw (Exception) failure;
+            } else if (failure != null) {
+                throw (Error) failure;
+            }
+            return results;
+        });
+    }
+
+    /**
+     * Export the snapshot of the transaction of the given connection so that other transactions can
+     * {@link #importSnapshot(Connection, String) import} it. The default implementation supports Postgres
+     * with {@code pg_export_snapshot()} and returns {@code null} for other databases.
+     * @param connection The connection of a read-only, repeatable read transaction
+     * @return The snapshot identifier or {@code null} if the database does not support exporting snapshots
+     * @throws SQLException if thrown by JDBC API
+     * @since 1.0.1
+     */
+    @Nullable
+    protected String exportSnapshot(Connection connection) throws SQLException {
+        if (!"PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())) {
+            return null;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT pg_export_snapshot()")) {
+            return resultSet.next() ? resultSet.getString(1) : null;
+        }
+    }
+
+    /**
+     * Import a snapshot previously {@link #exportSnapshot(Connection) exported} by another transaction. Invoked
+     * before anything else is executed in the transaction of the given connection.
+     * @param connection The connection of a read-only, repeatable read transaction
+     * @param snapshot The snapshot identifier
+     * @throws SQLException if thrown by JDBC API
+     * @since 1.0.1
+     */
+    protected void importSnapshot(Connection connection, String snapshot) throws SQLException {
+        if (!SNAPSHOT_ID.matcher(snapshot).matches()) {
+            throw new SQLException("Invalid snapshot identifier: " + snapshot);
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET TRANSACTION SNAPSHOT '" + snapshot + "'");
+        }
+    }
+
+    /**
+     * Obtain a new {@code Connection} for a transaction. If the data source is a {@link ReadReplicaRoutingDataSource}
+     * connections for read-only transactions are obtained from a read replica. If the data source is a
+     * {@link LazyConnectionDataSourceProxy} the returned connection is a proxy that only obtains the target
+     * connection once it is first used.
+     * @param definition the current transaction definition
+     * @return The connection
+     * @throws SQLException if thrown by JDBC API
+     */
+    protected Connection obtainConnection(TransactionDefinition definition) throws SQLException {
+        if (definition instanceof PinnedTransactionDefinition) {
+            DataSource pinned = ((PinnedTransactionDefinition) definition).dataSource;
+            ReadReplicaRoutingDataSource routingDataSource = getRoutingDataSource();
+            if (pinned != null && routingDataSource != null) {
+                return routingDataSource.getConnection(pinned);
+            }
+        }
+        if (dataSource instanceof ReadReplicaRoutingDataSource) {
+            return ((ReadReplicaRoutingDataSource) dataSource).getConnection(definition.isReadOnly());
+        }
+        return dataSource.getConnection();
+    }
+
+    /**
+     * @return The data source that routes read-only transactions to read replicas, if any, possibly wrapped by a lazy proxy
+     */
+    @Nullable
+    private ReadReplicaRoutingDataSource getRoutingDataSource() {
+        DataSource target = dataSource instanceof LazyConnectionDataSourceProxy ?
+                ((LazyConnectionDataSourceProxy) dataSource).getTargetDataSource() : dataSource;
+        return target instanceof ReadReplicaRoutingDataSource ? (ReadReplicaRoutingDataSource) target : null;
+    }
+
+    /**
+     * Resolves the primary or read replica that a connection was obtained from.
+     * @param connection The connection
+     * @return The data source or null if the connection was not routed or the target of a lazy connection has not been fetched
+     */
+    @Nullable
+    private DataSource resolveRoutedDataSource(Connection connection) {
+        ReadReplicaRoutingDataSource routingDataSource = getRoutingDataSource();
+        Connection target = LazyConnectionDataSourceProxy.getTargetConnection(connection);
+        return routingDataSource != null && target != null ? routingDataSource.getDataSource(target) : null;
+    }
+
+    /**
+     * Resolves the data source that the given connection was physically obtained from, whose defaults are
+     * learned separately since the primary and each read replica may hand out connections in a different state.
+     * @param connection The connection
+     * @return The data source or null if the connection is a lazy proxy, which tracks the state of the target connection itself
+     */
+    @Nullable
+    private DataSource resolvePool(Connection connection) {
+        if (dataSource instanceof ReadReplicaRoutingDataSource) {
+            return ((ReadReplicaRoutingDataSource) dataSource).getDataSource(connection);
+        } else if (dataSource instanceof LazyConnectionDataSourceProxy) {
+            return null;
+        }
+        return dataSource;
+    }
+
     /**
      * Prepare the transactional {@code Connection} right after transaction begin.
-     * <p>The default implementation executes a "SET TRANSACTION READ ONLY" statement
-     * if the {@link #setEnforceReadOnly "enforceReadOnly"} flag is set to {@code true}
-     * and the transaction definition indicates a read-only transaction.
-     * <p>The "SET TRANSACTION READ ONLY" is understood by Oracle, MySQL and Postgres
-     * and may work with other databases as well. If you'd like to adapt this treatment,
-     * override this method accordingly.
+     * <p>The default implementation executes the statement returned by
+     * {@link #buildSetTransactionStatement}, if any.
      * @param con the transactional JDBC Connection
      * @param definition the current transaction definition
      * @throws SQLException if thrown by JDBC API
      * @since 4.3.7
      * @see #setEnforceReadOnly
+     * @see #setUseSetTransactionStatement
      */
     protected void prepareTransactionalConnection(Connection con, TransactionDefinition definition)
             throws SQLException {
 
-        if (isEnforceReadOnly() && definition.isReadOnly()) {
+        String setTransaction = buildSetTransactionStatement(definition);
+        if (setTransaction != null) {
             try (Statement stmt = con.createStatement()) {
-                stmt.executeUpdate("SET TRANSACTION READ ONLY");
+                stmt.executeUpdate(setTransaction);
+            }
+        }
+    }
+
+    /**
+     * Build the "SET TRANSACTION" statement to execute at the start of a transaction.
+     * <p>The statement includes "READ ONLY" if the {@link #setEnforceReadOnly "enforceReadOnly"}
+     * or {@link #setUseSetTransactionStatement "useSetTransactionStatement"} flag is set to {@code true}
+     * and the transaction definition indicates a read-only transaction. It includes the isolation level
+     * if the {@link #setUseSetTransactionStatement "useSetTransactionStatement"} flag is set.
+     * <p>"SET TRANSACTION READ ONLY" is understood by Oracle, MySQL and Postgres. Combining it with an
+     * isolation level in a single statement is understood by MySQL and Postgres. If you'd like to adapt
+     * this treatment, override this method accordingly.
+     * @param definition the current transaction definition
+     * @return The statement or {@code null} if none should be executed
+     * @since 1.0.1
+     */
+    @Nullable
+    protected String buildSetTransactionStatement(TransactionDefinition definition) {
+        StringBuilder modes = new StringBuilder();
+        TransactionDefinition.Isolation isolationLevel = definition.getIsolationLevel();
+        if (useSetTransactionStatement && isolationLevel != TransactionDefinition.Isolation.DEFAULT) {
+            modes.append("ISOLATION LEVEL ").append(isolationLevel.name().replace('_', ' '));
+        }
+        if ((enforceReadOnly || useSetTransactionStatement) && definition.isReadOnly()) {
+            if (modes.length() > 0) {
+                modes.append(", ");
             }
+            modes.append("READ ONLY");
         }
+        return modes.length() > 0 ? "SET TRANSACTION " + modes : null;
     }
 
     @NonNull
@@ -341,6 +635,33 @@ public class DataSourceTransactionManager extends AbstractSynchronousTransaction
         return DataSourceUtils.getConnection(dataSource, false);
     }
 
+    /**
+     * The definition of a transaction that obtains its connection from a specific primary or read replica.
+     */
+    private static final class PinnedTransactionDefinition extends DefaultTransactionDefinition {
+        @Nullable
+        private final DataSource dataSource;
+
+        PinnedTransactionDefinition(TransactionDefinition other, @Nullable DataSource dataSource) {
+            super(other);
+            this.dataSource = dataSource;
+        }
+    }
+
+    /**
+     * The state connections are handed out with by the pool.
+     */
+    private static final class ConnectionDefaults {
+        final boolean autoCommit;
+        final boolean readOnly;
+        final int transactionIsolation;
+
+        ConnectionDefaults(Connection connection) throws SQLException {
+            this.autoCommit = connection.getAutoCommit();
+            this.readOnly = connection.isReadOnly();
+            this.transactionIsolation = connection.getTransactionIsolation();
+        }
+    }
 
     /**
      * DataSource transaction object, representing a ConnectionHolder.
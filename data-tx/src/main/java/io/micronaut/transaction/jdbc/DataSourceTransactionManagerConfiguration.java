@@ -0,0 +1,94 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.transaction.jdbc;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.micronaut.context.annotation.EachProperty;
+import io.micronaut.context.annotation.Parameter;
+import io.micronaut.core.naming.Named;
+
+/**
+ * Configures the {@link DataSourceTransactionManager} of the data source of the same name, for example:
+ *
+ * <pre>
+ * datasources:
+ *   default:
+ *     trust-pool-defaults: true
+ *     use-set-transaction-statement: true
+ * </pre>
+ *
+ * @author graemerocher
+ * @since 1.0.1
+ */
+@EachProperty(DataSourceTransactionManagerConfiguration.PREFIX)
+public class DataSourceTransactionManagerConfiguration implements Named {
+    /**
+     * The prefix to use.
+     */
+    public static final String PREFIX = "datasources";
+
+    private final String name;
+    private boolean trustPoolDefaults;
+    private boolean useSetTransactionStatement;
+
+    /**
+     * The configuration.
+     * @param name The name of the data source
+     */
+    public DataSourceTransactionManagerConfiguration(@Parameter String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return Whether the connection defaults of the pool are trusted.
+     * @see DataSourceTransactionManager#setTrustPoolDefaults(boolean)
+     */
+    public boolean isTrustPoolDefaults() {
+        return trustPoolDefaults;
+    }
+
+    /**
+     * Sets whether the connection defaults of the pool are trusted.
+     * @param trustPoolDefaults Whether to trust the defaults of the pool
+     * @see DataSourceTransactionManager#setTrustPoolDefaults(boolean)
+     */
+    public void setTrustPoolDefaults(boolean trustPoolDefaults) {
+        this.trustPoolDefaults = trustPoolDefaults;
+    }
+
+    /**
+     * @return Whether a "SET TRANSACTION" statement is used to apply the transaction characteristics.
+     * @see DataSourceTransactionManager#setUseSetTransactionStatement(boolean)
+     */
+    public boolean isUseSetTransactionStatement() {
+        return useSetTransactionStatement;
+    }
+
+    /**
+     * Sets whether a "SET TRANSACTION" statement is used to apply the transaction characteristics.
+     * @param useSetTransactionStatement Whether to use a "SET TRANSACTION" statement
+     * @see DataSourceTransactionManager#setUseSetTransactionStatement(boolean)
+     */
+    public void setUseSetTransactionStatement(boolean useSetTransactionStatement) {
+        this.useSetTransactionStatement = useSetTransactionStatement;
+    }
+
+    @NonNull
+    @Override
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.transaction.jdbc;
+
+import io.micronaut.context.BeanContext;
+import io.micronaut.context.event.BeanCreatedEvent;
+import io.micronaut.context.event.BeanCreatedEventListener;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.inject.qualifiers.Qualifiers;
+
+import javax.inject.Singleton;
+
+/**
+ * Applies the {@link DataSourceTransactionManagerConfiguration} of the data source to its {@link DataSourceTransactionManager}.
+ *
+ * @author graemerocher
+ * @since 1.0.1
+ */
+@Internal
+@Singleton
+class DataSourceTransactionManagerListener implements BeanCreatedEventListener<DataSourceTransactionManager> {
+
+    private final BeanContext beanContext;
+
+    /**
+     * Default constructor.
+     * @param beanContext The bean context
+     */
+    DataSourceTransactionManagerListener(BeanContext beanContext) {
+        this.beanContext = beanContext;
+    }
+
+    @Override
+    public DataSourceTransactionManager onCreated(BeanCreatedEvent<DataSourceTransactionManager> event) {
+        DataSourceTransactionManager transactionManager = event.getBean();
+        String name = event.getBeanIdentifier().getName();
+        beanContext.findBean(DataSourceTransactionManagerConfiguration.class, Qualifiers.byName(name))
+                .ifPresent(configuration -> {
+                    transactionManager.setTrustPoolDefaults(configuration.isTrustPoolDefaults());
+                    transactionManager.setUseSetTransactionStatement(configuration.isUseSetTransactionStatement());
+                });
+        return transactionManager;
+    }
+}
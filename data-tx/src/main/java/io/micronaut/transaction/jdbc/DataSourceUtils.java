@@ -206,16 +206,7 @@ public abstract class DataSourceUtils {
                 }
                 con.setReadOnly(true);
             } catch (SQLException | RuntimeException ex) {
-                Throwable exToCheck = ex;
-                while (exToCheck != null) {
-                    if (exToCheck.getClass().getSimpleName().contains("Timeout")) {
-                        // Assume it's a connection timeout that would otherwise get lost: e.g. from JDBC 4.0
-                        throw ex;
-                    }
-                    exToCheck = exToCheck.getCause();
-                }
-                // "read-only not supported" SQLException -> ignore, it's just a hint anyway
-                LOGGER.debug("Could not set JDBC Connection read-only", ex);
+                handleReadOnlyFailure(ex);
             }
         }
 
@@ -270,6 +261,96 @@ public abstract class DataSourceUtils {
         }
     }
 
+    /**
+     * Prepare the Connection of the given holder with the given transaction semantics.
+     * Unlike {@link #prepareConnectionForTransaction(Connection, TransactionDefinition)}
+     * this uses the state tracked by the {@link ConnectionHolder}, skipping calls to the
+     * driver that would not change anything.
+     * @param holder the holder of the Connection to prepare
+     * @param definition the transaction definition to apply
+     * @return the previous isolation level, if any
+     * @throws SQLException if thrown by JDBC methods
+     * @see #resetConnectionAfterTransaction(ConnectionHolder, TransactionDefinition.Isolation)
+     * @since 1.0.1
+     */
+    @Nullable
+    public static TransactionDefinition.Isolation prepareConnectionForTransaction(ConnectionHolder holder, @Nullable TransactionDefinition definition)
+            throws SQLException {
+
+        Objects.requireNonNull(holder, "No ConnectionHolder specified");
+
+        if (definition != null && definition.isReadOnly()) {
+            try {
+                holder.setReadOnly(true);
+            } catch (SQLException | RuntimeException ex) {
+                handleReadOnlyFailure(ex);
+            }
+        }
+
+        TransactionDefinition.Isolation previousIsolationLevel = null;
+        if (definition != null) {
+            TransactionDefinition.Isolation isolationLevel = definition.getIsolationLevel();
+            if (isolationLevel != TransactionDefinition.Isolation.DEFAULT) {
+                int currentIsolation = holder.getTransactionIsolation();
+                if (currentIsolation != isolationLevel.getCode()) {
+                    if (LOGGER.isDebugEnabled()) {
+                        LOGGER.debug("Changing isolation level of JDBC Connection [" + holder.getConnection() + "] to " +
+                                isolationLevel);
+                    }
+                    previousIsolationLevel = TransactionDefinition.Isolation.valueOf(currentIsolation);
+                    holder.setTransactionIsolation(isolationLevel.getCode());
+                }
+            }
+        }
+
+        return previousIsolationLevel;
+    }
+
+    /**
+     * Reset the Connection of the given holder after a transaction,
+     * regarding read-only flag and isolation level. Unlike
+     * {@link #resetConnectionAfterTransaction(Connection, TransactionDefinition.Isolation)}
+     * the read-only flag is only reset if it is known to be set, avoiding a round trip
+     * to query it. If the holder was seeded with the state the Connection was handed out with,
+     * the read-only flag is restored to that state instead.
+     * @param holder the holder of the Connection to reset
+     * @param previousIsolationLevel the isolation level to restore, if any
+     * @see #prepareConnectionForTransaction(ConnectionHolder, TransactionDefinition)
+     * @since 1.0.1
+     */
+    public static void resetConnectionAfterTransaction(ConnectionHolder holder, @Nullable TransactionDefinition.Isolation previousIsolationLevel) {
+        Objects.requireNonNull(holder, "No ConnectionHolder specified");
+        try {
+            if (previousIsolationLevel != null) {
+                holder.setTransactionIsolation(previousIsolationLevel.getCode());
+            }
+            Boolean defaultReadOnly = holder.getDefaultReadOnly();
+            if (defaultReadOnly != null) {
+                holder.setReadOnly(defaultReadOnly);
+            } else if (holder.isKnownReadOnly()) {
+                holder.setReadOnly(false);
+            }
+        } catch (Throwable ex) {
+            LOGGER.debug("Could not reset JDBC Connection after transaction", ex);
+        }
+    }
+
+    private static void handleReadOnlyFailure(Exception ex) throws SQLException {
+        Throwable exToCheck = ex;
+        while (exToCheck != null) {
+            if (exToCheck.getClass().getSimpleName().contains("Timeout")) {
+                // Assume it's a connection timeout that would otherwise get lost: e.g. from JDBC 4.0
+                if (ex instanceof SQLException) {
+                    throw (SQLException) ex;
+                }
+                throw (RuntimeException) ex;
+            }
+            exToCheck = exToCheck.getCause();
+        }
+        // "read-only not supported" SQLException -> ignore, it's just a hint anyway
+        LOGGER.debug("Could not set JDBC Connection read-only", ex);
+    }
+
     /**
      * Determine whether the given JDBC Connection is transactional, that is,
      * bound to the current thread by Spring's transaction facilities.
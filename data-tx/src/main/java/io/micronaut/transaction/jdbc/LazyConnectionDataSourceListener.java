@@ -0,0 +1,74 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.transaction.jdbc;
+
+import io.micronaut.context.env.Environment;
+import io.micronaut.context.event.BeanCreatedEvent;
+import io.micronaut.context.event.BeanCreatedEventListener;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.order.Ordered;
+
+import javax.inject.Singleton;
+import javax.sql.DataSource;
+
+/**
+ * Wraps a data source in a {@link LazyConnectionDataSourceProxy} if {@code datasources.[name].lazy-connection}
+ * is set to {@code true}. Runs after the {@link ReadReplicaDataSourceListener} so that the lazy proxy is the outermost
+ * data source.
+ *
+ * @author graemerocher
+ * @since 1.0.1
+ */
+@Internal
+@Singleton
+class LazyConnectionDataSourceListener implements BeanCreatedEventListener<DataSource>, Ordered {
+    /**
+     * The position of the listener.
+     */
+    static final int POSITION = ReadReplicaDataSourceListener.POSITION + 100;
+
+    /**
+     * The property suffix used to enable lazy connections.
+     */
+    static final String LAZY_CONNECTION = "lazy-connection";
+
+    private final Environment environment;
+
+    /**
+     * Default constructor.
+     * @param environment The environment
+     */
+    LazyConnectionDataSourceListener(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public int getOrder() {
+        return POSITION;
+    }
+
+    @Override
+    public DataSource onCreated(BeanCreatedEvent<DataSource> event) {
+        DataSource dataSource = event.getBean();
+        if (dataSource instanceof LazyConnectionDataSourceProxy) {
+            return dataSource;
+        }
+        String name = event.getBeanIdentifier().getName();
+        boolean lazy = environment.getProperty("datasources." + name + "." + LAZY_CONNECTION, Boolean.class)
+                .orElse(false);
+        return lazy ? new LazyConnectionDataSourceProxy(dataSource) : dataSource;
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.transaction.jdbc;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micronaut.transaction.support.TransactionSynchronizationManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A {@link DataSource} that hands out lazy {@link Connection} proxies. The target connection is only obtained
+ * from the target data source when it is actually needed, for example when the first {@link java.sql.Statement}
+ * is created.
+ *
+ * <p>Until then calls to {@code setAutoCommit}, {@code setReadOnly} and {@code setTransactionIsolation} are
+ * recorded and applied once the target connection is fetched, while {@code commit}, {@code rollback} and
+ * {@code close} are no-ops. A transaction that never issues any SQL therefore never takes a connection from
+ * the pool.</p>
+ *
+ * <p>The default auto-commit and isolation settings of the target data source are determined from the first
+ * connection that is fetched. They can also be specified up front with {@link #setDefaultAutoCommit(boolean)}
+ * and {@link #setDefaultTransactionIsolation(int)}, which avoids the first transaction having to fetch a
+ * connection just to determine them.</p>
+ *
+ * <p>If the target is a {@link ReadReplicaRoutingDataSource} the connection is fetched according to the
+ * recorded read-only flag.</p>
+ *
+ * @author graemerocher
+ * @since 1.0.1
+ */
+public class LazyConnectionDataSourceProxy extends DelegatingDataSource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LazyConnectionDataSourceProxy.class);
+
+    private volatile Boolean defaultAutoCommit;
+    private volatile Integer defaultTransactionIsolation;
+
+    /**
+     * Default constructor.
+     * @param targetDataSource The target data source
+     */
+    public LazyConnectionDataSourceProxy(@NonNull DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    /**
+     * Sets the default auto-commit mode of connections returned by the target data source.
+     * @param defaultAutoCommit The default auto-commit mode
+     */
+    public void setDefaultAutoCommit(boolean defaultAutoCommit) {
+        this.defaultAutoCommit = defaultAutoCommit;
+    }
+
+    /**
+     * Sets the default isolation level of connections returned by the target data source.
+     * @param defaultTransactionIsolation The default isolation level, as defined by {@link Connection}
+     */
+    public void setDefaultTransactionIsolation(int defaultTransactionIsolation) {
+        this.defaultTransactionIsolation = defaultTransactionIsolation;
+    }
+
+    @Override
+    public Connection getConnection() {
+        return createProxy(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) {
+        return createProxy(username, password);
+    }
+
+    /**
+     * Whether the given connection is a lazy proxy whose target connection has been fetched.
+     * @param connection The connection
+     * @return True if the connection is not a lazy proxy or the target connection has been fetched
+     */
+    public static boolean isTargetConnectionFetched(@NonNull Connection connection) {
+        if (Proxy.isProxyClass(connection.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(connection);
+            if (handler instanceof LazyConnectionInvocationHandler) {
+                return ((LazyConnectionInvocationHandler) handler).target != null;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the target connection of the given connection if it is a lazy proxy.
+     * @param connection The connection
+     * @return The target connection, null if it has not been fetched yet, or the connection itself if it is not a lazy proxy
+     */
+    @Nullable
+    public static Connection getTargetConnection(@NonNull Connection connection) {
+        if (Proxy.isProxyClass(connection.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(connection);
+            if (handler instanceof LazyConnectionInvocationHandler) {
+                return ((LazyConnectionInvocationHandler) handler).target;
+            }
+        }
+        return connection;
+    }
+
+    private Connection createProxy(@Nullable String username, @Nullable String password) {
+        return (Connection) Proxy.newProxyInstance(
+                LazyConnectionDataSourceProxy.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                new LazyConnectionInvocationHandler(username, password)
+        );
+    }
+
+    private void checkDefaultConnectionProperties(Connection connection) throws SQLException {
+        if (defaultAutoCommit == null || defaultTransactionIsolation == null) {
+            synchronized (this) {
+                if (defaultAutoCommit == null) {
+                    defaultAutoCommit = connection.getAutoCommit();
+                }
+                if (defaultTransactionIsolation == null) {
+                    defaultTransactionIsolation = connection.getTransactionIsolation();
+                }
+            }
+        }
+    }
+
+    /**
+     * Invocation handler that defers fetching the target connection until it is needed.
+     */
+    private final class LazyConnectionInvocationHandler implements InvocationHandler {
+        private final String username;
+        private final String password;
+        private Boolean autoCommit;
+        private Integer transactionIsolation;
+        private boolean readOnly;
+        private boolean closed;
+        private Connection target;
+
+        LazyConnectionInvocationHandler(@Nullable String username, @Nullable String password) {
+            this.username = username;
+            this.password = password;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "isWrapperFor":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return true;
+                    }
+                    break;
+                default:
+                    // fall through to the lazy handling below
+            }
+
+            if (target == null) {
+                switch (method.getName()) {
+                    case "toString":
+                        return "Lazy Connection proxy for target DataSource [" + getTargetDataSource() + "]";
+                    case "getAutoCommit":
+                        if (autoCommit != null) {
+                            return autoCommit;
+                        }
+                        if (defaultAutoCommit != null) {
+                            return defaultAutoCommit;
+                        }
+                        break;
+                    case "setAutoCommit":
+                        autoCommit = (Boolean) args[0];
+                        return null;
+                    case "getTransactionIsolation":
+                        if (transactionIsolation != null) {
+                            return transactionIsolation;
+                        }
+                        if (defaultTransactionIsolation != null) {
+                            return defaultTransactionIsolation;
+                        }
+                        break;
+                    case "setTransactionIsolation":
+                        transactionIsolation = (Integer) args[0];
+                        return null;
+                    case "isReadOnly":
+                        return readOnly;
+                    case "setReadOnly":
+                        readOnly = (Boolean) args[0];
+                        return null;
+                    case "commit":
+                    case "rollback":
+                    case "clearWarnings":
+                        return null;
+                    case "getWarnings":
+                        return null;
+                    case "close":
+                        closed = true;
+                        return null;
+                    case "isClosed":
+                        return closed;
+                    default:
+                        if (closed) {
+                            throw new SQLException("Illegal operation: connection is closed");
+                        }
+                }
+            }
+
+            try {
+                return method.invoke(getTargetConnection(method), args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+
+        private Connection getTargetConnection(Method operation) throws SQLException {
+            if (target == null) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Connecting to database for operation '{}'", operation.getName());
+                }
+                DataSource dataSource = getTargetDataSource();
+                if (username != null) {
+                    target = dataSource.getConnection(username, password);
+                } else if (dataSource instanceof ReadReplicaRoutingDataSource) {
+                    target = ((ReadReplicaRoutingDataSource) dataSource).getConnection(
+                            readOnly || TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                    );
+                } else {
+                    target = dataSource.getConnection();
+                }
+                try {
+                    checkDefaultConnectionProperties(target);
+                    if (readOnly) {
+                        try {
+                            target.setReadOnly(true);
+                        } catch (Exception e) {
+                            // "read-only not supported" -> ignore, it's just a hint anyway
+                            LOG.debug("Could not set JDBC Connection read-only", e);
+                        }
+                    }
+                    if (transactionIsolation != null && !transactionIsolation.equals(defaultTransactionIsolation)) {
+                        target.setTransactionIsolation(transactionIsolation);
+                    }
+                    if (autoCommit != null && autoCommit != target.getAutoCommit()) {
+                        target.setAutoCommit(autoCommit);
+                    }
+                } catch (SQLException | RuntimeException e) {
+                    try {
+                        target.close();
+                    } catch (SQLException ignored) {
+                        // ignore, the original exception is rethrown
+                    }
+                    target = null;
+                    throw e;
+                }
+            }
+            return target;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.transaction.jdbc;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.micronaut.context.annotation.EachProperty;
+import io.micronaut.context.annotation.Parameter;
+import io.micronaut.core.naming.Named;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configures read replicas for the data source of the same name. Read-only transactions are routed to the
+ * replicas by a {@link ReadReplicaRoutingDataSource}, for example:
+ *
+ * <pre>
+ * read-replicas:
+ *   default:
+ *     data-sources: [replica1, replica2]
+ *     selection: least-busy
+ *     read-your-writes-window: 2s
+ * </pre>
+ *
+ * @author graemerocher
+ * @since 1.0.1
+ */
+@EachProperty(ReadReplicaConfiguration.PREFIX)
+public class ReadReplicaConfiguration implements Named {
+    /**
+     * The prefix to use.
+     */
+    public static final String PREFIX = "read-replicas";
+
+    private final String name;
+    private List<String> dataSources = new ArrayList<>(3);
+    private ReadReplicaRoutingDataSource.Selection selection = ReadReplicaRoutingDataSource.Selection.ROUND_ROBIN;
+    private Duration readYourWritesWindow = Duration.ZERO;
+
+    /**
+     * The configuration.
+     * @param name The name of the primary data source
+     */
+    public ReadReplicaConfiguration(@Parameter String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return The names of the data sources that are read replicas of the primary data source.
+     */
+    public List<String> getDataSources() {
+        return dataSources;
+    }
+
+    /**
+     * Sets the names of the data sources that are read replicas of the primary data source.
+     * @param dataSources The data source names
+     */
+    public void setDataSources(List<String> dataSources) {
+        if (dataSources != null) {
+            this.dataSources = dataSources;
+        }
+    }
+
+    /**
+     * @return How a replica is selected for a read-only transaction.
+     */
+    public ReadReplicaRoutingDataSource.Selection getSelection() {
+        return selection;
+    }
+
+    /**
+     * Sets how a replica is selected for a read-only transaction.
+     * @param selection The selection
+     */
+    public void setSelection(ReadReplicaRoutingDataSource.Selection selection) {
+        if (selection != null) {
+            this.selection = selection;
+        }
+    }
+
+    /**
+     * @return The duration after committing a write during which read-only transactions on the same thread use the primary.
+     */
+    public Duration getReadYourWritesWindow() {
+        return readYourWritesWindow;
+    }
+
+    /**
+     * Sets the duration after committing a write during which read-only transactions on the same thread use the primary.
+     * @param readYourWritesWindow The window
+     */
+    public void setReadYourWritesWindow(Duration readYourWritesWindow) {
+        if (readYourWritesWindow != null) {
+            this.readYourWritesWindow = readYourWritesWindow;
+        }
+    }
+
+    @NonNull
+    @Override
+    public String getName() {
+        return name;
+    }
+}
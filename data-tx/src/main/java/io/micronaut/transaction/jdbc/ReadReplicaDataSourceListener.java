@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.transaction.jdbc;
+
+import io.micronaut.context.BeanContext;
+import io.micronaut.context.event.BeanCreatedEvent;
+import io.micronaut.context.event.BeanCreatedEventListener;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.order.Ordered;
+import io.micronaut.inject.qualifiers.Qualifiers;
+
+import javax.inject.Singleton;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wraps a data source that has a {@link ReadReplicaConfiguration} in a {@link ReadReplicaRoutingDataSource}. Runs before
+ * the {@link LazyConnectionDataSourceListener}, so that if lazy connections are enabled for the data source the lazy
+ * proxy wraps the routing data source and obtains the connection once the transaction is known to be read-only or not.
+ *
+ * @author graemerocher
+ * @since 1.0.1
+ */
+@Internal
+@Singleton
+class ReadReplicaDataSourceListener implements BeanCreatedEventListener<DataSource>, Ordered {
+    /**
+     * The position of the listener.
+     */
+    static final int POSITION = 0;
+
+    private final BeanContext beanContext;
+
+    /**
+     * Default constructor.
+     * @param beanContext The bean context
+     */
+    ReadReplicaDataSourceListener(BeanContext beanContext) {
+        this.beanContext = beanContext;
+    }
+
+    @Override
+    public int getOrder() {
+        return POSITION;
+    }
+
+    @Override
+    public DataSource onCreated(BeanCreatedEvent<DataSource> event) {
+        DataSource dataSource = event.getBean();
+        if (dataSource instanceof ReadReplicaRoutingDataSource) {
+            return dataSource;
+        }
+        String name = event.getBeanIdentifier().getName();
+        ReadReplicaConfiguration configuration = beanContext.findBean(ReadReplicaConfiguration.class, Qualifiers.byName(name))
+                .orElse(null);
+        if (configuration == null || configuration.getDataSources().isEmpty()) {
+            return dataSource;
+        }
+        List<DataSource> replicas = new ArrayList<>(configuration.getDataSources().size());
+        for (String replica : configuration.getDataSources()) {
+            if (replica.equals(name)) {
+                throw new IllegalStateException("Data source [" + name + "] cannot be a read replica of itself");
+            }
+            replicas.add(beanContext.getBean(DataSource.class, Qualifiers.byName(replica)));
+        }
+        ReadReplicaRoutingDataSource routingDataSource = new ReadReplicaRoutingDataSource(
+                dataSource,
+                replicas,
+                configuration.getSelection()
+        );
+        routingDataSource.setReadYourWritesWindow(configuration.getReadYourWritesWindow());
+        return routingDataSource;
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.transaction.jdbc;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micronaut.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link DataSource} that routes connections for read-only transactions to one or more read replicas
+ * whilst all other connections are obtained from the primary (target) data source.
+ *
+ * <p>{@link DataSourceTransactionManager} requests connections through {@link #getConnection(boolean)}
+ * with the read-only flag of the transaction definition. Connections obtained outside of a transaction
+ * through {@link #getConnection()} are routed to a replica only if the current transaction is marked
+ * read-only by {@link TransactionSynchronizationManager}.</p>
+ *
+ * <p>If a read-your-writes window is configured, read-only transactions on a thread that committed a
+ * write within the window are routed to the primary, so that they observe the write even if replication
+ * to the replicas lags behind.</p>
+ *
+ * @author graemerocher
+ * @since 1.0.1
+ */
+public class ReadReplicaRoutingDataSource extends DelegatingDataSource {
+
+    private final List<DataSource> replicas;
+    private final AtomicInteger[] activeConnections;
+    private final Selection selection;
+    private final AtomicInteger counter = new AtomicInteger();
+    private final ThreadLocal<Long> lastWrite = new ThreadLocal<>();
+    private Duration readYourWritesWindow = Duration.ZERO;
+
+    /**
+     * Default constructor.
+     * @param primary The primary data source, used for writes
+     * @param replicas The read replicas
+     * @param selection How to select a replica
+     */
+    public ReadReplicaRoutingDataSource(
+            @NonNull DataSource primary,
+            @NonNull List<DataSource> replicas,
+            @Nullable Selection selection) {
+        super(primary);
+        Objects.requireNonNull(replicas, "Replicas cannot be null");
+        this.replicas = Collections.unmodifiableList(new ArrayList<>(replicas));
+        this.activeConnections = new AtomicInteger[replicas.size()];
+        for (int i = 0; i < activeConnections.length; i++) {
+            activeConnections[i] = new AtomicInteger();
+        }
+        this.selection = selection != null ? selection : Selection.ROUND_ROBIN;
+    }
+
+    /**
+     * @return The read replicas
+     */
+    @NonNull
+    public List<DataSource> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * @return How a replica is selected
+     */
+    @NonNull
+    public Selection getSelection() {
+        return selection;
+    }
+
+    /**
+     * @return The duration after committing a write during which read-only transactions on the same thread use the primary
+     */
+    @NonNull
+    public Duration getReadYourWritesWindow() {
+        return readYourWritesWindow;
+    }
+
+    /**
+     * Sets the duration after committing a write during which read-only transactions on the same thread use the primary.
+     * A zero duration (the default) disables the window.
+     * @param readYourWritesWindow The window
+     */
+    public void setReadYourWritesWindow(@Nullable Duration readYourWritesWindow) {
+        this.readYourWritesWindow = readYourWritesWindow != null ? readYourWritesWindow : Duration.ZERO;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getConnection(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    /**
+     * Obtains a connection from a read replica if read-only is requested, otherwise from the primary.
+     * @param readOnly Whether the connection is for read-only work
+     * @return The connection
+     * @throws SQLException If a connection cannot be obtained
+     */
+    public Connection getConnection(boolean readOnly) throws SQLException {
+        if (!readOnly || replicas.isEmpty() || isWithinReadYourWritesWindow()) {
+            return getTargetDataSource().getConnection();
+        }
+        int index = selectReplica();
+        AtomicInteger active = activeConnections[index];
+        DataSource replica = replicas.get(index);
+        Connection connection = replica.getConnection();
+        active.incrementAndGet();
+        return trackClose(connection, replica, active);
+    }
+
+    /**
+     * Obtains a connection from the given data source, which must be the primary or one of the read replicas, for
+     * example so that several transactions that must read the same data use the same database.
+     * @param dataSource The primary or a read replica, as returned by {@link #getDataSource(Connection)}
+     * @return The connection
+     * @throws SQLException If a connection cannot be obtained
+     */
+    public Connection getConnection(@NonNull DataSource dataSource) throws SQLException {
+        Objects.requireNonNull(dataSource, "Data source cannot be null");
+        if (dataSource == getTargetDataSource()) {
+            return dataSource.getConnection();
+        }
+        int index = replicas.indexOf(dataSource);
+        if (index < 0) {
+            throw new IllegalArgumentException("Not the primary or a read replica of this data source: " + dataSource);
+        }
+        AtomicInteger active = activeConnections[index];
+        Connection connection = dataSource.getConnection();
+        active.incrementAndGet();
+        return trackClose(connection, dataSource, active);
+    }
+
+    /**
+     * Resolves the data source that a connection obtained from this data source was obtained from.
+     * @param connection The connection
+     * @return The read replica the connection was obtained from, otherwise the primary
+     */
+    @NonNull
+    public DataSource getDataSource(@NonNull Connection connection) {
+        if (Proxy.isProxyClass(connection.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(connection);
+            if (handler instanceof ReplicaConnectionHandler) {
+                return ((ReplicaConnectionHandler) handler).replica;
+            }
+        }
+        return getTargetDataSource();
+    }
+
+    /**
+     * Records that the current thread committed a write to the primary, which starts the read-your-writes window.
+     */
+    public void writeCommitted() {
+        if (!readYourWritesWindow.isZero()) {
+            lastWrite.set(System.nanoTime());
+        }
+    }
+
+    private boolean isWithinReadYourWritesWindow() {
+        Long last = lastWrite.get();
+        if (last != null) {
+            if (System.nanoTime() - last < readYourWritesWindow.toNanos()) {
+                return true;
+            }
+            lastWrite.remove();
+        }
+        return false;
+    }
+
+    private int selectReplica() {
+        int size = replicas.size();
+        if (selection == Selection.LEAST_BUSY) {
+            // start from a rotating position so that ties are spread across the replicas
+            int start = Math.floorMod(counter.getAndIncrement(), size);
+            int selected = start;
+            int min = Integer.MAX_VALUE;
+            for (int i = 0; i < size; i++) {
+                int index = (start + i) % size;
+                int active = activeConnections[index].get();
+                if (active < min) {
+                    min = active;
+                    selected = index;
+                }
+            }
+            return selected;
+        }
+        return Math.floorMod(counter.getAndIncrement(), size);
+    }
+
+    private Connection trackClose(Connection connection, DataSource replica, AtomicInteger active) {
+        return (Connection) Proxy.newProxyInstance(
+                ReadReplicaRoutingDataSource.class.getClassLoader(),
+                new Class[]{Connection.class},
+                new ReplicaConnectionHandler(connection, replica, active)
+        );
+    }
+
+    /**
+     * Invocation handler of replica connections that tracks when they are closed.
+     */
+    private static final class ReplicaConnectionHandler implements InvocationHandler {
+        private final Connection connection;
+        private final DataSource replica;
+        private final AtomicInteger active;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        ReplicaConnectionHandler(Connection connection, DataSource replica, AtomicInteger active) {
+            this.connection = connection;
+            this.replica = replica;
+            this.active = active;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("close".equals(name) && closed.compareAndSet(false, true)) {
+                active.decrementAndGet();
+            } else if ("unwrap".equals(name) && ((Class<?>) args[0]).isInstance(proxy)) {
+                return proxy;
+            } else if ("equals".equals(name)) {
+                return proxy == args[0];
+            } else if ("hashCode".equals(name)) {
+                return System.identityHashCode(proxy);
+            }
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+
+    /**
+     * How a replica is selected for a read-only connection.
+     */
+    public enum Selection {
+        /**
+         * Selects each replica in turn.
+         */
+        ROUND_ROBIN,
+        /**
+         * Selects the replica with the fewest connections currently in use.
+         */
+        LEAST_BUSY
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2017-2019 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.transaction.support;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Holds the {@link TransactionSynchronizationManager.State} of the current unit of work. The default implementation
+ * keeps the state in a single {@link ThreadLocal}. Alternative implementations can be registered as a
+ * {@link java.util.ServiceLoader service}, or set with
+ * {@link TransactionSynchronizationManager#setStateHolder(TransactionStateHolder)}, for example to keep the state
+ * in a context that is propagated to forked tasks.
+ *
+ * <p>Implementations must be thread safe. The state returned by {@link #get()} is mutated in place by
+ * {@link TransactionSynchronizationManager} and must not be shared between concurrently running tasks; use
+ * {@link TransactionSynchronizationManager#getState()} to obtain a copy that can be bound elsewhere.</p>
+ *
+ * @author graemerocher
+ * @since 1.0.1
+ */
+public interface TransactionStateHolder {
+
+    /**
+     * @return The current state or {@code null} if there is none
+     */
+    @Nullable
+    TransactionSynchronizationManager.State get();
+
+    /**
+     * Sets the current state.
+     * @param state The state or {@code null} to remove the current state
+     */
+    void set(@Nullable TransactionSynchronizationManager.State state);
+}
@@ -15,13 +15,19 @@
  */
 package io.micronaut.transaction.support;
 
+import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micronaut.core.io.service.ServiceDefinition;
+import io.micronaut.core.io.service.SoftServiceLoader;
 import io.micronaut.core.order.OrderUtil;
 import io.micronaut.transaction.TransactionDefinition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 /**
  * Central delegate that manages resources and transaction synchronizations per thread.
@@ -64,60 +70,7 @@ public abstract class TransactionSynchronizationManager {
 
     private static final Logger LOG = LoggerFactory.getLogger(TransactionSynchronizationManager.class);
 
-    @SuppressWarnings("unchecked")
-    private static final ThreadLocal<Map<Object, Object>> RESOURCES =
-            new ThreadLocal() {
-                @Override
-                public String toString() {
-                    return "Transactional resources";
-                }
-            };
-
-    @SuppressWarnings("unchecked")
-    private static final ThreadLocal<Set<TransactionSynchronization>> SYNCHRONIZATIONS =
-            new ThreadLocal() {
-                @Override
-                public String toString() {
-                    return "Transaction synchronizations";
-                }
-            };
-
-    @SuppressWarnings("unchecked")
-    private static final ThreadLocal<String> CURRENT_TRANSACTION_NAME =
-            new ThreadLocal() {
-                @Override
-                public String toString() {
-                    return "Current transaction name";
-                }
-            };
-
-    @SuppressWarnings("unchecked")
-    private static final ThreadLocal<Boolean> CURRENT_TRANSACTION_READ_ONLY =
-            new ThreadLocal() {
-                @Override
-                public String toString() {
-                    return "Current transaction read-only status";
-                }
-            };
-
-    @SuppressWarnings("unchecked")
-    private static final ThreadLocal<TransactionDefinition.Isolation> CURRENT_TRANSACTION_ISOLATION_LEVEL =
-            new ThreadLocal() {
-                @Override
-                public String toString() {
-                    return "Current transaction isolation level";
-                }
-            };
-
-    @SuppressWarnings("unchecked")
-    private static final ThreadLocal<Boolean> ACTUAL_TRANSACTION_ACTIVE =
-            new ThreadLocal() {
-                @Override
-                public String toString() {
-                    return "Actual transaction active";
-                }
-            };
-
+    private static volatile TransactionStateHolder stateHolder = loadStateHolder();
 
     //-------------------------------------------------------------------------
     // Management of transaction-associated resource handles
@@ -133,7 +86,8 @@ public abstract class TransactionSynchronizationManager {
      * @see #hasResource
      */
     public static Map<Object, Object> getResourceMap() {
-        Map<Object, Object> map = RESOURCES.get();
+        State state = stateHolder.get();
+        Map<Object, Object> map = state != null ? state.resources : null;
         return (map != null ? Collections.unmodifiableMap(map) : Collections.emptyMap());
     }
 
@@ -172,7 +126,8 @@ public abstract class TransactionSynchronizationManager {
      */
     @Nullable
     private static Object doGetResource(Object actualKey) {
-        Map<Object, Object> map = RESOURCES.get();
+        State state = stateHolder.get();
+        Map<Object, Object> map = state != null ? state.resources : null;
         if (map == null) {
             return null;
         }
@@ -180,9 +135,10 @@ public abstract class TransactionSynchronizationManager {
         // Transparently remove ResourceHolder that was marked as void...
         if (value instanceof ResourceHolder && ((ResourceHolder) value).isVoid()) {
             map.remove(actualKey);
-            // Remove entire ThreadLocal if empty...
+            // Remove entire map if empty...
             if (map.isEmpty()) {
-                RESOURCES.remove();
+                state.resources = null;
+                removeIfEmpty(state);
             }
             value = null;
         }
@@ -199,11 +155,12 @@ public abstract class TransactionSynchronizationManager {
     public static void bindResource(Object key, Object value) throws IllegalStateException {
         Object actualKey = TransactionSynchronizationUtils.unwrapResourceIfNecessary(key);
         Objects.requireNonNull(value, "Value must not be null");
-        Map<Object, Object> map = RESOURCES.get();
-        // set ThreadLocal Map if none found
+        State state = getOrCreateState();
+        Map<Object, Object> map = state.resources;
+        // set Map if none found
         if (map == null) {
             map = new HashMap<>();
-            RESOURCES.set(map);
+            state.resources = map;
         }
         Object oldValue = map.put(actualKey, value);
         // Transparently suppress a ResourceHolder that was marked as void...
@@ -253,14 +210,16 @@ public abstract class TransactionSynchronizationManager {
      */
     @Nullable
     private static Object doUnbindResource(Object actualKey) {
-        Map<Object, Object> map = RESOURCES.get();
+        State state = stateHolder.get();
+        Map<Object, Object> map = state != null ? state.resources : null;
         if (map == null) {
             return null;
         }
         Object value = map.remove(actualKey);
-        // Remove entire ThreadLocal if empty...
+        // Remove entire map if empty...
         if (map.isEmpty()) {
-            RESOURCES.remove();
+            state.resources = null;
+            removeIfEmpty(state);
         }
         // Transparently suppress a ResourceHolder that was marked as void...
         if (value instanceof ResourceHolder && ((ResourceHolder) value).isVoid()) {
@@ -285,7 +244,8 @@ public abstract class TransactionSynchronizationManager {
      * @return True if a synchronization is active
      */
     public static boolean isSynchronizationActive() {
-        return (SYNCHRONIZATIONS.get() != null);
+        State state = stateHolder.get();
+        return (state != null && state.synchronizations != null);
     }
 
     /**
@@ -298,7 +258,7 @@ public abstract class TransactionSynchronizationManager {
             throw new IllegalStateException("Cannot activate transaction synchronization - already active");
         }
         LOG.trace("Initializing transaction synchronization");
-        SYNCHRONIZATIONS.set(new LinkedHashSet<>());
+        getOrCreateState().synchronizations = new LinkedHashSet<>();
     }
 
     /**
@@ -315,7 +275,8 @@ public abstract class TransactionSynchronizationManager {
             throws IllegalStateException {
 
         Objects.requireNonNull(synchronization, "TransactionSynchronization must not be null");
-        Set<TransactionSynchronization> synchs = SYNCHRONIZATIONS.get();
+        State state = stateHolder.get();
+        Set<TransactionSynchronization> synchs = state != null ? state.synchronizations : null;
         if (synchs == null) {
             throw new IllegalStateException("Transaction synchronization is not active");
         }
@@ -330,7 +291,8 @@ public abstract class TransactionSynchronizationManager {
      * @see TransactionSynchronization
      */
     public static List<TransactionSynchronization> getSynchronizations() throws IllegalStateException {
-        Set<TransactionSynchronization> synchs = SYNCHRONIZATIONS.get();
+        State state = stateHolder.get();
+        Set<TransactionSynchronization> synchs = state != null ? state.synchronizations : null;
         if (synchs == null) {
             throw new IllegalStateException("Transaction synchronization is not active");
         }
@@ -357,7 +319,9 @@ public abstract class TransactionSynchronizationManager {
             throw new IllegalStateException("Cannot deactivate transaction synchronization - not active");
         }
         LOG.trace("Clearing transaction synchronization");
-        SYNCHRONIZATIONS.remove();
+        State state = stateHolder.get();
+        state.synchronizations = null;
+        removeIfEmpty(state);
     }
 
 
@@ -372,7 +336,11 @@ public abstract class TransactionSynchronizationManager {
      * @see io.micronaut.transaction.TransactionDefinition#getName()
      */
     public static void setCurrentTransactionName(@Nullable String name) {
-        CURRENT_TRANSACTION_NAME.set(name);
+        State state = name != null ? getOrCreateState() : stateHolder.get();
+        if (state != null) {
+            state.name = name;
+            removeIfEmpty(state);
+        }
     }
 
     /**
@@ -384,7 +352,8 @@ public abstract class TransactionSynchronizationManager {
      */
     @Nullable
     public static String getCurrentTransactionName() {
-        return CURRENT_TRANSACTION_NAME.get();
+        State state = stateHolder.get();
+        return state != null ? state.name : null;
     }
 
     /**
@@ -395,7 +364,11 @@ public abstract class TransactionSynchronizationManager {
      * @see io.micronaut.transaction.TransactionDefinition#isReadOnly()
      */
     public static void setCurrentTransactionReadOnly(boolean readOnly) {
-        CURRENT_TRANSACTION_READ_ONLY.set(readOnly ? Boolean.TRUE : null);
+        State state = readOnly ? getOrCreateState() : stateHolder.get();
+        if (state != null) {
+            state.readOnly = readOnly;
+            removeIfEmpty(state);
+        }
     }
 
     /**
@@ -412,7 +385,8 @@ public abstract class TransactionSynchronizationManager {
      * @return Whether the transaction is read only
      */
     public static boolean isCurrentTransactionReadOnly() {
-        return (CURRENT_TRANSACTION_READ_ONLY.get() != null);
+        State state = stateHolder.get();
+        return (state != null && state.readOnly);
     }
 
     /**
@@ -432,7 +406,11 @@ public abstract class TransactionSynchronizationManager {
      * @see io.micronaut.transaction.TransactionDefinition#getIsolationLevel()
      */
     public static void setCurrentTransactionIsolationLevel(@Nullable TransactionDefinition.Isolation isolationLevel) {
-        CURRENT_TRANSACTION_ISOLATION_LEVEL.set(isolationLevel);
+        State state = isolationLevel != null ? getOrCreateState() : stateHolder.get();
+        if (state != null) {
+            state.isolationLevel = isolationLevel;
+            removeIfEmpty(state);
+        }
     }
 
     /**
@@ -454,7 +432,8 @@ public abstract class TransactionSynchronizationManager {
      */
     @Nullable
     public static TransactionDefinition.Isolation getCurrentTransactionIsolationLevel() {
-        return CURRENT_TRANSACTION_ISOLATION_LEVEL.get();
+        State state = stateHolder.get();
+        return state != null ? state.isolationLevel : null;
     }
 
     /**
@@ -464,7 +443,11 @@ public abstract class TransactionSynchronizationManager {
      * with an actual transaction; {@code false} to reset that marker
      */
     public static void setActualTransactionActive(boolean active) {
-        ACTUAL_TRANSACTION_ACTIVE.set(active ? Boolean.TRUE : null);
+        State state = active ? getOrCreateState() : stateHolder.get();
+        if (state != null) {
+            state.active = active;
+            removeIfEmpty(state);
+        }
     }
 
     /**
@@ -480,7 +463,8 @@ public abstract class TransactionSynchronizationManager {
      * @return Whether a transaction is active
      */
     public static boolean isActualTransactionActive() {
-        return (ACTUAL_TRANSACTION_ACTIVE.get() != null);
+        State state = stateHolder.get();
+        return (state != null && state.active);
     }
 
 
@@ -494,11 +478,331 @@ public abstract class TransactionSynchronizationManager {
      * @see #setActualTransactionActive
      */
     public static void clear() {
-        SYNCHRONIZATIONS.remove();
-        CURRENT_TRANSACTION_NAME.remove();
-        CURRENT_TRANSACTION_READ_ONLY.remove();
-        CURRENT_TRANSACTION_ISOLATION_LEVEL.remove();
-        ACTUAL_TRANSACTION_ACTIVE.remove();
+        State state = stateHolder.get();
+        if (state != null) {
+            state.synchronizations = null;
+            state.name = null;
+            state.readOnly = false;
+            state.isolationLevel = null;
+            state.active = false;
+            removeIfEmpty(state);
+        }
+    }
+
+
+    //-------------------------------------------------------------------------
+    // Propagation of the state to other threads
+    //-------------------------------------------------------------------------
+
+    /**
+     * Capture the resources and transaction synchronization state of the current thread, so
+     * that it can be bound to another thread that continues the work of the transaction, for
+     * example the thread that completes an asynchronous operation. The returned state is a copy,
+     * see {@link State}.
+     * @return The state
+     * @since 1.0.1
+     * @see #setState(State)
+     * @see #withState(State, Supplier)
+     */
+    public static @NonNull State getState() {
+        State state = stateHolder.get();
+        return state != null ? new State(state) : new State();
+    }
+
+    /**
+     * Replace the resources and transaction synchronization state of the current thread
+     * with the given state.
+     * @param state The state previously obtained from {@link #getState()}
+     * @since 1.0.1
+     */
+    public static void setState(@NonNull State state) {
+        Objects.requireNonNull(state, "State cannot be null");
+        stateHolder.set(state.isEmpty() ? null : new State(state));
+    }
+
+    /**
+     * Execute the given supplier with the given state bound to the current thread, restoring
+     * the previous state of the thread afterwards.
+     * @param state The state previously obtained from {@link #getState()}
+     * @param supplier The supplier
+     * @param <T> The result type
+     * @return The result of the supplier
+     * @since 1.0.1
+     */
+    public static <T> T withState(@NonNull State state, @NonNull Supplier<T> supplier) {
+        Objects.requireNonNull(state, "State cannot be null");
+        State previous = stateHolder.get();
+        stateHolder.set(state.isEmpty() ? null : new State(state));
+        try {
+            return supplier.get();
+        } finally {
+            stateHolder.set(previous);
+        }
+    }
+
+    /**
+     * Wrap the given executor so that tasks run with the state of the thread that submitted them,
+     * allowing work executed asynchronously to participate in the transaction of the caller.
+     *
+     * <p>Since the resources of a transaction, such as its connection, are not thread-safe, the tasks
+     * submitted within the same transaction run one at a time, in the order they were submitted, even
+     * when they are submitted to different executors. A task must hence not wait for a task that it submits
+     * itself. Tasks that only start once the transaction has completed run without the state, as if they
+     * had been submitted outside of a transaction. Tasks submitted outside of a transaction are passed to
+     * the executor as they are.</p>
+     * @param executor The executor
+     * @return The wrapped executor
+     * @since 1.0.1
+     */
+    public static @NonNull Executor propagatingExecutor(@NonNull Executor executor) {
+        Objects.requireNonNull(executor, "Executor cannot be null");
+        return command -> {
+            if (isActualTransactionActive()) {
+                TransactionTaskQueue queue = getTaskQueue();
+                queue.submit(executor, command, getState());
+            } else {
+                executor.execute(command);
+            }
+        };
+    }
+
+    private static TransactionTaskQueue getTaskQueue() {
+        TransactionTaskQueue queue = (TransactionTaskQueue) getStateValue(TransactionTaskQueue.class);
+        if (queue == null || queue.isCompleted()) {
+            queue = new TransactionTaskQueue();
+            setStateValue(TransactionTaskQueue.class, queue);
+            if (isSynchronizationActive()) {
+                registerSynchronization(queue);
+            }
+        }
+        return queue;
+    }
+
+    /**
+     * Replace the holder of the transaction synchronization state. By default the state is held in a single
+     * {@link ThreadLocal}, unless a {@link TransactionStateHolder} is registered as a service.
+     * @param holder The holder
+     * @since 1.0.1
+     */
+    public static void setStateHolder(@NonNull TransactionStateHolder holder) {
+        Objects.requireNonNull(holder, "Holder cannot be null");
+        stateHolder = holder;
+    }
+
+    /**
+     * @return The holder of the transaction synchronization state
+     * @since 1.0.1
+     */
+    public static @NonNull TransactionStateHolder getStateHolder() {
+        return stateHolder;
+    }
+
+    /**
+     * Get the value stored in the transaction synchronization state for the given key. Allows cooperating
+     * transaction infrastructure to keep additional state alongside the transaction.
+     * @param key The key
+     * @return The value or {@code null} if none is stored
+     * @since 1.0.1
+     */
+    @Nullable
+    public static Object getStateValue(@NonNull Object key) {
+        State state = stateHolder.get();
+        return state != null && state.values != null ? state.values.get(key) : null;
+    }
+
+    /**
+     * Store a value in the transaction synchronization state for the given key.
+     * @param key The key
+     * @param value The value or {@code null} to remove the current value
+     * @since 1.0.1
+     * @see #getStateValue(Object)
+     */
+    public static void setStateValue(@NonNull Object key, @Nullable Object value) {
+        if (value != null) {
+            State state = getOrCreateState();
+            if (state.values == null) {
+                state.values = new HashMap<>(2);
+            }
+            state.values.put(key, value);
+        } else {
+            State state = stateHolder.get();
+            if (state != null && state.values != null) {
+                state.values.remove(key);
+                if (state.values.isEmpty()) {
+                    state.values = null;
+                }
+                removeIfEmpty(state);
+            }
+        }
+    }
+
+    private static State getOrCreateState() {
+        State state = stateHolder.get();
+        if (state == null) {
+            state = new State();
+            stateHolder.set(state);
+        }
+        return state;
+    }
+
+    private static void removeIfEmpty(State state) {
+        if (state.isEmpty()) {
+            stateHolder.set(null);
+        }
+    }
+
+    private static TransactionStateHolder loadStateHolder() {
+        SoftServiceLoader<TransactionStateHolder> holders = SoftServiceLoader.load(TransactionStateHolder.class);
+        for (ServiceDefinition<TransactionStateHolder> definition : holders) {
+            if (definition.isPresent()) {
+                try {
+                    return definition.load();
+                } catch (Exception e) {
+                    LOG.warn("Could not load transaction state holder [" + definition.getName() + "]: " + e.getMessage(), e);
+                }
+            }
+        }
+        return new ThreadLocalStateHolder();
+    }
+
+    /**
+     * The resources and transaction synchronization state of a unit of work.
+     *
+     * <p>A state obtained from {@link #getState()} is a snapshot: the bound resources and the registered
+     * synchronizations are copied whenever a state is captured or bound, so that the threads working with a
+     * propagated state never modify each other's collections. Resources bound, and synchronizations registered,
+     * on a thread that runs with a propagated state are therefore not visible to the thread the state was
+     * captured from. Synchronizations must be registered on the thread that completes the transaction, or
+     * before the state is captured.</p>
+     * @since 1.0.1
+     */
+    public static final class State {
+        private Map<Object, Object> resources;
+        private Set<TransactionSynchronization> synchronizations;
+        private String name;
+        private boolean readOnly;
+        private TransactionDefinition.Isolation isolationLevel;
+        private boolean active;
+        private Map<Object, Object> values;
+
+        private State() {
+        }
+
+        private State(State other) {
+            this.resources = other.resources != null ? new HashMap<>(other.resources) : null;
+            this.synchronizations = other.synchronizations != null ? new LinkedHashSet<>(other.synchronizations) : null;
+            this.name = other.name;
+            this.readOnly = other.readOnly;
+            this.isolationLevel = other.isolationLevel;
+            this.active = other.active;
+            this.values = other.values != null ? new HashMap<>(other.values) : null;
+        }
+
+        private boolean isEmpty() {
+            return resources == null && synchronizations == null && name == null &&
+                    !readOnly && isolationLevel == null && !active && values == null;
+        }
+    }
+
+    /**
+     * The tasks submitted to a {@link #propagatingExecutor(Executor)} within a single transaction, which
+     * are run one at a time since they share the resources of the transaction.
+     */
+    private static final class TransactionTaskQueue implements TransactionSynchronization {
+        private final Deque<Runnable> pending = new ArrayDeque<>();
+        private boolean running;
+        private volatile boolean completed;
+
+        boolean isCompleted() {
+            return completed;
+        }
+
+        @Override
+        public void afterCompletion(@NonNull Status status) {
+            completed = true;
+        }
+
+        void submit(Executor executor, Runnable command, State state) {
+            Runnable task = () -> {
+                try {
+                    if (completed) {
+                        command.run();
+                    } else {
+                        withState(state, () -> {
+                            command.run();
+                            return null;
+                        });
+                    }
+                } finally {
+                    runNext();
+                }
+            };
+            synchronized (this) {
+                if (running) {
+                    pending.add(() -> dispatch(executor, task));
+                    return;
+                }
+                running = true;
+            }
+            try {
+                executor.execute(task);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    running = false;
+                }
+                throw e;
+            }
+        }
+
+        private void runNext() {
+            Runnable next;
+            synchronized (this) {
+                next = pending.poll();
+                if (next == null) {
+                    running = false;
+                    return;
+                }
+            }
+            next.run();
+        }
+
+        private void dispatch(Executor executor, Runnable task) {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // the submitter is no longer around to handle the rejection, run the task on the thread of the previous one
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Running transactional task on the current thread since the executor rejected it: " + e.getMessage());
+                }
+                task.run();
+            }
+        }
+    }
+
+    /**
+     * The default holder that keeps the state in a single {@link ThreadLocal}.
+     */
+    private static final class ThreadLocalStateHolder implements TransactionStateHolder {
+        private final ThreadLocal<State> state = new ThreadLocal<State>() {
+            @Override
+            public String toString() {
+                return "Transaction synchronization state";
+            }
+        };
+
+        @Override
+        public State get() {
+            return state.get();
+        }
+
+        @Override
+        public void set(@Nullable State state) {
+            if (state != null) {
+                this.state.set(state);
+            } else {
+                this.state.remove();
+            }
+        }
     }
 
 }
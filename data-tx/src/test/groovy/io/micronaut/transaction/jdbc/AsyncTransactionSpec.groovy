@@ -0,0 +1,208 @@
+package io.micronaut.transaction.jdbc
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.core.async.publisher.Publishers
+import io.micronaut.test.annotation.MicronautTest
+import io.micronaut.transaction.support.TransactionSynchronizationManager
+import org.reactivestreams.Publisher
+import org.reactivestreams.Subscriber
+import org.reactivestreams.Subscription
+import spock.lang.Specification
+import spock.lang.Stepwise
+
+import javax.annotation.PreDestroy
+import javax.inject.Inject
+import javax.inject.Singleton
+import javax.transaction.Transactional
+import java.sql.Connection
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executor
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+@MicronautTest(transactional = false)
+@Property(name = "datasources.default.name", value = "asyncdb")
+@Stepwise
+class AsyncTransactionSpec extends Specification {
+
+    @Inject AsyncBookService bookService
+
+    void "test transaction follows a completion stage to completion"() {
+        given:
+        bookService.init()
+
+        when:"an insert is performed asynchronously"
+        bookService.insertAsync(false).get()
+
+        then:"the transaction is committed when the future completes"
+        bookService.count() == 1
+        !TransactionSynchronizationManager.isActualTransactionActive()
+
+        when:"an asynchronous insert fails"
+        bookService.insertAsync(true).get()
+
+        then:"the transaction is rolled back"
+        def e = thrown(ExecutionException)
+        e.cause.message == 'Bad things happened'
+        bookService.count() == 1
+    }
+
+    void "test transaction follows a publisher to completion"() {
+        when:"an insert is performed by a publisher"
+        block(bookService.insertPublisher(false))
+
+        then:"the transaction is committed when the publisher completes"
+        bookService.count() == 2
+        !TransactionSynchronizationManager.isActualTransactionActive()
+
+        when:"the insert of a publisher fails"
+        block(bookService.insertPublisher(true))
+
+        then:"the transaction is rolled back"
+        def e = thrown(ExecutionException)
+        e.cause.message == 'Bad things happened'
+        bookService.count() == 2
+    }
+
+    void "test tasks submitted within a transaction run one at a time"() {
+        when:"several tasks are submitted to a pool within a transaction"
+        List<Boolean> inTransaction = bookService.runConcurrently(10).get()
+
+        then:"the tasks participate in the transaction without overlapping"
+        inTransaction.size() == 10
+        inTransaction.every()
+        bookService.maxConcurrentTasks.get() == 1
+    }
+
+    void "test tasks that start after the transaction completed run without its state"() {
+        when:
+        boolean inTransaction = bookService.runAfterCompletion().get()
+
+        then:
+        !inTransaction
+    }
+
+    private static <T> T block(Publisher<T> publisher) {
+        CompletableFuture<T> future = new CompletableFuture<>()
+        publisher.subscribe(new Subscriber<T>() {
+            T value
+
+            @Override
+            void onSubscribe(Subscription s) {
+                s.request(Long.MAX_VALUE)
+            }
+
+            @Override
+            void onNext(T t) {
+                value = t
+            }
+
+            @Override
+            void onError(Throwable t) {
+                future.completeExceptionally(t instanceof CompletionException ? t.cause : t)
+            }
+
+            @Override
+            void onComplete() {
+                future.complete(value)
+            }
+        })
+        return future.get()
+    }
+
+    @Singleton
+    static class AsyncBookService {
+        @Inject Connection connection
+        ExecutorService executorService = Executors.newSingleThreadExecutor()
+        Executor executor = TransactionSynchronizationManager.propagatingExecutor(executorService)
+        ExecutorService poolService = Executors.newFixedThreadPool(4)
+        Executor pool = TransactionSynchronizationManager.propagatingExecutor(poolService)
+        AtomicInteger concurrentTasks = new AtomicInteger()
+        AtomicInteger maxConcurrentTasks = new AtomicInteger()
+        CountDownLatch committed = new CountDownLatch(1)
+
+        @Transactional
+        void init() {
+            connection.prepareStatement("drop table book if exists").execute()
+            connection.prepareStatement("create table book (id bigint not null auto_increment, pages integer not null, title varchar(255), primary key (id))").execute()
+        }
+
+        @Transactional
+        CompletableFuture<Integer> insertAsync(boolean fail) {
+            return insertOnExecutor(fail)
+        }
+
+        @Transactional
+        Publisher<Integer> insertPublisher(boolean fail) {
+            return Publishers.fromCompletableFuture({ insertOnExecutor(fail) })
+        }
+
+        CompletableFuture<Integer> insertOnExecutor(boolean fail) {
+            return CompletableFuture.supplyAsync({
+                def ps = connection.prepareStatement("insert into book (pages, title) values(100, 'The Stand')")
+                try {
+                    ps.execute()
+                } finally {
+                    ps.close()
+                }
+                if (fail) {
+                    throw new RuntimeException("Bad things happened")
+                }
+                return 1
+            }, executor)
+        }
+
+        @Transactional
+        CompletableFuture<List<Boolean>> runConcurrently(int tasks) {
+            List<CompletableFuture<Boolean>> futures = (1..tasks).collect {
+                CompletableFuture.supplyAsync({
+                    maxConcurrentTasks.accumulateAndGet(concurrentTasks.incrementAndGet(), { a, b -> Math.max(a, b) })
+                    sleep(10)
+                    concurrentTasks.decrementAndGet()
+                    return TransactionSynchronizationManager.isActualTransactionActive()
+                }, pool)
+            }
+            return CompletableFuture.allOf(futures as CompletableFuture[]).thenApply({ futures*.join() })
+        }
+
+        CompletableFuture<Boolean> runAfterCompletion() {
+            // wait for the commit before releasing the task that holds the queue
+            CompletableFuture<Boolean> pending = submitBehindBlockedTask().get()
+            committed.countDown()
+            return pending
+        }
+
+        @Transactional
+        CompletableFuture<CompletableFuture<Boolean>> submitBehindBlockedTask() {
+            CompletableFuture.runAsync({ committed.await(5, TimeUnit.SECONDS) }, pool)
+            CompletableFuture<Boolean> pending = CompletableFuture.supplyAsync({
+                TransactionSynchronizationManager.isActualTransactionActive()
+            }, pool)
+            return CompletableFuture.completedFuture(pending)
+        }
+
+        @Transactional
+        int count() {
+            def ps = connection.prepareStatement("select count(*) as count from book")
+            def rs = ps.executeQuery()
+            try {
+                rs.next()
+                rs.getInt("count")
+            } finally {
+                rs.close()
+                ps.close()
+            }
+        }
+
+        @PreDestroy
+        void close() {
+            executorService.shutdown()
+            poolService.shutdown()
+        }
+    }
+}
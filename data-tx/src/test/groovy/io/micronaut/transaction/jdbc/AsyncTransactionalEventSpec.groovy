@@ -0,0 +1,285 @@
+package io.micronaut.transaction.jdbc
+
+import io.micronaut.context.annotation.Bean
+import io.micronaut.context.annotation.Factory
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.event.ApplicationEventPublisher
+import io.micronaut.test.annotation.MicronautTest
+import io.micronaut.transaction.annotation.TransactionalEventListener
+import io.micronaut.transaction.interceptor.AsyncTransactionalEventDispatcher
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import javax.inject.Inject
+import javax.inject.Named
+import javax.inject.Singleton
+import javax.transaction.Transactional
+import java.sql.Connection
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+
+@MicronautTest(transactional = false)
+@Property(name = "datasources.default.name", value = "asynceventsdb")
+class AsyncTransactionalEventSpec extends Specification {
+
+    @Inject AsyncEventService service
+    @Inject AsyncTransactionalEventDispatcher dispatcher
+    @Inject @Named("rejecting") RejectingExecutor rejectingExecutor
+
+    void "test async listeners receive events in order after commit"() {
+        when:"several transactions publish events"
+        10.times { service.publish("Book $it") }
+
+        then:"the events are delivered on another thread in order"
+        new PollingConditions(timeout: 5).eventually {
+            assert service.received == (0..<10).collect { "Book $it".toString() }
+        }
+        service.threads.every { it != Thread.currentThread().name }
+        dispatcher.queueDepth == 0
+        dispatcher.statistics.find { it.listener.endsWith('#afterCommit(' + BookEvent.name + ')') }.deliveredCount == 10
+    }
+
+    void "test async listeners are not invoked on rollback"() {
+        given:
+        service.received.clear()
+
+        when:
+        service.publishAndRollback("The Shining")
+
+        then:
+        thrown(RuntimeException)
+
+        when:
+        sleep(200)
+
+        then:
+        service.received.isEmpty()
+    }
+
+    void "test overloaded async listeners have their own queues"() {
+        when:
+        service.publishAuthor("Stephen King")
+
+        then:
+        new PollingConditions(timeout: 5).eventually {
+            assert service.authors == ["Stephen King"]
+        }
+        dispatcher.statistics.find { it.listener.endsWith('#afterCommit(' + AuthorEvent.name + ')') }.deliveredCount == 1
+    }
+
+    void "test events are discarded when the queue of a listener is full"() {
+        given:
+        service.slowListenerStarted = new CountDownLatch(1)
+        service.slowListenerRelease = new CountDownLatch(1)
+
+        when:"an event blocks the listener and more events arrive than the queue holds"
+        service.publishSlow(0)
+        service.slowListenerStarted.await(5, TimeUnit.SECONDS)
+        (1..3).each { service.publishSlow(it) }
+        def statistics = dispatcher.statistics.find { it.listener.contains('#slowAfterCommit(') }
+
+        then:"the events that do not fit in the queue are discarded"
+        statistics.rejectedCount == 1
+        statistics.queueDepth == 2
+
+        when:
+        service.slowListenerRelease.countDown()
+
+        then:"the queued events are delivered"
+        new PollingConditions(timeout: 5).eventually {
+            assert service.slow == [0, 1, 2]
+        }
+    }
+
+    void "test delivery is retried when the executor rejects it"() {
+        given:
+        rejectingExecutor.rejectNext.set(true)
+
+        when:
+        service.publishRejected("Carrie")
+
+        then:"the event is delivered without another event being published"
+        new PollingConditions(timeout: 5).eventually {
+            assert service.rejected == ["Carrie"]
+        }
+        !rejectingExecutor.rejectNext.get()
+    }
+
+    void "test failed events are not counted as delivered"() {
+        when:
+        service.publishFailing("Misery")
+        service.publishFailing("Cujo")
+
+        then:
+        new PollingConditions(timeout: 5).eventually {
+            def statistics = dispatcher.statistics.find { it.listener.contains('#failingAfterCommit(') }
+            assert statistics.failedCount == 1
+            assert statistics.deliveredCount == 1
+        }
+        service.failing == ["Cujo"]
+    }
+
+    @Factory
+    static class ExecutorFactory {
+        @Bean(preDestroy = "shutdown")
+        @Singleton
+        @Named("txevents")
+        ExecutorService txEventsExecutor() {
+            return Executors.newFixedThreadPool(2)
+        }
+
+        @Bean(preDestroy = "shutdown")
+        @Singleton
+        @Named("slowevents")
+        ExecutorService slowEventsExecutor() {
+            return Executors.newSingleThreadExecutor()
+        }
+
+        @Bean(preDestroy = "shutdown")
+        @Singleton
+        @Named("rejecting")
+        RejectingExecutor rejectingExecutor() {
+            return new RejectingExecutor()
+        }
+    }
+
+    static class RejectingExecutor extends ThreadPoolExecutor {
+        final AtomicBoolean rejectNext = new AtomicBoolean()
+
+        RejectingExecutor() {
+            super(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>())
+        }
+
+        @Override
+        void execute(Runnable command) {
+            if (rejectNext.getAndSet(false)) {
+                throw new RejectedExecutionException("Rejected")
+            }
+            super.execute(command)
+        }
+    }
+
+    @Singleton
+    static class AsyncEventService {
+        @Inject Connection connection
+        @Inject ApplicationEventPublisher eventPublisher
+        List<String> received = new CopyOnWriteArrayList<>()
+        List<String> threads = new CopyOnWriteArrayList<>()
+        List<String> authors = new CopyOnWriteArrayList<>()
+        List<Integer> slow = new CopyOnWriteArrayList<>()
+        List<String> rejected = new CopyOnWriteArrayList<>()
+        List<String> failing = new CopyOnWriteArrayList<>()
+        volatile CountDownLatch slowListenerStarted = new CountDownLatch(0)
+        volatile CountDownLatch slowListenerRelease = new CountDownLatch(0)
+
+        @Transactional
+        void publish(String title) {
+            connection.prepareStatement("select 1").withCloseable { it.execute() }
+            eventPublisher.publishEvent(new BookEvent(title))
+        }
+
+        @Transactional
+        void publishAndRollback(String title) {
+            eventPublisher.publishEvent(new BookEvent(title))
+            throw new RuntimeException("Bad things happened")
+        }
+
+        @TransactionalEventListener(async = true, executor = "txevents", maxEventsPerTask = 5)
+        void afterCommit(BookEvent event) {
+            threads.add(Thread.currentThread().name)
+            received.add(event.title)
+        }
+
+        @Transactional
+        void publishAuthor(String name) {
+            eventPublisher.publishEvent(new AuthorEvent(name))
+        }
+
+        @TransactionalEventListener(async = true, executor = "txevents")
+        void afterCommit(AuthorEvent event) {
+            authors.add(event.name)
+        }
+
+        @Transactional
+        void publishSlow(int number) {
+            eventPublisher.publishEvent(new SlowEvent(number))
+        }
+
+        @TransactionalEventListener(async = true, executor = "slowevents", maxQueueSize = 2)
+        void slowAfterCommit(SlowEvent event) {
+            slowListenerStarted.countDown()
+            slowListenerRelease.await(5, TimeUnit.SECONDS)
+            slow.add(event.number)
+        }
+
+        @Transactional
+        void publishRejected(String title) {
+            eventPublisher.publishEvent(new RejectedEvent(title))
+        }
+
+        @TransactionalEventListener(async = true, executor = "rejecting")
+        void rejectedAfterCommit(RejectedEvent event) {
+            rejected.add(event.title)
+        }
+
+        @Transactional
+        void publishFailing(String title) {
+            eventPublisher.publishEvent(new FailingEvent(title))
+        }
+
+        @TransactionalEventListener(async = true, executor = "txevents")
+        void failingAfterCommit(FailingEvent event) {
+            if (event.title == "Misery") {
+                throw new IllegalStateException("Bad things happened")
+            }
+            failing.add(event.title)
+        }
+    }
+
+    static class FailingEvent {
+        final String title
+
+        FailingEvent(String title) {
+            this.title = title
+        }
+    }
+
+    static class BookEvent {
+        final String title
+
+        BookEvent(String title) {
+            this.title = title
+        }
+    }
+
+    static class AuthorEvent {
+        final String name
+
+        AuthorEvent(String name) {
+            this.name = name
+        }
+    }
+
+    static class SlowEvent {
+        final int number
+
+        SlowEvent(int number) {
+            this.number = number
+        }
+    }
+
+    static class RejectedEvent {
+        final String title
+
+        RejectedEvent(String title) {
+            this.title = title
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package io.micronaut.transaction.jdbc
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.inject.qualifiers.Qualifiers
+import io.micronaut.transaction.TransactionDefinition
+import io.micronaut.transaction.support.DefaultTransactionDefinition
+import spock.lang.Specification
+
+import javax.sql.DataSource
+import java.sql.Connection
+
+class ConnectionStateSpec extends Specification {
+
+    void "test connection holder skips calls that change nothing"() {
+        given:
+        Connection connection = Mock(Connection)
+        ConnectionHolder holder = new ConnectionHolder(connection)
+        holder.setKnownState(false, false, Connection.TRANSACTION_READ_COMMITTED)
+
+        when:
+        holder.setAutoCommit(false)
+        holder.setReadOnly(false)
+        holder.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED)
+        boolean autoCommit = holder.isAutoCommit()
+
+        then:
+        !autoCommit
+        0 * connection._
+
+        when:
+        holder.setReadOnly(true)
+        holder.setReadOnly(true)
+
+        then:
+        1 * connection.setReadOnly(true)
+        holder.isReadOnly()
+    }
+
+    void "test connection holder queries unknown state once"() {
+        given:
+        Connection connection = Mock(Connection)
+        ConnectionHolder holder = new ConnectionHolder(connection)
+
+        when:
+        holder.isAutoCommit()
+        holder.isAutoCommit()
+        holder.setAutoCommit(false)
+
+        then:
+        1 * connection.getAutoCommit() >> true
+        1 * connection.setAutoCommit(false)
+    }
+
+    void "test read-only flag is restored to the state the connection was handed out with"() {
+        given:
+        Connection connection = Mock(Connection)
+        ConnectionHolder holder = new ConnectionHolder(connection)
+        holder.setKnownState(false, defaultReadOnly, Connection.TRANSACTION_READ_COMMITTED)
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition()
+        definition.setReadOnly(true)
+
+        when:
+        DataSourceUtils.prepareConnectionForTransaction(holder, definition)
+        DataSourceUtils.resetConnectionAfterTransaction(holder, null)
+
+        then:
+        calls * connection.setReadOnly(true)
+        calls * connection.setReadOnly(false)
+        holder.isReadOnly() == defaultReadOnly
+
+        where:
+        defaultReadOnly | calls
+        false           | 1
+        true            | 0
+    }
+
+    void "test trusted pool defaults are learned for each data source"() {
+        given:
+        Connection primaryConnection = Mock(Connection)
+        Connection replicaConnection = Mock(Connection)
+        DataSource primary = Stub(DataSource) {
+            getConnection() >> primaryConnection
+        }
+        DataSource replica = Stub(DataSource) {
+            getConnection() >> replicaConnection
+        }
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(
+                new ReadReplicaRoutingDataSource(primary, [replica], null)
+        )
+        transactionManager.setTrustPoolDefaults(true)
+
+        when:
+        2.times { transactionManager.executeRead({ status -> null }) }
+        2.times { transactionManager.executeWrite({ status -> null }) }
+
+        then:"the state of the replica, which hands out read-only connections, is queried once and kept"
+        1 * replicaConnection.getAutoCommit() >> true
+        1 * replicaConnection.isReadOnly() >> true
+        1 * replicaConnection.getTransactionIsolation() >> Connection.TRANSACTION_READ_COMMITTED
+        0 * replicaConnection.setReadOnly(_)
+
+        and:"the state of the primary is learned separately"
+        1 * primaryConnection.getAutoCommit() >> true
+        1 * primaryConnection.isReadOnly() >> false
+        1 * primaryConnection.getTransactionIsolation() >> Connection.TRANSACTION_READ_COMMITTED
+        0 * primaryConnection.setReadOnly(_)
+    }
+
+    void "test build set transaction statement"() {
+        given:
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(Mock(DataSource))
+        transactionManager.setUseSetTransactionStatement(true)
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition()
+        definition.setIsolationLevel(isolation)
+        definition.setReadOnly(readOnly)
+
+        expect:
+        transactionManager.buildSetTransactionStatement(definition) == statement
+
+        where:
+        isolation                                      | readOnly | statement
+        TransactionDefinition.Isolation.DEFAULT        | false    | null
+        TransactionDefinition.Isolation.DEFAULT        | true     | 'SET TRANSACTION READ ONLY'
+        TransactionDefinition.Isolation.SERIALIZABLE   | false    | 'SET TRANSACTION ISOLATION LEVEL SERIALIZABLE'
+        TransactionDefinition.Isolation.READ_COMMITTED | true     | 'SET TRANSACTION ISOLATION LEVEL READ COMMITTED, READ ONLY'
+    }
+
+    void "test transactions with trusted pool defaults"() {
+        given:
+        ApplicationContext context = ApplicationContext.run(
+                'datasources.default.url': 'jdbc:h2:mem:poolDefaultsDb',
+                'datasources.default.driverClassName': 'org.h2.Driver',
+                'datasources.default.trust-pool-defaults': true
+        )
+        DataSourceTransactionManager transactionManager = context.getBean(DataSourceTransactionManager, Qualifiers.byName("default"))
+
+        expect:
+        transactionManager.isTrustPoolDefaults()
+        transactionManager.executeWrite({ status -> !status.connection.autoCommit })
+        transactionManager.executeRead({ status -> !status.connection.autoCommit })
+        transactionManager.executeWrite({ status -> !status.connection.autoCommit })
+
+        cleanup:
+        context.close()
+    }
+}
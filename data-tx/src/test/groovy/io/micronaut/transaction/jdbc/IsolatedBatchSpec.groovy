@@ -0,0 +1,90 @@
+package io.micronaut.transaction.jdbc
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.inject.qualifiers.Qualifiers
+import io.micronaut.transaction.BatchFailure
+import io.micronaut.transaction.BatchItemCallback
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.sql.Connection
+import java.sql.SQLException
+
+class IsolatedBatchSpec extends Specification {
+
+    @Shared @AutoCleanup ApplicationContext context = ApplicationContext.run(
+            'datasources.default.url': 'jdbc:h2:mem:isolatedBatchDb',
+            'datasources.default.driverClassName': 'org.h2.Driver'
+    )
+    @Shared DataSourceTransactionManager transactionManager = context.getBean(DataSourceTransactionManager, Qualifiers.byName("default"))
+
+    void setup() {
+        transactionManager.executeWrite { status ->
+            status.connection.createStatement().withCloseable {
+                it.execute("drop table if exists batch_item")
+                it.execute("create table batch_item(id int primary key, amount int check (amount >= 0))")
+            }
+        }
+    }
+
+    void "test failing items are isolated and the remaining items are applied"() {
+        given:
+        List<Integer> amounts = [1, 2, -3, 4, 5, 6, -7, 8, 9, 10]
+        int calls = 0
+        BatchItemCallback<Connection, Integer> callback = { status, Integer amount ->
+            calls++
+            status.connection.prepareStatement("insert into batch_item(id, amount) values (?, ?)").withCloseable {
+                it.setInt(1, Math.abs(amount))
+                it.setInt(2, amount)
+                it.executeUpdate()
+            }
+        }
+
+        when:
+        List<BatchFailure<Integer>> failures = transactionManager.executeIsolatedBatch(amounts, 4, callback)
+
+        then:
+        failures*.index == [2, 6]
+        failures*.item == [-3, -7]
+        failures.every { it.cause instanceof SQLException }
+        readIds() == [1, 2, 4, 5, 6, 8, 9, 10]
+        calls > amounts.size()
+    }
+
+    void "test each item is processed once when all items succeed"() {
+        given:
+        List<Integer> processed = []
+
+        when:
+        List<BatchFailure<Integer>> failures = transactionManager.executeIsolatedBatch((1..7).toList(), 3, { status, Integer id ->
+            processed << id
+            status.connection.createStatement().withCloseable {
+                it.executeUpdate("insert into batch_item(id, amount) values ($id, $id)")
+            }
+        } as BatchItemCallback<Connection, Integer>)
+
+        then:
+        failures.isEmpty()
+        processed == (1..7).toList()
+        readIds() == (1..7).toList()
+    }
+
+    void "test an empty batch does nothing"() {
+        expect:
+        transactionManager.executeIsolatedBatch([], 10, { status, item -> throw new IllegalStateException() } as BatchItemCallback).isEmpty()
+    }
+
+    private List<Integer> readIds() {
+        transactionManager.executeRead { status ->
+            status.connection.createStatement().withCloseable {
+                def rs = it.executeQuery("select id from batch_item order by id")
+                List<Integer> ids = []
+                while (rs.next()) {
+                    ids << rs.getInt(1)
+                }
+                ids
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package io.micronaut.transaction.jdbc
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.inject.qualifiers.Qualifiers
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+import javax.sql.DataSource
+
+class LazyConnectionDataSourceProxySpec extends Specification {
+
+    @Shared @AutoCleanup ApplicationContext context = ApplicationContext.run(
+            'datasources.default.url': 'jdbc:h2:mem:lazyDb',
+            'datasources.default.driverClassName': 'org.h2.Driver',
+            'datasources.default.lazy-connection': true
+    )
+
+    void "test a connection is only fetched when the transaction uses it"() {
+        given:
+        DataSource dataSource = context.getBean(DataSource, Qualifiers.byName("default"))
+        DataSourceTransactionManager transactionManager = context.getBean(DataSourceTransactionManager, Qualifiers.byName("default"))
+
+        expect:
+        dataSource instanceof LazyConnectionDataSourceProxy
+        !transactionManager.executeWrite({ status ->
+            LazyConnectionDataSourceProxy.isTargetConnectionFetched(status.connection)
+        })
+        transactionManager.executeWrite({ status ->
+            status.connection.createStatement().withCloseable { it.execute("select 1") }
+            LazyConnectionDataSourceProxy.isTargetConnectionFetched(status.connection)
+        })
+    }
+
+    void "test recorded connection settings are applied when the connection is fetched"() {
+        given:
+        DataSourceTransactionManager transactionManager = context.getBean(DataSourceTransactionManager, Qualifiers.byName("default"))
+
+        when:"a table is created and a row inserted in a transaction that is rolled back"
+        transactionManager.executeWrite({ status ->
+            status.connection.createStatement().withCloseable { it.execute("create table lazy_test (id bigint)") }
+        })
+        transactionManager.executeWrite({ status ->
+            status.connection.createStatement().withCloseable { it.execute("insert into lazy_test values (1)") }
+            status.setRollbackOnly()
+        })
+
+        then:"the insert was not auto-committed"
+        transactionManager.executeRead({ status ->
+            status.connection.createStatement().withCloseable {
+                def rs = it.executeQuery("select count(*) from lazy_test")
+                rs.next()
+                rs.getInt(1)
+            }
+        }) == 0
+    }
+}
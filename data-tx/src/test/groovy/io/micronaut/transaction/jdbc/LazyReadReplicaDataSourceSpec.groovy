@@ -0,0 +1,42 @@
+package io.micronaut.transaction.jdbc
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.inject.qualifiers.Qualifiers
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+import javax.sql.DataSource
+
+class LazyReadReplicaDataSourceSpec extends Specification {
+
+    @Shared @AutoCleanup ApplicationContext context = ApplicationContext.run(
+            'datasources.default.url': 'jdbc:h2:mem:lazyPrimaryDb',
+            'datasources.default.driverClassName': 'org.h2.Driver',
+            'datasources.default.lazy-connection': true,
+            'datasources.replica.url': 'jdbc:h2:mem:lazyReplicaDb',
+            'datasources.replica.driverClassName': 'org.h2.Driver',
+            'read-replicas.default.data-sources': ['replica']
+    )
+
+    void "test the routing data source is wrapped by the lazy proxy"() {
+        given:
+        DataSource dataSource = context.getBean(DataSource, Qualifiers.byName("default"))
+
+        expect:
+        dataSource instanceof LazyConnectionDataSourceProxy
+        ((LazyConnectionDataSourceProxy) dataSource).targetDataSource instanceof ReadReplicaRoutingDataSource
+    }
+
+    void "test lazily fetched connections are routed by the transaction"() {
+        given:
+        DataSourceTransactionManager transactionManager = context.getBean(DataSourceTransactionManager, Qualifiers.byName("default"))
+
+        expect:
+        !transactionManager.executeRead({ status ->
+            LazyConnectionDataSourceProxy.isTargetConnectionFetched(status.connection)
+        })
+        transactionManager.executeRead({ status -> status.connection.metaData.URL }).contains('lazyReplicaDb')
+        transactionManager.executeWrite({ status -> status.connection.metaData.URL }).contains('lazyPrimaryDb')
+    }
+}
@@ -0,0 +1,127 @@
+package io.micronaut.transaction.jdbc
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.inject.qualifiers.Qualifiers
+import io.micronaut.transaction.TransactionCallback
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+import javax.sql.DataSource
+import java.sql.Connection
+import java.sql.SQLException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
+class ParallelReadSpec extends Specification {
+
+    @Shared @AutoCleanup ApplicationContext context = ApplicationContext.run(
+            'datasources.default.url': 'jdbc:h2:mem:parallelDb',
+            'datasources.default.driverClassName': 'org.h2.Driver'
+    )
+    @Shared ExecutorService executor = Executors.newFixedThreadPool(3)
+
+    void cleanupSpec() {
+        executor.shutdown()
+    }
+
+    void "test reads run sequentially in one transaction when snapshots cannot be exported"() {
+        given:
+        DataSourceTransactionManager transactionManager = context.getBean(DataSourceTransactionManager, Qualifiers.byName("default"))
+        List<TransactionCallback<Connection, Object>> callbacks = (1..3).collect { i ->
+            { status -> [i, Thread.currentThread().name] } as TransactionCallback<Connection, Object>
+        }
+
+        when:
+        List<List> results = transactionManager.executeReadInParallel(callbacks, executor)
+
+        then:
+        results*.get(0) == [1, 2, 3]
+        results*.get(1).unique() == [Thread.currentThread().name]
+    }
+
+    void "test reads run concurrently when the snapshot is shared"() {
+        given:
+        List<String> imported = [].asSynchronized()
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(context.getBean(DataSource, Qualifiers.byName("default"))) {
+            @Override
+            protected String exportSnapshot(Connection connection) throws SQLException {
+                return "00000003-0000001B-1"
+            }
+
+            @Override
+            protected void importSnapshot(Connection connection, String snapshot) throws SQLException {
+                imported.add(snapshot)
+            }
+        }
+        List<TransactionCallback<Connection, Object>> callbacks = (1..3).collect { i ->
+            { status ->
+                status.connection.createStatement().withCloseable { it.execute("select 1") }
+                [i, Thread.currentThread().name]
+            } as TransactionCallback<Connection, Object>
+        }
+
+        when:
+        List<List> results = transactionManager.executeReadInParallel(callbacks, executor)
+
+        then:
+        results*.get(0) == [1, 2, 3]
+        results[0][1] == Thread.currentThread().name
+        results[1][1] != Thread.currentThread().name
+        results[2][1] != Thread.currentThread().name
+        imported == ["00000003-0000001B-1", "00000003-0000001B-1"]
+    }
+
+    void "test readers import the snapshot on the read replica that exported it"() {
+        given:
+        ApplicationContext replicaContext = ApplicationContext.run(
+                'datasources.default.url': 'jdbc:h2:mem:parallelPrimaryDb',
+                'datasources.default.driverClassName': 'org.h2.Driver',
+                'datasources.first.url': 'jdbc:h2:mem:parallelFirstReplicaDb',
+                'datasources.first.driverClassName': 'org.h2.Driver',
+                'datasources.second.url': 'jdbc:h2:mem:parallelSecondReplicaDb',
+                'datasources.second.driverClassName': 'org.h2.Driver',
+                'read-replicas.default.data-sources': ['first', 'second']
+        )
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(replicaContext.getBean(DataSource, Qualifiers.byName("default"))) {
+            @Override
+            protected String exportSnapshot(Connection connection) throws SQLException {
+                return "00000003-0000001B-1"
+            }
+
+            @Override
+            protected void importSnapshot(Connection connection, String snapshot) throws SQLException {
+            }
+        }
+        List<TransactionCallback<Connection, Object>> callbacks = (1..3).collect { i ->
+            { status -> status.connection.metaData.URL } as TransactionCallback<Connection, Object>
+        }
+
+        when:
+        List<String> urls = (1..3).collectMany { transactionManager.executeReadInParallel(callbacks, executor) }
+
+        then:
+        urls.every { it.contains('ReplicaDb') }
+        urls.collate(3).every { it.toUnique().size() == 1 }
+        urls.toUnique().size() == 2
+
+        cleanup:
+        replicaContext.close()
+    }
+
+    void "test a failing read fails the whole operation"() {
+        given:
+        DataSourceTransactionManager transactionManager = context.getBean(DataSourceTransactionManager, Qualifiers.byName("default"))
+        List<TransactionCallback<Connection, Object>> callbacks = [
+                { status -> 1 } as TransactionCallback<Connection, Object>,
+                { status -> throw new IllegalStateException("Bad things happened") } as TransactionCallback<Connection, Object>
+        ]
+
+        when:
+        transactionManager.executeReadInParallel(callbacks, executor)
+
+        then:
+        def e = thrown(IllegalStateException)
+        e.message == "Bad things happened"
+    }
+}
@@ -0,0 +1,47 @@
+package io.micronaut.transaction.jdbc
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.inject.qualifiers.Qualifiers
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+import javax.sql.DataSource
+
+class ReadReplicaRoutingDataSourceSpec extends Specification {
+
+    @Shared @AutoCleanup ApplicationContext context = ApplicationContext.run(
+            'datasources.default.url': 'jdbc:h2:mem:primaryDb',
+            'datasources.default.driverClassName': 'org.h2.Driver',
+            'datasources.replica.url': 'jdbc:h2:mem:replicaDb',
+            'datasources.replica.driverClassName': 'org.h2.Driver',
+            'read-replicas.default.data-sources': ['replica']
+    )
+
+    void "test read-only transactions are routed to the replica"() {
+        given:
+        DataSource dataSource = context.getBean(DataSource, Qualifiers.byName("default"))
+        DataSourceTransactionManager transactionManager = context.getBean(DataSourceTransactionManager, Qualifiers.byName("default"))
+
+        expect:
+        dataSource instanceof ReadReplicaRoutingDataSource
+        transactionManager.executeRead({ status -> status.connection.metaData.URL }).contains('replicaDb')
+        transactionManager.executeWrite({ status -> status.connection.metaData.URL }).contains('primaryDb')
+    }
+
+    void "test read-your-writes window routes reads to the primary"() {
+        given:
+        ReadReplicaRoutingDataSource dataSource = (ReadReplicaRoutingDataSource) context.getBean(DataSource, Qualifiers.byName("default"))
+        DataSourceTransactionManager transactionManager = context.getBean(DataSourceTransactionManager, Qualifiers.byName("default"))
+        dataSource.setReadYourWritesWindow(java.time.Duration.ofMinutes(1))
+
+        when:
+        transactionManager.executeWrite({ status -> status.connection.metaData.URL })
+
+        then:
+        transactionManager.executeRead({ status -> status.connection.metaData.URL }).contains('primaryDb')
+
+        cleanup:
+        dataSource.setReadYourWritesWindow(null)
+    }
+}
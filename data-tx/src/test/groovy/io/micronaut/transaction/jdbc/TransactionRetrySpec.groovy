@@ -0,0 +1,126 @@
+package io.micronaut.transaction.jdbc
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.test.annotation.MicronautTest
+import io.micronaut.transaction.annotation.TransactionalRetry
+import io.micronaut.transaction.interceptor.TransactionRetryPolicy
+import spock.lang.Specification
+
+import javax.inject.Inject
+import javax.inject.Singleton
+import javax.transaction.Transactional
+import java.sql.Connection
+import java.sql.SQLException
+import java.time.Duration
+
+@MicronautTest(transactional = false)
+@Property(name = "datasources.default.name", value = "retrydb")
+class TransactionRetrySpec extends Specification {
+
+    @Inject RetryingBookService bookService
+    @Inject OuterService outerService
+
+    void setup() {
+        bookService.init()
+    }
+
+    void "test a transaction failing with a transient error is retried"() {
+        when:
+        bookService.insert(2)
+
+        then:"only the successful attempt is committed"
+        bookService.attempts == 3
+        bookService.count() == 1
+    }
+
+    void "test a transaction is not retried more than the maximum attempts"() {
+        when:
+        bookService.insert(5)
+
+        then:
+        def e = thrown(RuntimeException)
+        e.cause instanceof SQLException
+        bookService.attempts == 3
+        bookService.count() == 0
+    }
+
+    void "test a transaction failing with a non transient error is not retried"() {
+        when:
+        bookService.insertAndFail()
+
+        then:
+        thrown(IllegalStateException)
+        bookService.attempts == 1
+        bookService.count() == 0
+    }
+
+    void "test a joined transaction is not retried on its own"() {
+        when:
+        outerService.insertInOuterTransaction()
+
+        then:
+        thrown(RuntimeException)
+        bookService.attempts == 1
+    }
+
+    void "test transient failures are classified by SQL state"() {
+        given:
+        TransactionRetryPolicy policy = new TransactionRetryPolicy(3, Duration.ofMillis(100), Duration.ofMillis(150), 2, ["40001", "40P01"] as String[], [] as Class[])
+
+        expect:
+        policy.isTransient(new RuntimeException(new SQLException("serialization failure", "40001")))
+        policy.isTransient(new SQLException("deadlock detected", "40P01"))
+        !policy.isTransient(new SQLException("unique violation", "23505"))
+        !policy.isTransient(new IllegalStateException())
+        policy.getDelayMillis(1) in 50..100
+        policy.getDelayMillis(5) in 75..150
+    }
+
+    @Singleton
+    static class RetryingBookService {
+        @Inject Connection connection
+        int attempts
+
+        @Transactional
+        void init() {
+            attempts = 0
+            connection.prepareStatement("drop table book if exists").execute()
+            connection.prepareStatement("create table book (id bigint not null auto_increment, pages integer not null, title varchar(255), primary key (id))").execute()
+        }
+
+        @Transactional
+        @TransactionalRetry(delay = "1ms")
+        void insert(int failures) {
+            attempts++
+            connection.prepareStatement("insert into book (pages, title) values(100, 'The Stand')").execute()
+            if (attempts <= failures) {
+                throw new RuntimeException(new SQLException("could not serialize access", "40001"))
+            }
+        }
+
+        @Transactional
+        @TransactionalRetry(delay = "1ms")
+        void insertAndFail() {
+            attempts++
+            connection.prepareStatement("insert into book (pages, title) values(100, 'The Stand')").execute()
+            throw new IllegalStateException("Bad things happened")
+        }
+
+        @Transactional
+        int count() {
+            def rs = connection.prepareStatement("select count(*) as count from book").executeQuery()
+            rs.next()
+            return rs.getInt("count")
+        }
+    }
+
+    @Singleton
+    static class OuterService {
+        @Inject RetryingBookService bookService
+
+        @Transactional
+        void insertInOuterTransaction() {
+            bookService.insert(1)
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package io.micronaut.transaction.support
+
+import io.micronaut.transaction.TransactionDefinition
+import spock.lang.Specification
+
+class TransactionStateHolderSpec extends Specification {
+
+    void "test state is kept in a single holder and removed when empty"() {
+        given:
+        TransactionStateHolder original = TransactionSynchronizationManager.getStateHolder()
+        MapStateHolder holder = new MapStateHolder()
+        TransactionSynchronizationManager.setStateHolder(holder)
+
+        when:
+        TransactionSynchronizationManager.initSynchronization()
+        TransactionSynchronizationManager.setActualTransactionActive(true)
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true)
+        TransactionSynchronizationManager.setCurrentTransactionIsolationLevel(TransactionDefinition.Isolation.SERIALIZABLE)
+        TransactionSynchronizationManager.bindResource("key", "value")
+
+        then:
+        holder.state != null
+        TransactionSynchronizationManager.isSynchronizationActive()
+        TransactionSynchronizationManager.isActualTransactionActive()
+        TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+        TransactionSynchronizationManager.getCurrentTransactionIsolationLevel() == TransactionDefinition.Isolation.SERIALIZABLE
+        TransactionSynchronizationManager.getResource("key") == "value"
+
+        when:"the state is captured and bound elsewhere"
+        def state = TransactionSynchronizationManager.getState()
+        def fromOtherThread = null
+        Thread.start {
+            fromOtherThread = TransactionSynchronizationManager.withState(state, {
+                TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+            })
+        }.join()
+
+        then:
+        fromOtherThread == true
+
+        when:
+        TransactionSynchronizationManager.unbindResource("key")
+        TransactionSynchronizationManager.clear()
+
+        then:
+        holder.state == null
+        !TransactionSynchronizationManager.isSynchronizationActive()
+
+        cleanup:
+        TransactionSynchronizationManager.setStateHolder(original)
+    }
+
+    void "test captured state copies resources and synchronizations"() {
+        given:
+        TransactionSynchronizationManager.initSynchronization()
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {})
+        TransactionSynchronizationManager.bindResource("key", "value")
+        def state = TransactionSynchronizationManager.getState()
+
+        when:"another thread binds a resource and registers a synchronization with the captured state"
+        def fromOtherThread = null
+        Thread.start {
+            fromOtherThread = TransactionSynchronizationManager.withState(state, {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {})
+                TransactionSynchronizationManager.bindResource("other", "value")
+                [TransactionSynchronizationManager.getSynchronizations().size(), TransactionSynchronizationManager.getResource("key")]
+            })
+        }.join()
+
+        then:"the other thread sees the captured resources and synchronizations"
+        fromOtherThread == [2, "value"]
+
+        and:"neither the current thread nor the captured state are modified"
+        TransactionSynchronizationManager.getSynchronizations().size() == 1
+        TransactionSynchronizationManager.getResource("other") == null
+        TransactionSynchronizationManager.withState(state, {
+            [TransactionSynchronizationManager.getSynchronizations().size(), TransactionSynchronizationManager.getResource("other")]
+        }) == [1, null]
+
+        when:"the current thread registers a synchronization"
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {})
+
+        then:"the captured state is not modified"
+        TransactionSynchronizationManager.withState(state, {
+            TransactionSynchronizationManager.getSynchronizations().size()
+        }) == 1
+
+        cleanup:
+        TransactionSynchronizationManager.unbindResourceIfPossible("key")
+        TransactionSynchronizationManager.clear()
+    }
+
+    static class MapStateHolder implements TransactionStateHolder {
+        volatile TransactionSynchronizationManager.State state
+
+        @Override
+        TransactionSynchronizationManager.State get() {
+            return state
+        }
+
+        @Override
+        void set(TransactionSynchronizationManager.State state) {
+            this.state = state
+        }
+    }
+}